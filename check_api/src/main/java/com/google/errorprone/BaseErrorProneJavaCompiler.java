@@ -68,27 +68,32 @@ public class BaseErrorProneJavaCompiler implements JavaCompiler {
       Iterable<String> classes,
       Iterable<? extends JavaFileObject> compilationUnits) {
     ErrorProneOptions errorProneOptions = ErrorProneOptions.processArgs(options);
-    ImmutableList<String> javacOpts = errorProneOptions.getRemainingArgs();
-    javacOpts = defaultToLatestSupportedLanguageLevel(javacOpts);
-    javacOpts = setCompilePolicyToByFile(javacOpts);
-    javacOpts = setShouldStopIfErrorPolicyToFlow(javacOpts);
-    javacOpts = setAddTypeAnnotationsToSymbol(javacOpts);
     JavacTask task =
         (JavacTask)
             javacTool.getTask(
-                out, fileManager, diagnosticListener, javacOpts, classes, compilationUnits);
+                out,
+                fileManager,
+                diagnosticListener,
+                javacOptions(errorProneOptions),
+                classes,
+                compilationUnits);
     addTaskListener(task, scannerSupplier, errorProneOptions);
     return task;
   }
 
+  /** Returns the options to pass to javac, with the defaults that Error Prone depends on. */
+  static ImmutableList<String> javacOptions(ErrorProneOptions errorProneOptions) {
+    ImmutableList<String> javacOpts = errorProneOptions.getRemainingArgs();
+    javacOpts = defaultToLatestSupportedLanguageLevel(javacOpts);
+    javacOpts = setCompilePolicyToByFile(javacOpts);
+    javacOpts = setShouldStopIfErrorPolicyToFlow(javacOpts);
+    javacOpts = setAddTypeAnnotationsToSymbol(javacOpts);
+    return javacOpts;
+  }
+
   static void addTaskListener(
       JavacTask javacTask, ScannerSupplier scannerSupplier, ErrorProneOptions errorProneOptions) {
-    Context context = ((BasicJavacTask) javacTask).getContext();
-    setupMessageBundle(context);
-    Options options = Options.instance(context);
-    checkCompilePolicy(options.get("compilePolicy"));
-    checkShouldStopIfErrorPolicy(options.get("should-stop.ifError"));
-    checkAddTypeAnnotationsToSymbol(options.get("addTypeAnnotationsToSymbol"));
+    Context context = setupContext(javacTask);
     RefactoringCollection[] refactoringCollection = {null};
     javacTask.addTaskListener(
         ErrorProneAnalyzer.createAnalyzer(
@@ -99,6 +104,20 @@ public class BaseErrorProneJavaCompiler implements JavaCompiler {
     }
   }
 
+  /**
+   * Registers Error Prone's messages with the given task, and checks that it was configured as
+   * Error Prone requires.
+   */
+  static Context setupContext(JavacTask javacTask) {
+    Context context = ((BasicJavacTask) javacTask).getContext();
+    setupMessageBundle(context);
+    Options options = Options.instance(context);
+    checkCompilePolicy(options.get("compilePolicy"));
+    checkShouldStopIfErrorPolicy(options.get("should-stop.ifError"));
+    checkAddTypeAnnotationsToSymbol(options.get("addTypeAnnotationsToSymbol"));
+    return context;
+  }
+
   @Override
   public StandardJavaFileManager getStandardFileManager(
       DiagnosticListener<? super JavaFileObject> diagnosticListener,
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.TreeRangeSet;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.LineMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The lines changed in each source file, as given by {@code -XepChangedLines:<path>}. When present,
+ * only the changed lines of the listed files are analyzed, and only findings on those lines are
+ * reported.
+ *
+ * <p>The file has one {@code <source path>:<ranges>} entry per line, where the ranges are
+ * comma-separated line numbers or inclusive {@code <first>-<last>} ranges, for example {@code
+ * src/main/java/Foo.java:3-7,12}. Source paths may be relative, in which case they match any source
+ * file whose path ends with them.
+ */
+public final class ChangedLines {
+
+  private static final Splitter COMMA = Splitter.on(',').trimResults().omitEmptyStrings();
+
+  private final ImmutableMap<String, ImmutableRangeSet<Integer>> linesByPath;
+
+  private ChangedLines(ImmutableMap<String, ImmutableRangeSet<Integer>> linesByPath) {
+    this.linesByPath = linesByPath;
+  }
+
+  static ChangedLines load(Path path) {
+    Map<String, RangeSet<Integer>> rangesByPath = new HashMap<>();
+    try {
+      for (String line : Files.readAllLines(path, UTF_8)) {
+        line = line.strip();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        int colon = line.lastIndexOf(':');
+        if (colon <= 0) {
+          throw new InvalidCommandLineOptionException("invalid changed lines entry: " + line);
+        }
+        RangeSet<Integer> ranges =
+            rangesByPath.computeIfAbsent(
+                line.substring(0, colon).replace('\\', '/'), k -> TreeRangeSet.create());
+        for (String range : COMMA.split(line.substring(colon + 1))) {
+          List<String> bounds = Splitter.on('-').trimResults().splitToList(range);
+          int first = Integer.parseInt(bounds.get(0));
+          int last = Integer.parseInt(bounds.get(bounds.size() - 1));
+          if (bounds.size() > 2 || first > last) {
+            throw new InvalidCommandLineOptionException("invalid changed lines entry: " + line);
+          }
+          ranges.add(Range.closed(first, last));
+        }
+      }
+    } catch (IOException e) {
+      throw new InvalidCommandLineOptionException("Error loading changed lines " + path, e);
+    } catch (NumberFormatException e) {
+      throw new InvalidCommandLineOptionException("invalid line number in " + path, e);
+    }
+    return new ChangedLines(
+        rangesByPath.entrySet().stream()
+            .collect(
+                toImmutableMap(Map.Entry::getKey, e -> ImmutableRangeSet.copyOf(e.getValue()))));
+  }
+
+  /**
+   * Returns the changed lines of the given compilation unit, or {@code null} if it wasn't changed.
+   */
+  public @Nullable ImmutableRangeSet<Integer> forCompilationUnit(CompilationUnitTree tree) {
+    return forPath(ASTHelpers.getFileName(tree));
+  }
+
+  /** Returns the changed lines of the given source file, or {@code null} if it wasn't changed. */
+  @Nullable ImmutableRangeSet<Integer> forPath(String path) {
+    String fileName = path.replace('\\', '/');
+    ImmutableRangeSet<Integer> lines = linesByPath.get(fileName);
+    if (lines != null) {
+      return lines;
+    }
+    for (Map.Entry<String, ImmutableRangeSet<Integer>> entry : linesByPath.entrySet()) {
+      if (fileName.endsWith("/" + entry.getKey())) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+  /** Returns true if any of the lines spanned by the given source positions were changed. */
+  public static boolean intersects(
+      ImmutableRangeSet<Integer> lines, LineMap lineMap, int startPosition, int endPosition) {
+    if (startPosition < 0 || endPosition < 0) {
+      // Be conservative if the positions are unknown.
+      return true;
+    }
+    int first = (int) lineMap.getLineNumber(startPosition);
+    int last = (int) lineMap.getLineNumber(Math.max(startPosition, endPosition - 1));
+    return lines.intersects(Range.closed(first, last));
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Comparator.comparingLong;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One of several shards that the enabled checks are split between, as selected by {@code
+ * -XepShard:<index>/<count>}. Every shard analyzes the same sources, but only runs its own checks.
+ *
+ * <p>The partition is deterministic: checks are assigned greedily, most expensive first, to the
+ * shard with the lowest total cost so far. Costs are read from the file given by {@code
+ * -XepShardCosts:<path>}, with one {@code <check name> <cost>} entry per line, as written by {@link
+ * #formatCosts}. Checks without an entry are assumed to cost the average of the known costs.
+ */
+public record CheckShard(int index, int count, ImmutableMap<String, Long> costs) {
+
+  private static final Splitter WHITESPACE =
+      Splitter.on(CharMatcher.whitespace()).trimResults().omitEmptyStrings();
+
+  public CheckShard {
+    if (count < 1 || index < 0 || index >= count) {
+      throw new InvalidCommandLineOptionException(
+          String.format("invalid shard %d/%d", index, count));
+    }
+  }
+
+  /** Parses a shard specification of the form {@code <index>/<count>}. */
+  static CheckShard parse(String spec, ImmutableMap<String, Long> costs) {
+    List<String> parts = Splitter.on('/').splitToList(spec);
+    if (parts.size() != 2) {
+      throw new InvalidCommandLineOptionException("invalid shard: " + spec);
+    }
+    try {
+      return new CheckShard(Integer.parseInt(parts.get(0)), Integer.parseInt(parts.get(1)), costs);
+    } catch (NumberFormatException e) {
+      throw new InvalidCommandLineOptionException("invalid shard: " + spec);
+    }
+  }
+
+  /** Reads a cost table in the format written by {@link #formatCosts}. */
+  static ImmutableMap<String, Long> loadCosts(Path path) {
+    ImmutableMap.Builder<String, Long> costs = ImmutableMap.builder();
+    try {
+      for (String line : Files.readAllLines(path, UTF_8)) {
+        List<String> parts = WHITESPACE.splitToList(line);
+        if (parts.isEmpty() || parts.get(0).startsWith("#")) {
+          continue;
+        }
+        if (parts.size() != 2) {
+          throw new InvalidCommandLineOptionException("invalid shard cost entry: " + line);
+        }
+        costs.put(parts.get(0), Long.parseLong(parts.get(1)));
+      }
+    } catch (IOException e) {
+      throw new InvalidCommandLineOptionException("Error loading shard costs " + path);
+    } catch (NumberFormatException e) {
+      throw new InvalidCommandLineOptionException("invalid shard cost in " + path);
+    }
+    return costs.buildKeepingLast();
+  }
+
+  /**
+   * Formats the given per-check timings, e.g. from {@link ErrorProneTimings#timings()}, as a cost
+   * table in milliseconds.
+   */
+  public static String formatCosts(Map<String, Duration> timings) {
+    StringBuilder sb = new StringBuilder();
+    timings.entrySet().stream()
+        .sorted(Map.Entry.comparingByKey())
+        .forEach(
+            e -> sb.append(e.getKey()).append(' ').append(e.getValue().toMillis()).append('\n'));
+    return sb.toString();
+  }
+
+  /** Returns the names of the given checks that belong to this shard. */
+  public ImmutableSet<String> select(Collection<String> checkNames) {
+    long defaultCost =
+        Math.max(1, Math.round(costs.values().stream().mapToLong(c -> c).average().orElse(1)));
+    Comparator<String> byCost =
+        comparingLong((String name) -> costs.getOrDefault(name, defaultCost)).reversed();
+    ImmutableList<String> sorted =
+        checkNames.stream()
+            .distinct()
+            .sorted(byCost.thenComparing(Comparator.naturalOrder()))
+            .collect(toImmutableList());
+    long[] loads = new long[count];
+    ImmutableSet.Builder<String> selected = ImmutableSet.builder();
+    for (String name : sorted) {
+      int shard = 0;
+      for (int i = 1; i < count; i++) {
+        if (loads[i] < loads[shard]) {
+          shard = i;
+        }
+      }
+      loads[shard] += Math.max(1, costs.getOrDefault(name, defaultCost));
+      if (shard == index) {
+        selected.add(name);
+      }
+    }
+    return selected.build();
+  }
+}
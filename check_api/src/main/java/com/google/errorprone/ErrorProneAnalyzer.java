@@ -22,10 +22,12 @@ import static com.google.common.base.Verify.verify;
 
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableRangeSet;
 import com.google.common.collect.ImmutableSet;
-import com.google.errorprone.BugPattern.SeverityLevel;
 import com.google.errorprone.ErrorProneOptions.Severity;
 import com.google.errorprone.RefactoringCollection.RefactoringResult;
+import com.google.errorprone.matchers.Description;
 import com.google.errorprone.scanner.ErrorProneScannerTransformer;
 import com.google.errorprone.scanner.ScannerSupplier;
 import com.google.errorprone.util.ASTHelpers;
@@ -44,11 +46,14 @@ import com.sun.tools.javac.util.Context;
 import com.sun.tools.javac.util.Log;
 import com.sun.tools.javac.util.Log.WriterKind;
 import com.sun.tools.javac.util.PropagatedException;
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.Pattern;
 import javax.tools.JavaFileObject;
+import org.jspecify.annotations.Nullable;
 
 /** A {@link TaskListener} that runs Error Prone over attributed compilation units. */
 @Trusted
@@ -70,8 +75,6 @@ public final class ErrorProneAnalyzer implements TaskListener {
     if (!epOptions.patchingOptions().doRefactor()) {
       return createByScanningForPlugins(scannerSupplier, epOptions, context);
     }
-    refactoringCollection[0] = RefactoringCollection.refactor(epOptions.patchingOptions(), context);
-
     // Refaster refactorer or using builtin checks
     Supplier<CodeTransformer> codeTransformer =
         epOptions
@@ -94,6 +97,7 @@ public final class ErrorProneAnalyzer implements TaskListener {
                                   });
                       return ErrorProneScannerTransformer.create(toUse.get());
                     }));
+    refactoringCollection[0] = RefactoringCollection.refactor(epOptions, codeTransformer, context);
 
     return createWithCustomDescriptionListener(
         codeTransformer, epOptions, context, refactoringCollection[0]);
@@ -115,18 +119,26 @@ public final class ErrorProneAnalyzer implements TaskListener {
 
     @Override
     public void finished(TaskEvent event) {
-      if (event.getKind() != Kind.GENERATE) {
+      if (event.getKind() != Kind.GENERATE && event.getKind() != Kind.COMPILATION) {
         return;
       }
-      RefactoringResult refactoringResult;
+      ImmutableList<RefactoringResult> refactoringResults;
       try {
-        refactoringResult = refactoringCollection.applyChanges(event.getSourceFile().toUri());
+        refactoringResults =
+            event.getKind() == Kind.COMPILATION
+                ? refactoringCollection.finish()
+                : ImmutableList.of(
+                    refactoringCollection.applyChanges(event.getSourceFile().toUri()));
       } catch (Exception e) {
         PrintWriter out = Log.instance(context).getWriter(WriterKind.ERROR);
         out.println(e.getMessage());
         out.flush();
         return;
       }
+      refactoringResults.forEach(this::report);
+    }
+
+    private void report(RefactoringResult refactoringResult) {
       if (refactoringResult.type() == RefactoringCollection.RefactoringResultType.CHANGED) {
         PrintWriter out = Log.instance(context).getWriter(WriterKind.NOTICE);
         out.println(refactoringResult.message());
@@ -141,7 +153,20 @@ public final class ErrorProneAnalyzer implements TaskListener {
         scansPlugins(scannerSupplier, errorProneOptions, context),
         errorProneOptions,
         context,
-        JavacErrorDescriptionListener.provider(context));
+        descriptionListenerFactory(errorProneOptions, context));
+  }
+
+  /**
+   * Returns the factory for the listeners that findings are reported to: a {@link
+   * StructuredDiagnosticsWriter} if {@code -XepDiagnosticsOutput} is set, and javac's diagnostics
+   * otherwise.
+   */
+  static DescriptionListener.Factory descriptionListenerFactory(
+      ErrorProneOptions errorProneOptions, Context context) {
+    return errorProneOptions.diagnosticsOutput().isPresent()
+        ? new StructuredDiagnosticsWriter(
+            errorProneOptions.diagnosticsOutput().get(), Log.instance(context))
+        : JavacErrorDescriptionListener.provider(context);
   }
 
   private static Supplier<CodeTransformer> scansPlugins(
@@ -192,6 +217,10 @@ public final class ErrorProneAnalyzer implements TaskListener {
 
   @Override
   public void finished(TaskEvent taskEvent) {
+    if (taskEvent.getKind() == Kind.COMPILATION) {
+      closeDescriptionListenerFactory();
+      return;
+    }
     if (taskEvent.getKind() != Kind.ANALYZE) {
       return;
     }
@@ -208,13 +237,16 @@ public final class ErrorProneAnalyzer implements TaskListener {
     JCCompilationUnit compilation = (JCCompilationUnit) path.getCompilationUnit();
     DescriptionListener descriptionListener =
         descriptionListenerFactory.getDescriptionListener(log, compilation);
-    DescriptionListener countingDescriptionListener =
+    ImmutableRangeSet<Integer> changedLines = changedLines(compilation);
+    DescriptionListener changedLinesDescriptionListener =
         d -> {
-          if (d.severity() == SeverityLevel.ERROR) {
-            errorProneErrors++;
+          if (changedLines == null || isOnChangedLine(d, changedLines, compilation)) {
+            descriptionListener.onDescribed(d);
           }
-          descriptionListener.onDescribed(d);
         };
+    // Only the errors that were reported to javac are counted, and not, for example, findings that
+    // were written to -XepDiagnosticsOutput.
+    int errorsBefore = log.nerrors;
     JavaFileObject originalSource = log.useSource(compilation.getSourceFile());
     try {
       if (shouldExcludeSourceFile(compilation)) {
@@ -224,12 +256,15 @@ public final class ErrorProneAnalyzer implements TaskListener {
         // We only get TaskEvents for compilation units if they contain no package declarations
         // (e.g. package-info.java files).  In this case it's safe to analyze the
         // CompilationUnitTree immediately.
-        transformer.get().apply(path, context, countingDescriptionListener);
+        transformer.get().apply(path, context, changedLinesDescriptionListener);
       } else if (finishedCompilation(path.getCompilationUnit())) {
         // Otherwise this TaskEvent is for a ClassTree, and we can scan the whole
         // CompilationUnitTree once we've seen all the enclosed classes.
-        transformer.get().apply(new TreePath(compilation), context, countingDescriptionListener);
+        transformer
+            .get()
+            .apply(new TreePath(compilation), context, changedLinesDescriptionListener);
       }
+      errorProneErrors += log.nerrors - errorsBefore;
     } catch (ErrorProneError e) {
       e.logFatalError(log, context);
       // let the exception propagate to javac's main, where it will cause the compilation to
@@ -253,11 +288,48 @@ public final class ErrorProneAnalyzer implements TaskListener {
     }
   }
 
+  private void closeDescriptionListenerFactory() {
+    if (descriptionListenerFactory instanceof Closeable closeable) {
+      try {
+        closeable.close();
+      } catch (IOException e) {
+        Log.instance(context)
+            .error("error.prone", "Error writing diagnostics output: " + e.getMessage());
+      }
+    }
+  }
+
   /** Returns true if the given source file should be excluded from analysis. */
   private boolean shouldExcludeSourceFile(CompilationUnitTree tree) {
     Pattern excludedPattern = errorProneOptions.getExcludedPattern();
-    return excludedPattern != null
-        && excludedPattern.matcher(ASTHelpers.getFileName(tree)).matches();
+    if (excludedPattern != null
+        && excludedPattern.matcher(ASTHelpers.getFileName(tree)).matches()) {
+      return true;
+    }
+    // When only analyzing changed lines, there's nothing to do for unchanged files.
+    return errorProneOptions.changedLines().isPresent() && changedLines(tree) == null;
+  }
+
+  /**
+   * Returns the changed lines of the given compilation unit, or {@code null} if all of its lines
+   * should be analyzed.
+   */
+  private @Nullable ImmutableRangeSet<Integer> changedLines(CompilationUnitTree tree) {
+    return errorProneOptions.changedLines().isPresent()
+        ? errorProneOptions.changedLines().get().forCompilationUnit(tree)
+        : null;
+  }
+
+  private static boolean isOnChangedLine(
+      Description description,
+      ImmutableRangeSet<Integer> changedLines,
+      CompilationUnitTree compilation) {
+    if (description.position == null) {
+      return true;
+    }
+    int position = description.position.getStartPosition();
+    return position < 0
+        || changedLines.contains((int) compilation.getLineMap().getLineNumber(position));
   }
 
   /** Returns true if all declarations inside the given compilation unit have been visited. */
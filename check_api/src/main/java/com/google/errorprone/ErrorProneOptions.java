@@ -28,6 +28,7 @@ import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
 import com.google.errorprone.apply.ImportOrganizer;
 import java.io.IOException;
 import java.io.InputStream;
@@ -56,12 +57,18 @@ public final class ErrorProneOptions {
   private static final String PATCH_CHECKS_PREFIX = "-XepPatchChecks:";
   private static final String PATCH_OUTPUT_LOCATION = "-XepPatchLocation:";
   private static final String PATCH_IMPORT_ORDER_PREFIX = "-XepPatchImportOrder:";
+  private static final String PATCH_ROUNDS_PREFIX = "-XepPatchRounds:";
   private static final String EXCLUDED_PATHS_PREFIX = "-XepExcludedPaths:";
+  private static final String SHARD_PREFIX = "-XepShard:";
+  private static final String SHARD_COSTS_PREFIX = "-XepShardCosts:";
+  private static final String CHANGED_LINES_PREFIX = "-XepChangedLines:";
+  private static final String DIAGNOSTICS_OUTPUT_PREFIX = "-XepDiagnosticsOutput:";
   private static final String IGNORE_LARGE_CODE_GENERATORS = "-XepIgnoreLargeCodeGenerators:";
   private static final String ERRORS_AS_WARNINGS_FLAG = "-XepAllErrorsAsWarnings";
   private static final String SUGGESTIONS_AS_WARNINGS_FLAG = "-XepAllSuggestionsAsWarnings";
   private static final String ENABLE_ALL_CHECKS = "-XepAllDisabledChecksAsWarnings";
   private static final String IGNORE_SUPPRESSION_ANNOTATIONS = "-XepIgnoreSuppressionAnnotations";
+  private static final String REUSE_VISITOR_STATE = "-XepReuseVisitorState";
   private static final String DISABLE_ALL_CHECKS = "-XepDisableAllChecks";
   private static final String DISABLE_ALL_WARNINGS = "-XepDisableAllWarnings";
   private static final String IGNORE_UNKNOWN_CHECKS_FLAG = "-XepIgnoreUnknownCheckNames";
@@ -78,7 +85,12 @@ public final class ErrorProneOptions {
             || option.startsWith(ErrorProneFlags.PREFIX)
             || option.startsWith(PATCH_OUTPUT_LOCATION)
             || option.startsWith(PATCH_CHECKS_PREFIX)
+            || option.startsWith(PATCH_ROUNDS_PREFIX)
             || option.startsWith(EXCLUDED_PATHS_PREFIX)
+            || option.startsWith(SHARD_PREFIX)
+            || option.startsWith(SHARD_COSTS_PREFIX)
+            || option.startsWith(CHANGED_LINES_PREFIX)
+            || option.startsWith(DIAGNOSTICS_OUTPUT_PREFIX)
             || option.equals(IGNORE_UNKNOWN_CHECKS_FLAG)
             || option.equals(DISABLE_WARNINGS_IN_GENERATED_CODE_FLAG)
             || option.equals(ERRORS_AS_WARNINGS_FLAG)
@@ -115,17 +127,27 @@ public final class ErrorProneOptions {
       boolean inPlace,
       String baseDirectory,
       Optional<Supplier<CodeTransformer>> customRefactorer,
-      ImportOrganizer importOrganizer) {
+      ImportOrganizer importOrganizer,
+      int maxRounds) {
     final boolean doRefactor() {
       return inPlace() || !baseDirectory().isEmpty();
     }
 
+    /**
+     * Returns true if fixes should be re-analyzed in-process, so that fixes that only apply to the
+     * refactored code are included in the same run.
+     */
+    final boolean iterateToFixpoint() {
+      return maxRounds() > 1;
+    }
+
     static Builder builder() {
       return new AutoBuilder_ErrorProneOptions_PatchingOptions_Builder()
           .baseDirectory("")
           .inPlace(false)
           .namedCheckers(ImmutableSet.of())
-          .importOrganizer(ImportOrganizer.STATIC_FIRST_ORGANIZER);
+          .importOrganizer(ImportOrganizer.STATIC_FIRST_ORGANIZER)
+          .maxRounds(1);
     }
 
     @AutoBuilder
@@ -141,6 +163,8 @@ public final class ErrorProneOptions {
 
       abstract Builder importOrganizer(ImportOrganizer importOrganizer);
 
+      abstract Builder maxRounds(int maxRounds);
+
       abstract PatchingOptions build();
     }
   }
@@ -161,6 +185,10 @@ public final class ErrorProneOptions {
   private final Pattern excludedPattern;
   private final boolean ignoreSuppressionAnnotations;
   private final boolean ignoreLargeCodeGenerators;
+  private final boolean reuseVisitorState;
+  private final Optional<CheckShard> shard;
+  private final Optional<ChangedLines> changedLines;
+  private final Optional<Path> diagnosticsOutput;
 
   private ErrorProneOptions(
       ImmutableMap<String, Severity> severityMap,
@@ -178,7 +206,11 @@ public final class ErrorProneOptions {
       PatchingOptions patchingOptions,
       Pattern excludedPattern,
       boolean ignoreSuppressionAnnotations,
-      boolean ignoreLargeCodeGenerators) {
+      boolean ignoreLargeCodeGenerators,
+      boolean reuseVisitorState,
+      Optional<CheckShard> shard,
+      Optional<ChangedLines> changedLines,
+      Optional<Path> diagnosticsOutput) {
     this.severityMap = severityMap;
     this.remainingArgs = remainingArgs;
     this.ignoreUnknownChecks = ignoreUnknownChecks;
@@ -195,6 +227,10 @@ public final class ErrorProneOptions {
     this.excludedPattern = excludedPattern;
     this.ignoreSuppressionAnnotations = ignoreSuppressionAnnotations;
     this.ignoreLargeCodeGenerators = ignoreLargeCodeGenerators;
+    this.reuseVisitorState = reuseVisitorState;
+    this.shard = shard;
+    this.changedLines = changedLines;
+    this.diagnosticsOutput = diagnosticsOutput;
   }
 
   public ImmutableList<String> getRemainingArgs() {
@@ -241,6 +277,14 @@ public final class ErrorProneOptions {
     return ignoreLargeCodeGenerators;
   }
 
+  /**
+   * Whether the scanner should pass checks a single {@link ReusableVisitorState} that is moved from
+   * tree to tree, instead of allocating a new state for every tree.
+   */
+  public boolean reuseVisitorState() {
+    return reuseVisitorState;
+  }
+
   public ErrorProneFlags getFlags() {
     return flags;
   }
@@ -253,6 +297,21 @@ public final class ErrorProneOptions {
     return excludedPattern;
   }
 
+  /** The subset of the enabled checks to run, if they are split between several shards. */
+  public Optional<CheckShard> shard() {
+    return shard;
+  }
+
+  /** The lines to analyze, if only changed lines should be analyzed. */
+  public Optional<ChangedLines> changedLines() {
+    return changedLines;
+  }
+
+  /** The file to stream findings to, if they should not be reported as javac diagnostics. */
+  public Optional<Path> diagnosticsOutput() {
+    return diagnosticsOutput;
+  }
+
   private static class Builder {
     private boolean ignoreUnknownChecks = false;
     private boolean disableAllWarnings = false;
@@ -265,10 +324,15 @@ public final class ErrorProneOptions {
     private boolean isPubliclyVisibleTarget = false;
     private boolean ignoreSuppressionAnnotations = false;
     private boolean ignoreLargeCodeGenerators = true;
+    private boolean reuseVisitorState = false;
     private final Map<String, Severity> severityMap = new LinkedHashMap<>();
     private final ErrorProneFlags.Builder flagsBuilder = ErrorProneFlags.builder();
     private final PatchingOptions.Builder patchingOptionsBuilder = PatchingOptions.builder();
     private Pattern excludedPattern;
+    private String shard;
+    private ImmutableMap<String, Long> shardCosts = ImmutableMap.of();
+    private Optional<ChangedLines> changedLines = Optional.absent();
+    private Optional<Path> diagnosticsOutput = Optional.absent();
 
     private void parseSeverity(String arg) {
       // Strip prefix
@@ -339,6 +403,10 @@ public final class ErrorProneOptions {
       this.ignoreLargeCodeGenerators = ignoreLargeCodeGenerators;
     }
 
+    void setReuseVisitorState(boolean reuseVisitorState) {
+      this.reuseVisitorState = reuseVisitorState;
+    }
+
     void setDisableAllChecks(boolean disableAllChecks) {
       // Discard previously set severities so that the DisableAllChecks flag is position sensitive.
       severityMap.clear();
@@ -374,12 +442,32 @@ public final class ErrorProneOptions {
           patchingOptionsBuilder.build(),
           excludedPattern,
           ignoreSuppressionAnnotations,
-          ignoreLargeCodeGenerators);
+          ignoreLargeCodeGenerators,
+          reuseVisitorState,
+          shard == null ? Optional.absent() : Optional.of(CheckShard.parse(shard, shardCosts)),
+          changedLines,
+          diagnosticsOutput);
     }
 
     void setExcludedPattern(Pattern excludedPattern) {
       this.excludedPattern = excludedPattern;
     }
+
+    void setShard(String shard) {
+      this.shard = shard;
+    }
+
+    void setShardCosts(ImmutableMap<String, Long> shardCosts) {
+      this.shardCosts = shardCosts;
+    }
+
+    void setChangedLines(ChangedLines changedLines) {
+      this.changedLines = Optional.of(changedLines);
+    }
+
+    void setDiagnosticsOutput(Path diagnosticsOutput) {
+      this.diagnosticsOutput = Optional.of(diagnosticsOutput);
+    }
   }
 
   private static final ErrorProneOptions EMPTY = new Builder().build(ImmutableList.of());
@@ -468,6 +556,7 @@ public final class ErrorProneOptions {
     for (String arg : preprocessArgs(args)) {
       switch (arg) {
         case IGNORE_SUPPRESSION_ANNOTATIONS -> builder.setIgnoreSuppressionAnnotations(true);
+        case REUSE_VISITOR_STATE -> builder.setReuseVisitorState(true);
         case IGNORE_UNKNOWN_CHECKS_FLAG -> builder.setIgnoreUnknownChecks(true);
         case DISABLE_WARNINGS_IN_GENERATED_CODE_FLAG ->
             builder.setDisableWarningsInGeneratedCode(true);
@@ -521,10 +610,31 @@ public final class ErrorProneOptions {
             String remaining = arg.substring(PATCH_IMPORT_ORDER_PREFIX.length());
             ImportOrganizer importOrganizer = ImportOrderParser.getImportOrganizer(remaining);
             builder.patchingOptionsBuilder().importOrganizer(importOrganizer);
+          } else if (arg.startsWith(PATCH_ROUNDS_PREFIX)) {
+            String remaining = arg.substring(PATCH_ROUNDS_PREFIX.length());
+            Integer rounds = Ints.tryParse(remaining);
+            if (rounds == null || rounds < 1) {
+              throw new InvalidCommandLineOptionException("invalid flag: " + arg);
+            }
+            builder.patchingOptionsBuilder().maxRounds(rounds);
           } else if (arg.startsWith(EXCLUDED_PATHS_PREFIX)) {
             String pathRegex = arg.substring(EXCLUDED_PATHS_PREFIX.length());
             builder.setExcludedPattern(Pattern.compile(pathRegex));
 
+          } else if (arg.startsWith(SHARD_PREFIX)) {
+            builder.setShard(arg.substring(SHARD_PREFIX.length()));
+          } else if (arg.startsWith(SHARD_COSTS_PREFIX)) {
+            String path = arg.substring(SHARD_COSTS_PREFIX.length());
+            builder.setShardCosts(CheckShard.loadCosts(Path.of(path)));
+          } else if (arg.startsWith(CHANGED_LINES_PREFIX)) {
+            String path = arg.substring(CHANGED_LINES_PREFIX.length());
+            builder.setChangedLines(ChangedLines.load(Path.of(path)));
+          } else if (arg.startsWith(DIAGNOSTICS_OUTPUT_PREFIX)) {
+            String path = arg.substring(DIAGNOSTICS_OUTPUT_PREFIX.length());
+            if (path.isEmpty()) {
+              throw new InvalidCommandLineOptionException("missing diagnostics output path");
+            }
+            builder.setDiagnosticsOutput(Path.of(path));
           } else {
             if (arg.startsWith(PREFIX)) {
               throw new InvalidCommandLineOptionException("invalid flag: " + arg);
@@ -21,4 +21,8 @@ public class InvalidCommandLineOptionException extends RuntimeException {
   public InvalidCommandLineOptionException(String message) {
     super(message);
   }
+
+  public InvalidCommandLineOptionException(String message, Throwable cause) {
+    super(message, cause);
+  }
 }
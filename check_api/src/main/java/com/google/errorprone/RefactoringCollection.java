@@ -20,7 +20,9 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.StandardOpenOption.APPEND;
 import static java.nio.file.StandardOpenOption.CREATE;
 
+import com.google.common.base.Supplier;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.SetMultimap;
 import com.google.errorprone.ErrorProneOptions.PatchingOptions;
@@ -43,10 +45,13 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.jspecify.annotations.Nullable;
 
 /** A container of fixes that have been collected during a single compilation phase. */
 public final class RefactoringCollection implements DescriptionListener.Factory {
@@ -60,6 +65,10 @@ public final class RefactoringCollection implements DescriptionListener.Factory
   private final Function<URI, RefactoringResult> postProcess;
   private final DescriptionListener.Factory descriptionsFactory;
   private final ImportOrganizer importOrganizer;
+  private final @Nullable RefactoringRounds rounds;
+
+  /** Sources with the fixes of the first round applied, if there are later {@link #rounds}. */
+  private final Map<URI, SourceFile> staged = new LinkedHashMap<>();
 
   record RefactoringResult(String message, RefactoringResultType type) {}
 
@@ -68,7 +77,11 @@ public final class RefactoringCollection implements DescriptionListener.Factory
     CHANGED,
   }
 
-  static RefactoringCollection refactor(PatchingOptions patchingOptions, Context context) {
+  static RefactoringCollection refactor(
+      ErrorProneOptions errorProneOptions,
+      Supplier<CodeTransformer> codeTransformer,
+      Context context) {
+    PatchingOptions patchingOptions = errorProneOptions.patchingOptions();
     Path rootPath = buildRootPath();
     FileDestination fileDestination;
     Function<URI, RefactoringResult> postProcess;
@@ -112,8 +125,12 @@ public final class RefactoringCollection implements DescriptionListener.Factory
     }
 
     ImportOrganizer importOrganizer = patchingOptions.importOrganizer();
+    RefactoringRounds rounds =
+        patchingOptions.iterateToFixpoint()
+            ? new RefactoringRounds(codeTransformer, errorProneOptions, context)
+            : null;
     return new RefactoringCollection(
-        rootPath, fileDestination, postProcess, importOrganizer, context);
+        rootPath, fileDestination, postProcess, importOrganizer, rounds, context);
   }
 
   private RefactoringCollection(
@@ -121,12 +138,14 @@ public final class RefactoringCollection implements DescriptionListener.Factory
       FileDestination fileDestination,
       Function<URI, RefactoringResult> postProcess,
       ImportOrganizer importOrganizer,
+      @Nullable RefactoringRounds rounds,
       Context context) {
     this.rootPath = rootPath;
     this.fileDestination = fileDestination;
     this.postProcess = postProcess;
     this.descriptionsFactory = JavacErrorDescriptionListener.providerForRefactoring(context);
     this.importOrganizer = importOrganizer;
+    this.rounds = rounds;
   }
 
   private static Path buildRootPath() {
@@ -151,6 +170,11 @@ public final class RefactoringCollection implements DescriptionListener.Factory
 
   RefactoringResult applyChanges(URI uri) throws Exception {
     Collection<DelegatingDescriptionListener> listeners = foundSources.removeAll(uri);
+    if (rounds != null) {
+      // The changes are written by finish(), once the later rounds have been applied.
+      stage(uri, listeners);
+      return new RefactoringResult("", RefactoringResultType.NO_CHANGES);
+    }
     if (doApplyProcess(fileDestination, new FsFileSource(rootPath), listeners)) {
       return postProcess.apply(uri);
     }
@@ -158,6 +182,46 @@ public final class RefactoringCollection implements DescriptionListener.Factory
     return new RefactoringResult("", RefactoringResultType.NO_CHANGES);
   }
 
+  /**
+   * Applies the fixes of any later rounds to the sources changed by this compilation, and writes
+   * the changes. Called once the compilation has finished.
+   */
+  ImmutableList<RefactoringResult> finish() throws Exception {
+    if (rounds == null || staged.isEmpty()) {
+      return ImmutableList.of();
+    }
+    rounds.run(staged);
+    ImmutableList.Builder<RefactoringResult> results = ImmutableList.builder();
+    for (Map.Entry<URI, SourceFile> entry : staged.entrySet()) {
+      fileDestination.writeFile(entry.getValue());
+      results.add(postProcess.apply(entry.getKey()));
+    }
+    staged.clear();
+    return results.build();
+  }
+
+  private void stage(URI uri, Collection<DelegatingDescriptionListener> listeners) {
+    FileSource fileSource = new FsFileSource(rootPath);
+    for (DelegatingDescriptionListener listener : listeners) {
+      if (listener.base.isEmpty()) {
+        continue;
+      }
+      try {
+        SourceFile file = staged.get(uri);
+        if (file == null) {
+          file = fileSource.readFile(listener.base.getRelevantFileName());
+        }
+        listener.base.applyDifferences(file);
+        staged.put(uri, file);
+      } catch (IOException e) {
+        logger.log(
+            Level.WARNING,
+            "Failed to apply diff to file " + listener.base.getRelevantFileName(),
+            e);
+      }
+    }
+  }
+
   private static void writePatchFile(
       AtomicBoolean first, URI uri, PatchFileDestination fileDestination, Path patchFilePatch)
       throws IOException {
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.io.CharStreams;
+import com.google.errorprone.apply.DescriptionBasedDiff;
+import com.google.errorprone.apply.ImportOrganizer;
+import com.google.errorprone.apply.SourceFile;
+import com.sun.source.util.JavacTask;
+import com.sun.tools.javac.api.JavacTool;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.Options;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+
+/**
+ * Re-analyzes refactored sources in-process, so that fixes which only apply once other fixes have
+ * been made (for example, chains of Refaster rules) are included in the same run, instead of
+ * needing another build for each round. Selected by {@code -XepPatchRounds:<n>}.
+ *
+ * <p>Each round parses and analyzes only the sources that were changed by the previous round,
+ * reusing the options, file manager and checker instances of the original compilation. The rest of
+ * the compilation is read from the classes it generated. Iteration stops when a round makes no
+ * further changes, when the refactored sources no longer compile, or after {@code n} rounds.
+ */
+final class RefactoringRounds {
+
+  private static final Logger logger = Logger.getLogger(RefactoringRounds.class.getName());
+
+  private static final ImmutableSet<String> SOURCE_TARGET_OPTIONS =
+      ImmutableSet.of("-source", "--source", "-target", "--target");
+
+  private final Supplier<CodeTransformer> codeTransformer;
+  private final ErrorProneOptions errorProneOptions;
+  private final Context context;
+
+  RefactoringRounds(
+      Supplier<CodeTransformer> codeTransformer,
+      ErrorProneOptions errorProneOptions,
+      Context context) {
+    this.codeTransformer = codeTransformer;
+    this.errorProneOptions = errorProneOptions;
+    this.context = context;
+  }
+
+  /**
+   * Applies the fixes of later rounds to the given sources, which already have the fixes of the
+   * first round applied.
+   */
+  void run(Map<URI, SourceFile> sources) {
+    int maxRounds = errorProneOptions.patchingOptions().maxRounds();
+    Set<URI> changed = sources.keySet();
+    for (int round = 2; round <= maxRounds && !changed.isEmpty(); round++) {
+      changed = analyze(Maps.filterKeys(sources, changed::contains));
+    }
+  }
+
+  /** Analyzes the given sources, applies any fixes to them, and returns the ones that changed. */
+  private ImmutableSet<URI> analyze(Map<URI, SourceFile> sources) {
+    if (!(context.get(JavaFileManager.class) instanceof StandardJavaFileManager fileManager)) {
+      return ImmutableSet.of();
+    }
+    Iterable<? extends Path> classOutput =
+        fileManager.getLocationAsPaths(StandardLocation.CLASS_OUTPUT);
+    if (classOutput == null) {
+      return ImmutableSet.of();
+    }
+    Iterable<? extends Path> classPath =
+        fileManager.getLocationAsPaths(StandardLocation.CLASS_PATH);
+    ImmutableList<Path> originalClassPath =
+        classPath == null ? ImmutableList.of() : ImmutableList.copyOf(classPath);
+
+    ImportOrganizer importOrganizer = errorProneOptions.patchingOptions().importOrganizer();
+    Map<URI, DescriptionBasedDiff> diffs = new HashMap<>();
+    DescriptionListener.Factory descriptionListenerFactory =
+        (log, compilation) ->
+            diffs.computeIfAbsent(
+                compilation.getSourceFile().toUri(),
+                uri -> DescriptionBasedDiff.createIgnoringOverlaps(compilation, importOrganizer));
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    JavacTask task =
+        JavacTool.create()
+            .getTask(
+                CharStreams.nullWriter(),
+                fileManager,
+                diagnostics,
+                ImmutableList.of("-proc:none"),
+                /* classes= */ null,
+                sources.entrySet().stream()
+                    .map(e -> sourceFileObject(e.getKey(), e.getValue()))
+                    .collect(toImmutableList()),
+                createContext());
+    Context roundContext = BaseErrorProneJavaCompiler.setupContext(task);
+    task.addTaskListener(
+        ErrorProneAnalyzer.createWithCustomDescriptionListener(
+            codeTransformer, errorProneOptions, roundContext, descriptionListenerFactory));
+    try {
+      // The classes of the rest of the compilation are read from its output, instead of being
+      // parsed and attributed again.
+      fileManager.setLocationFromPaths(
+          StandardLocation.CLASS_PATH,
+          ImmutableList.<Path>builder().addAll(classOutput).addAll(originalClassPath).build());
+      try {
+        task.analyze();
+      } finally {
+        fileManager.setLocationFromPaths(StandardLocation.CLASS_PATH, originalClassPath);
+      }
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Failed to re-analyze refactored sources", e);
+      return ImmutableSet.of();
+    }
+    if (diagnostics.getDiagnostics().stream().anyMatch(d -> d.getKind() == Diagnostic.Kind.ERROR)) {
+      // Keep the changes of the previous rounds, which compiled as part of the original
+      // compilation or were checked by the previous round.
+      logger.warning(
+          "Refactored sources don't compile, skipping further rounds: "
+              + diagnostics.getDiagnostics());
+      return ImmutableSet.of();
+    }
+
+    ImmutableSet.Builder<URI> changed = ImmutableSet.builder();
+    diffs.forEach(
+        (uri, diff) -> {
+          SourceFile source = sources.get(uri);
+          if (source == null || diff.isEmpty()) {
+            return;
+          }
+          String before = source.getSourceText();
+          diff.applyDifferences(source);
+          if (!source.getSourceText().equals(before)) {
+            changed.add(uri);
+          }
+        });
+    return changed.build();
+  }
+
+  /**
+   * Returns a context with the options of the original compilation, following {@link
+   * com.google.errorprone.fixes.SuggestedFixes.FixCompiler}.
+   */
+  private Context createContext() {
+    Context roundContext = new Context();
+    Options options = Options.instance(roundContext);
+    Options originalOptions = Options.instance(context);
+    for (String key : originalOptions.keySet()) {
+      String value = originalOptions.get(key);
+      if (key.equals("-Xplugin:") && value.startsWith("ErrorProne")) {
+        // The rounds are analyzed by the listener added in analyze().
+        continue;
+      }
+      if (key.equals("-Werror")) {
+        // Warnings about the refactored code shouldn't stop the rounds.
+        continue;
+      }
+      if (SOURCE_TARGET_OPTIONS.contains(key) && originalOptions.isSet("--release")) {
+        continue;
+      }
+      options.put(key, value);
+    }
+    return roundContext;
+  }
+
+  private static JavaFileObject sourceFileObject(URI uri, SourceFile source) {
+    String text = source.getSourceText();
+    return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return text;
+      }
+    };
+  }
+}
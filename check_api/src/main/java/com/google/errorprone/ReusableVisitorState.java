@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone;
+
+import com.google.errorprone.SuppressionInfo.SuppressedState;
+import com.sun.source.util.TreePath;
+
+/**
+ * A {@link VisitorState} that a scanner moves from tree to tree, so that it doesn't need to
+ * allocate a new state for every tree and check it visits.
+ *
+ * <p>Only the scanner that owns an instance can move its state. Checks are passed a view of the
+ * state that must not be retained beyond the call it was passed to, since it will have moved on by
+ * the time it's used again; {@link VisitorState#withPath} and {@link VisitorState#withSuppression}
+ * return states that can be retained.
+ */
+public final class ReusableVisitorState {
+
+  private final VisitorState state;
+  private final boolean checkRetention;
+
+  /**
+   * @param state the state to start from
+   * @param checkRetention if true, {@link #lend} returns a fresh view of the state that {@link
+   *     #reclaim} expires, so that a check which retains its state fails instead of seeing a later
+   *     tree
+   */
+  public ReusableVisitorState(VisitorState state, boolean checkRetention) {
+    this.state = state.reusableView();
+    this.checkRetention = checkRetention;
+  }
+
+  /** Returns the state, at the position it was last moved to. */
+  public VisitorState state() {
+    return state;
+  }
+
+  /** Moves the state to the given path and suppression state, and returns it. */
+  public VisitorState moveTo(TreePath path, SuppressedState suppressedState) {
+    state.reposition(path, suppressedState);
+    return state;
+  }
+
+  /**
+   * Returns the state to pass to a single check, which must be handed back to {@link #reclaim} once
+   * the check returns.
+   */
+  public VisitorState lend() {
+    return checkRetention ? state.reusableView() : state;
+  }
+
+  /** Takes back a state returned by {@link #lend}, which can't be used after this. */
+  public void reclaim(VisitorState lent) {
+    if (lent != state) {
+      lent.expire();
+    }
+  }
+}
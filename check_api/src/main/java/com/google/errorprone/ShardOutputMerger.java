@@ -0,0 +1,257 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Comparator.comparing;
+
+import com.github.difflib.DiffUtils;
+import com.github.difflib.UnifiedDiffUtils;
+import com.github.difflib.patch.AbstractDelta;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Combines the outputs of a build whose checks were split between shards with {@code
+ * -XepShard:<index>/<count>} into the outputs of a single, unsharded run.
+ *
+ * <p>Usage: {@code ShardOutputMerger <root> <output dir> <shard dir>...}. Every shard directory may
+ * contain the {@code error-prone.patch} written by {@code -XepPatchLocation}, with paths relative
+ * to {@code root}, and an {@code error-prone.log} with the compiler output of the shard. The merged
+ * patch and log are written to files with the same names in the output directory. Diagnostics are
+ * sorted by location and de-duplicated. Suggested changes from different shards that edit the same
+ * lines of a file are reported as conflicts, and those from the earliest shard are kept.
+ */
+public final class ShardOutputMerger {
+
+  static final String PATCH_FILE = "error-prone.patch";
+  static final String LOG_FILE = "error-prone.log";
+
+  private static final Splitter LINE_SPLITTER = Splitter.on('\n');
+  private static final Pattern DIAGNOSTIC =
+      Pattern.compile("^(?<path>.+?):(?<line>\\d+): (?<kind>error|warning|note): .*");
+  private static final Pattern SUMMARY = Pattern.compile("^\\d+ (errors?|warnings?)$");
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: ShardOutputMerger <root> <output dir> <shard dir>...");
+      System.exit(1);
+    }
+    List<Path> shards = new ArrayList<>();
+    for (int i = 2; i < args.length; i++) {
+      shards.add(Paths.get(args[i]));
+    }
+    ShardOutputMerger merger = new ShardOutputMerger(Paths.get(args[0]), System.err);
+    Path output = Files.createDirectories(Paths.get(args[1]));
+    Files.writeString(output.resolve(PATCH_FILE), merger.mergePatches(shards), UTF_8);
+    Files.writeString(output.resolve(LOG_FILE), merger.mergeLogs(shards), UTF_8);
+  }
+
+  private final Path root;
+  private final PrintStream err;
+
+  ShardOutputMerger(Path root, PrintStream err) {
+    this.root = root;
+    this.err = err;
+  }
+
+  /** Returns a single patch containing the non-conflicting changes of the given shards. */
+  String mergePatches(List<Path> shards) throws IOException {
+    // Path -> the changes to that file made by each shard, sorted by path
+    Map<String, List<Patch<String>>> patchesByFile = new TreeMap<>();
+    for (Path shard : shards) {
+      Path patchFile = shard.resolve(PATCH_FILE);
+      if (Files.exists(patchFile)) {
+        splitByFile(Files.readAllLines(patchFile, UTF_8))
+            .forEach(
+                (file, diff) ->
+                    patchesByFile
+                        .computeIfAbsent(file, k -> new ArrayList<>())
+                        .add(UnifiedDiffUtils.parseUnifiedDiff(diff)));
+      }
+    }
+    StringBuilder merged = new StringBuilder();
+    for (Map.Entry<String, List<Patch<String>>> entry : patchesByFile.entrySet()) {
+      String file = entry.getKey();
+      List<String> originalLines =
+          LINE_SPLITTER.splitToList(Files.readString(root.resolve(file), UTF_8));
+      Patch<String> patch = mergeDeltas(file, originalLines, entry.getValue());
+      if (!patch.getDeltas().isEmpty()) {
+        merged
+            .append(
+                Joiner.on("\n")
+                    .join(
+                        UnifiedDiffUtils.generateUnifiedDiff(
+                            file, file, originalLines, patch, /* contextSize= */ 2)))
+            .append("\n");
+      }
+    }
+    return merged.toString();
+  }
+
+  /**
+   * Re-diffs each shard's changes against the original file, which gives deltas without context
+   * lines, and combines those that don't overlap.
+   */
+  private Patch<String> mergeDeltas(
+      String file, List<String> originalLines, List<Patch<String>> patches) {
+    Set<AbstractDelta<String>> deltas = new LinkedHashSet<>();
+    for (Patch<String> patch : patches) {
+      try {
+        deltas.addAll(DiffUtils.diff(originalLines, patch.applyTo(originalLines)).getDeltas());
+      } catch (PatchFailedException e) {
+        err.printf("%s: patch does not apply, skipping: %s%n", file, e.getMessage());
+      }
+    }
+    Patch<String> merged = new Patch<>();
+    AbstractDelta<String> previous = null;
+    for (AbstractDelta<String> delta : sortedByPosition(deltas)) {
+      int start = delta.getSource().getPosition();
+      if (previous != null
+          && (start < previous.getSource().last() + 1
+              || start == previous.getSource().getPosition())) {
+        err.printf("%s:%d: conflicting changes, skipping: %s%n", file, start + 1, delta);
+        continue;
+      }
+      merged.addDelta(delta);
+      previous = delta;
+    }
+    return merged;
+  }
+
+  private static List<AbstractDelta<String>> sortedByPosition(Set<AbstractDelta<String>> deltas) {
+    List<AbstractDelta<String>> sorted = new ArrayList<>(deltas);
+    // the sort is stable, so changes from earlier shards come first
+    sorted.sort(comparing((AbstractDelta<String> d) -> d.getSource().getPosition()));
+    return sorted;
+  }
+
+  /** Splits a multi-file unified diff into the diff of each file. */
+  private static Map<String, List<String>> splitByFile(List<String> lines) {
+    Map<String, List<String>> diffs = new TreeMap<>();
+    List<String> current = null;
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i);
+      if (line.startsWith("--- ") && i + 1 < lines.size() && lines.get(i + 1).startsWith("+++ ")) {
+        String file = line.substring("--- ".length());
+        int tab = file.indexOf('\t');
+        if (tab >= 0) {
+          file = file.substring(0, tab);
+        }
+        current = diffs.computeIfAbsent(file, k -> new ArrayList<>());
+      }
+      if (current != null) {
+        current.add(line);
+      }
+    }
+    return diffs;
+  }
+
+  /**
+   * Returns a single compiler log containing the diagnostics of all the given shards, sorted by
+   * location, followed by a summary of their counts.
+   */
+  String mergeLogs(List<Path> shards) throws IOException {
+    Set<String> preamble = new LinkedHashSet<>();
+    // (path, line) -> diagnostics
+    SetMultimap<Location, String> diagnostics = LinkedHashMultimap.create();
+    for (Path shard : shards) {
+      Path logFile = shard.resolve(LOG_FILE);
+      if (!Files.exists(logFile)) {
+        continue;
+      }
+      Location location = null;
+      StringBuilder diagnostic = new StringBuilder();
+      for (String line : Files.readAllLines(logFile, UTF_8)) {
+        Matcher matcher = DIAGNOSTIC.matcher(line);
+        if (matcher.matches() || SUMMARY.matcher(line).matches()) {
+          if (location != null) {
+            diagnostics.put(location, diagnostic.toString());
+          }
+          location = null;
+          diagnostic.setLength(0);
+        }
+        if (matcher.matches()) {
+          location =
+              new Location(
+                  matcher.group("path"),
+                  Integer.parseInt(matcher.group("line")),
+                  matcher.group("kind"));
+        }
+        if (location != null) {
+          diagnostic.append(line).append('\n');
+        } else if (!SUMMARY.matcher(line).matches()) {
+          preamble.add(line);
+        }
+      }
+      if (location != null) {
+        diagnostics.put(location, diagnostic.toString());
+      }
+    }
+    StringBuilder merged = new StringBuilder();
+    preamble.forEach(line -> merged.append(line).append('\n'));
+    int errors = 0;
+    int warnings = 0;
+    for (Location location : new TreeSet<>(diagnostics.keySet())) {
+      for (String diagnostic : new TreeSet<>(diagnostics.get(location))) {
+        merged.append(diagnostic);
+        switch (location.kind()) {
+          case "error" -> errors++;
+          case "warning" -> warnings++;
+          default -> {}
+        }
+      }
+    }
+    appendCount(merged, errors, "error");
+    appendCount(merged, warnings, "warning");
+    return merged.toString();
+  }
+
+  private static void appendCount(StringBuilder sb, int count, String kind) {
+    if (count > 0) {
+      sb.append(count).append(' ').append(kind).append(count == 1 ? "" : "s").append('\n');
+    }
+  }
+
+  private record Location(String path, int line, String kind) implements Comparable<Location> {
+    @Override
+    public int compareTo(Location other) {
+      return comparing(Location::path)
+          .thenComparingInt(Location::line)
+          .thenComparing(Location::kind)
+          .compare(this, other);
+    }
+  }
+}
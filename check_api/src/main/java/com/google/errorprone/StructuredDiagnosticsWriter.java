@@ -0,0 +1,318 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.errorprone.BugPattern.SeverityLevel;
+import com.google.errorprone.fixes.ErrorProneEndPosTable;
+import com.google.errorprone.fixes.Fix;
+import com.google.errorprone.fixes.Replacement;
+import com.google.errorprone.matchers.Description;
+import com.sun.source.tree.LineMap;
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.util.JCDiagnostic.Note;
+import com.sun.tools.javac.util.Log;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.tools.JavaFileObject;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A {@link DescriptionListener.Factory} that streams findings to a file as they are reported,
+ * instead of formatting them as javac diagnostics. This avoids the cost of rendering fixes for
+ * display, and the truncation imposed by {@code -Xmaxerrs} and {@code -Xmaxwarns}.
+ *
+ * <p>Selected by {@code -XepDiagnosticsOutput:<path>}. The file is written in the <a
+ * href="https://sarifweb.azurewebsites.net/">SARIF</a> format if its name ends with {@code .sarif},
+ * and as JSON Lines, with one finding per line, otherwise. Findings include the check name,
+ * severity, source range, message, and suggested fixes as text replacements.
+ *
+ * <p>When the first error is found, a single javac error pointing to the file is reported, so that
+ * the compilation fails before any class files are generated. The number of errors is reported once
+ * the compilation finishes.
+ */
+public final class StructuredDiagnosticsWriter implements DescriptionListener.Factory, Closeable {
+
+  private final Path path;
+  private final boolean sarif;
+  private final Log log;
+
+  private @Nullable Writer writer;
+  private boolean firstResult = true;
+  private int errors = 0;
+  private boolean closed = false;
+
+  StructuredDiagnosticsWriter(Path path, Log log) {
+    this.path = path;
+    this.sarif = path.getFileName().toString().endsWith(".sarif");
+    this.log = log;
+  }
+
+  @Override
+  public DescriptionListener getDescriptionListener(Log log, JCCompilationUnit compilation) {
+    ErrorProneEndPosTable endPositions = ErrorProneEndPosTable.create(compilation);
+    String file = compilation.getSourceFile().toUri().toString();
+    LineMap lineMap = compilation.getLineMap();
+    return description -> {
+      StringBuilder json = new StringBuilder();
+      if (sarif) {
+        appendSarifResult(json, description, file, lineMap, endPositions);
+      } else {
+        appendJsonLine(json, description, file, lineMap, endPositions);
+      }
+      write(json, description.severity() == SeverityLevel.ERROR);
+    };
+  }
+
+  private synchronized void write(CharSequence result, boolean isError) {
+    try {
+      if (writer == null) {
+        writer = open();
+      }
+      if (sarif && !firstResult) {
+        writer.write(",\n");
+      }
+      writer.append(result);
+      if (!sarif) {
+        writer.write('\n');
+      }
+      firstResult = false;
+      if (isError && errors++ == 0) {
+        JavaFileObject source = log.useSource(null);
+        try {
+          log.error("error.prone", "Error Prone reported errors, see " + path);
+        } finally {
+          log.useSource(source);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Writer open() throws IOException {
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    Writer writer = Files.newBufferedWriter(path, UTF_8);
+    if (sarif) {
+      writer.write(
+          "{\"version\":\"2.1.0\","
+              + "\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\","
+              + "\"runs\":[{\"tool\":{\"driver\":{\"name\":\"Error Prone\","
+              + "\"informationUri\":\"https://errorprone.info\"}},\"results\":[\n");
+    }
+    return writer;
+  }
+
+  /**
+   * Finishes writing the file, and reports the number of findings that were errors. If there were
+   * no findings, an empty file (or SARIF document) replaces any output of an earlier run.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (writer == null) {
+      writer = open();
+    }
+    if (sarif) {
+      writer.write("\n]}]}\n");
+    }
+    writer.close();
+    writer = null;
+    if (errors > 0) {
+      log.note(
+          new Note(
+              "compiler",
+              "error.prone",
+              String.format("%d error%s reported, see %s", errors, errors == 1 ? "" : "s", path)));
+    }
+  }
+
+  private static void appendJsonLine(
+      StringBuilder json,
+      Description description,
+      String file,
+      LineMap lineMap,
+      ErrorProneEndPosTable endPositions) {
+    int start = startPosition(description);
+    int end = endPosition(description, endPositions);
+    json.append("{\"check\":");
+    appendString(json, description.checkName);
+    json.append(",\"severity\":");
+    appendString(json, description.severity().name());
+    json.append(",\"file\":");
+    appendString(json, file);
+    json.append(",\"start\":");
+    appendPosition(json, lineMap, start);
+    json.append(",\"end\":");
+    appendPosition(json, lineMap, end);
+    json.append(",\"message\":");
+    appendString(json, description.getRawMessage());
+    if (description.getLink() != null) {
+      json.append(",\"link\":");
+      appendString(json, description.getLink());
+    }
+    json.append(",\"fixes\":[");
+    for (int i = 0; i < description.fixes.size(); i++) {
+      Fix fix = description.fixes.get(i);
+      json.append(i > 0 ? ",{" : "{").append("\"description\":");
+      appendString(json, fix.getShortDescription());
+      json.append(",\"replacements\":[");
+      boolean first = true;
+      for (Replacement replacement : fix.getReplacements(endPositions)) {
+        json.append(first ? "{" : ",{").append("\"start\":").append(replacement.startPosition());
+        json.append(",\"end\":").append(replacement.endPosition()).append(",\"text\":");
+        appendString(json, replacement.replaceWith());
+        json.append('}');
+        first = false;
+      }
+      json.append("],\"importsToAdd\":[");
+      appendStrings(json, fix.getImportsToAdd());
+      json.append("],\"importsToRemove\":[");
+      appendStrings(json, fix.getImportsToRemove());
+      json.append("]}");
+    }
+    json.append("]}");
+  }
+
+  private static void appendSarifResult(
+      StringBuilder json,
+      Description description,
+      String file,
+      LineMap lineMap,
+      ErrorProneEndPosTable endPositions) {
+    int start = startPosition(description);
+    int end = Math.max(start, endPosition(description, endPositions));
+    json.append("{\"ruleId\":");
+    appendString(json, description.checkName);
+    json.append(",\"level\":");
+    appendString(
+        json,
+        switch (description.severity()) {
+          case ERROR -> "error";
+          case WARNING -> "warning";
+          case SUGGESTION -> "note";
+        });
+    json.append(",\"message\":{\"text\":");
+    appendString(json, description.getRawMessage());
+    json.append("},\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":");
+    appendString(json, file);
+    json.append("},\"region\":");
+    appendSarifRegion(json, lineMap, start, end);
+    json.append("}}]");
+    if (!description.fixes.isEmpty()) {
+      json.append(",\"fixes\":[");
+      for (int i = 0; i < description.fixes.size(); i++) {
+        Fix fix = description.fixes.get(i);
+        json.append(i > 0 ? ",{" : "{").append("\"description\":{\"text\":");
+        appendString(json, fix.getShortDescription());
+        json.append("},\"artifactChanges\":[{\"artifactLocation\":{\"uri\":");
+        appendString(json, file);
+        json.append("},\"replacements\":[");
+        boolean first = true;
+        for (Replacement replacement : fix.getReplacements(endPositions)) {
+          json.append(first ? "{" : ",{").append("\"deletedRegion\":{\"charOffset\":");
+          json.append(replacement.startPosition()).append(",\"charLength\":");
+          json.append(replacement.length()).append("},\"insertedContent\":{\"text\":");
+          appendString(json, replacement.replaceWith());
+          json.append("}}");
+          first = false;
+        }
+        json.append("]}]}");
+      }
+      json.append(']');
+    }
+    json.append('}');
+  }
+
+  private static int startPosition(Description description) {
+    return description.position != null ? description.position.getStartPosition() : -1;
+  }
+
+  private static int endPosition(Description description, ErrorProneEndPosTable endPositions) {
+    return description.position != null ? description.position.getEndPosition(endPositions) : -1;
+  }
+
+  private static void appendPosition(StringBuilder json, LineMap lineMap, int position) {
+    json.append("{\"offset\":").append(position);
+    if (position >= 0) {
+      json.append(",\"line\":").append(lineMap.getLineNumber(position));
+      json.append(",\"column\":").append(lineMap.getColumnNumber(position));
+    }
+    json.append('}');
+  }
+
+  private static void appendSarifRegion(StringBuilder json, LineMap lineMap, int start, int end) {
+    json.append('{');
+    if (start >= 0) {
+      json.append("\"startLine\":").append(lineMap.getLineNumber(start));
+      json.append(",\"startColumn\":").append(lineMap.getColumnNumber(start));
+      json.append(",\"endLine\":").append(lineMap.getLineNumber(end));
+      json.append(",\"endColumn\":").append(lineMap.getColumnNumber(end));
+      json.append(",\"charOffset\":").append(start);
+      json.append(",\"charLength\":").append(end - start);
+    }
+    json.append('}');
+  }
+
+  private static void appendStrings(StringBuilder json, Iterable<String> values) {
+    boolean first = true;
+    for (String value : values) {
+      if (!first) {
+        json.append(',');
+      }
+      appendString(json, value);
+      first = false;
+    }
+  }
+
+  /** Appends the given string as a JSON string literal. */
+  static void appendString(StringBuilder json, @Nullable String value) {
+    if (value == null) {
+      json.append("null");
+      return;
+    }
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> json.append("\\\"");
+        case '\\' -> json.append("\\\\");
+        case '\n' -> json.append("\\n");
+        case '\r' -> json.append("\\r");
+        case '\t' -> json.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            json.append(String.format("\\u%04x", (int) c));
+          } else {
+            json.append(c);
+          }
+        }
+      }
+    }
+    json.append('"');
+  }
+}
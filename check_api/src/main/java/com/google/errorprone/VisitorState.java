@@ -18,6 +18,7 @@ package com.google.errorprone;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 import static com.google.errorprone.util.ASTHelpers.getStartPosition;
 import static com.google.errorprone.util.ASTHelpers.hasExplicitSource;
 import static java.util.Objects.requireNonNull;
@@ -75,8 +76,11 @@ public final class VisitorState {
 
   private final SharedState sharedState;
   public final Context context;
-  private final TreePath path;
-  private final SuppressedState suppressedState;
+  // Only changed in place for reusable views, see ReusableVisitorState
+  private TreePath path;
+  private SuppressedState suppressedState;
+  private final boolean reusable;
+  private boolean expired = false;
 
   // The default no-op implementation of DescriptionListener. We use this instead of null so callers
   // of getDescriptionListener() don't have to do null-checking.
@@ -148,6 +152,7 @@ public final class VisitorState {
     this.context = context;
     this.suppressedState = suppressedState;
     this.path = path;
+    this.reusable = false;
 
     this.sharedState =
         new SharedState(
@@ -160,10 +165,20 @@ public final class VisitorState {
    */
   private VisitorState(
       Context context, TreePath path, SuppressedState suppressedState, SharedState sharedState) {
+    this(context, path, suppressedState, sharedState, /* reusable= */ false);
+  }
+
+  private VisitorState(
+      Context context,
+      TreePath path,
+      SuppressedState suppressedState,
+      SharedState sharedState,
+      boolean reusable) {
     this.context = context;
     this.path = path;
     this.suppressedState = suppressedState;
     this.sharedState = sharedState;
+    this.reusable = reusable;
   }
 
   public VisitorState withPath(TreePath path) {
@@ -176,13 +191,45 @@ public final class VisitorState {
   }
 
   public VisitorState withSuppression(SuppressedState suppressedState) {
-    if (suppressedState == this.suppressedState) {
+    if (suppressedState == this.suppressedState && !reusable) {
       return this;
     }
     return new VisitorState(context, path, suppressedState, sharedState);
   }
 
+  /**
+   * Returns a copy of this state whose path and suppression state can be changed in place with
+   * {@link #reposition}. Only used by {@link ReusableVisitorState}.
+   */
+  VisitorState reusableView() {
+    checkNotExpired();
+    return new VisitorState(context, path, suppressedState, sharedState, /* reusable= */ true);
+  }
+
+  /** Moves a {@link #reusableView} to the given path and suppression state. */
+  void reposition(TreePath path, SuppressedState suppressedState) {
+    checkState(reusable, "only reusable views can be repositioned");
+    checkNotExpired();
+    this.path = checkNotNull(path);
+    this.suppressedState = suppressedState;
+  }
+
+  /**
+   * Marks a {@link #reusableView} as no longer in use, so that any later attempt to use its path or
+   * report a finding with it fails. Used to catch views which are retained by mistake.
+   */
+  void expire() {
+    checkState(reusable, "only reusable views can be expired");
+    expired = true;
+  }
+
+  private void checkNotExpired() {
+    checkState(
+        !expired, "This VisitorState was retained beyond the call it was passed to, see withPath");
+  }
+
   public TreePath getPath() {
+    checkNotExpired();
     if (path == null) {
       throw new UnsupportedOperationException(
           "VisitorState.memoize Supplier implementations cannot access the TreePath: The result is"
@@ -227,6 +274,7 @@ public final class VisitorState {
 
   public void reportMatch(Description description) {
     checkNotNull(description, "Use Description.NO_MATCH to denote an absent finding.");
+    checkNotExpired();
     if (description == Description.NO_MATCH) {
       return;
     }
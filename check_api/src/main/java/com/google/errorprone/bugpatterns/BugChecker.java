@@ -273,6 +273,15 @@ public abstract class BugChecker implements Suppressible, Serializable {
     return info.disableable();
   }
 
+  /**
+   * Returns true if this check needs to see every tree in a compilation unit to produce correct
+   * results, even when only changed lines are analyzed (see {@code -XepChangedLines}). Its findings
+   * are still only reported on changed lines.
+   */
+  public boolean analyzesUnchangedLines() {
+    return false;
+  }
+
   @Override
   public Set<Class<? extends Annotation>> customSuppressionAnnotations() {
     return info.customSuppressionAnnotations();
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone.matchers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.VisitorState;
+import com.sun.source.tree.Tree;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Implements the {@link Matchers#allOf}, {@link Matchers#anyOf} and {@link Matchers#not}
+ * combinators so that cheap matchers are tested before expensive ones.
+ *
+ * <p>Nested conjunctions and disjunctions are flattened. Matchers created by {@link Matchers} that
+ * are known to be side-effect free and to never throw are given a {@link Cost}, and within each run
+ * of such matchers in a combination, they are tested cheapest first. Other matchers may guard the
+ * matchers after them (e.g. by checking the kind of a tree before casting it), so they are always
+ * tested in the order given, and no matcher is moved past them.
+ */
+final class CostOrderedMatchers {
+
+  /** How expensive a matcher is to test, from cheapest to most expensive. */
+  enum Cost {
+    /** Only looks at the class or kind of the tree. */
+    KIND,
+    /** Looks at the symbol of the tree, e.g. at its modifiers or annotations. */
+    SYMBOL,
+    /** Looks at the type of the tree, e.g. to check for subtyping. */
+    TYPE
+  }
+
+  private record Costed<T extends Tree>(Cost cost, Matcher<T> matcher) implements Matcher<T> {
+    @Override
+    public boolean matches(T tree, VisitorState state) {
+      return matcher.matches(tree, state);
+    }
+  }
+
+  private record AllOf<T extends Tree>(
+      ImmutableList<Matcher<? super T>> matchers, @Nullable Cost cost) implements Matcher<T> {
+    @Override
+    public boolean matches(T tree, VisitorState state) {
+      for (Matcher<? super T> matcher : matchers) {
+        if (!matcher.matches(tree, state)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private record AnyOf<T extends Tree>(
+      ImmutableList<Matcher<? super T>> matchers, @Nullable Cost cost) implements Matcher<T> {
+    @Override
+    public boolean matches(T tree, VisitorState state) {
+      for (Matcher<? super T> matcher : matchers) {
+        if (matcher.matches(tree, state)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Marks a matcher as costing {@code cost} to test. The matcher must be side-effect free, and must
+   * not throw for any tree of type {@code T}.
+   */
+  static <T extends Tree> Matcher<T> withCost(Cost cost, Matcher<T> matcher) {
+    return new Costed<>(cost, matcher);
+  }
+
+  static <T extends Tree> Matcher<T> allOf(Iterable<? extends Matcher<? super T>> matchers) {
+    List<Matcher<? super T>> flattened = new ArrayList<>();
+    for (Matcher<? super T> matcher : matchers) {
+      if (matcher instanceof AllOf<?> allOf) {
+        flattened.addAll(subMatchers(allOf.matchers()));
+      } else {
+        flattened.add(matcher);
+      }
+    }
+    ImmutableList<Matcher<? super T>> ordered = orderByCost(flattened);
+    return new AllOf<>(ordered, combinedCost(ordered));
+  }
+
+  static <T extends Tree> Matcher<T> anyOf(Iterable<? extends Matcher<? super T>> matchers) {
+    List<Matcher<? super T>> flattened = new ArrayList<>();
+    for (Matcher<? super T> matcher : matchers) {
+      if (matcher instanceof AnyOf<?> anyOf) {
+        flattened.addAll(subMatchers(anyOf.matchers()));
+      } else {
+        flattened.add(matcher);
+      }
+    }
+    ImmutableList<Matcher<? super T>> ordered = orderByCost(flattened);
+    return new AnyOf<>(ordered, combinedCost(ordered));
+  }
+
+  static <T extends Tree> Matcher<T> not(Matcher<T> matcher) {
+    Matcher<T> negated = (tree, state) -> !matcher.matches(tree, state);
+    Cost cost = cost(matcher);
+    return cost != null ? withCost(cost, negated) : negated;
+  }
+
+  /**
+   * The matchers of a combination nested in a combination of {@code Matcher<? super T>}, which
+   * therefore also accept any {@code T}.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T extends Tree> List<Matcher<? super T>> subMatchers(
+      ImmutableList<? extends Matcher<?>> matchers) {
+    return (List<Matcher<? super T>>) (List<?>) matchers;
+  }
+
+  /**
+   * Stably sorts each run of matchers with a known cost, leaving matchers with an unknown cost in
+   * place.
+   */
+  private static <T extends Tree> ImmutableList<Matcher<? super T>> orderByCost(
+      List<Matcher<? super T>> matchers) {
+    ImmutableList.Builder<Matcher<? super T>> ordered = ImmutableList.builder();
+    List<Matcher<? super T>> run = new ArrayList<>();
+    for (Matcher<? super T> matcher : matchers) {
+      if (cost(matcher) != null) {
+        run.add(matcher);
+        continue;
+      }
+      run.sort(BY_COST);
+      ordered.addAll(run).add(matcher);
+      run.clear();
+    }
+    run.sort(BY_COST);
+    return ordered.addAll(run).build();
+  }
+
+  private static final Comparator<Matcher<?>> BY_COST =
+      Comparator.comparing(CostOrderedMatchers::cost);
+
+  /**
+   * The cost of a combination, which is that of its most expensive matcher, or unknown if that of
+   * any of its matchers is.
+   */
+  private static @Nullable Cost combinedCost(ImmutableList<? extends Matcher<?>> matchers) {
+    Cost combined = Cost.KIND;
+    for (Matcher<?> matcher : matchers) {
+      Cost cost = cost(matcher);
+      if (cost == null) {
+        return null;
+      }
+      if (cost.compareTo(combined) > 0) {
+        combined = cost;
+      }
+    }
+    return combined;
+  }
+
+  private static @Nullable Cost cost(Matcher<?> matcher) {
+    return switch (matcher) {
+      case Costed<?> costed -> costed.cost();
+      case AllOf<?> allOf -> allOf.cost();
+      case AnyOf<?> anyOf -> anyOf.cost();
+      default -> null;
+    };
+  }
+
+  private CostOrderedMatchers() {}
+}
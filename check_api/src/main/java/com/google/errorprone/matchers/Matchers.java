@@ -21,6 +21,7 @@ import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Iterables.getLast;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Streams.stream;
+import static com.google.errorprone.matchers.CostOrderedMatchers.withCost;
 import static com.google.errorprone.matchers.MethodVisibility.Visibility.PUBLIC;
 import static com.google.errorprone.predicates.TypePredicates.isDescendantOf;
 import static com.google.errorprone.predicates.TypePredicates.isExactType;
@@ -43,6 +44,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.VisitorState;
 import com.google.errorprone.dataflow.nullnesspropagation.Nullness;
 import com.google.errorprone.matchers.ChildMultiMatcher.MatchType;
+import com.google.errorprone.matchers.CostOrderedMatchers.Cost;
 import com.google.errorprone.matchers.MethodVisibility.Visibility;
 import com.google.errorprone.matchers.method.MethodMatchers;
 import com.google.errorprone.matchers.method.MethodMatchers.AnyMethodMatcher;
@@ -120,63 +122,48 @@ public final class Matchers {
 
   /** A matcher that matches any AST node. */
   public static <T extends Tree> Matcher<T> anything() {
-    return (t, state) -> true;
+    return withCost(Cost.KIND, (t, state) -> true);
   }
 
   /** A matcher that matches no AST node. */
   public static <T extends Tree> Matcher<T> nothing() {
-    return (t, state) -> false;
+    return withCost(Cost.KIND, (t, state) -> false);
   }
 
   /** Matches an AST node iff it does not match the given matcher. */
   public static <T extends Tree> Matcher<T> not(Matcher<T> matcher) {
-    return (t, state) -> !matcher.matches(t, state);
+    return CostOrderedMatchers.not(matcher);
   }
 
   /**
    * Compose several matchers together, such that the composite matches an AST node iff all the
    * given matchers do.
+   *
+   * <p>The given matchers may be tested in a different order, see {@link CostOrderedMatchers}.
    */
   @SafeVarargs
   public static <T extends Tree> Matcher<T> allOf(Matcher<? super T>... matchers) {
-    return (t, state) -> {
-      for (Matcher<? super T> matcher : matchers) {
-        if (!matcher.matches(t, state)) {
-          return false;
-        }
-      }
-      return true;
-    };
+    return CostOrderedMatchers.allOf(Arrays.<Matcher<? super T>>asList(matchers));
   }
 
   /**
    * Compose several matchers together, such that the composite matches an AST node iff all the
    * given matchers do.
+   *
+   * <p>The given matchers may be tested in a different order, see {@link CostOrderedMatchers}.
    */
   public static <T extends Tree> Matcher<T> allOf(Iterable<? extends Matcher<? super T>> matchers) {
-    return (t, state) -> {
-      for (Matcher<? super T> matcher : matchers) {
-        if (!matcher.matches(t, state)) {
-          return false;
-        }
-      }
-      return true;
-    };
+    return CostOrderedMatchers.allOf(matchers);
   }
 
   /**
    * Compose several matchers together, such that the composite matches an AST node if any of the
    * given matchers do.
+   *
+   * <p>The given matchers may be tested in a different order, see {@link CostOrderedMatchers}.
    */
   public static <T extends Tree> Matcher<T> anyOf(Iterable<? extends Matcher<? super T>> matchers) {
-    return (t, state) -> {
-      for (Matcher<? super T> matcher : matchers) {
-        if (matcher.matches(t, state)) {
-          return true;
-        }
-      }
-      return false;
-    };
+    return CostOrderedMatchers.anyOf(matchers);
   }
 
   @SafeVarargs
@@ -187,22 +174,22 @@ public final class Matchers {
 
   /** Matches if an AST node is an instance of the given class. */
   public static <T extends Tree> Matcher<T> isInstance(java.lang.Class<?> klass) {
-    return (t, state) -> klass.isInstance(t);
+    return withCost(Cost.KIND, (t, state) -> klass.isInstance(t));
   }
 
   /** Matches an AST node of a given kind, for example, an Annotation or a switch block. */
   public static <T extends Tree> Matcher<T> kindIs(Kind kind) {
-    return (tree, state) -> tree.getKind() == kind;
+    return withCost(Cost.KIND, (tree, state) -> tree.getKind() == kind);
   }
 
   /** Matches an AST node of a given kind, for example, an Annotation or a switch block. */
   public static <T extends Tree> Matcher<T> kindAnyOf(Set<Kind> kinds) {
-    return (tree, state) -> kinds.contains(tree.getKind());
+    return withCost(Cost.KIND, (tree, state) -> kinds.contains(tree.getKind()));
   }
 
   /** Matches an AST node which is the same object reference as the given node. */
   public static <T extends Tree> Matcher<T> isSame(Tree t) {
-    return (tree, state) -> tree == t;
+    return withCost(Cost.KIND, (tree, state) -> tree == t);
   }
 
   /** Matches a static method. */
@@ -397,7 +384,7 @@ public final class Matchers {
    * @param typeStr a string representation of the type, e.g., "java.util.AbstractList"
    */
   public static <T extends Tree> Matcher<T> isSubtypeOf(String typeStr) {
-    return typePredicateMatcher(isDescendantOf(typeStr));
+    return typeMatcher(isDescendantOf(typeStr));
   }
 
   /**
@@ -406,7 +393,7 @@ public final class Matchers {
    * @param type the type to check against
    */
   public static <T extends Tree> Matcher<T> isSubtypeOf(Supplier<Type> type) {
-    return typePredicateMatcher(isDescendantOf(type));
+    return typeMatcher(isDescendantOf(type));
   }
 
   /**
@@ -415,22 +402,22 @@ public final class Matchers {
    * @param clazz a class representation of the type, e.g., Action.class.
    */
   public static <T extends Tree> Matcher<T> isSubtypeOf(Class<?> clazz) {
-    return typePredicateMatcher(isDescendantOf(typeFromClass(clazz)));
+    return typeMatcher(isDescendantOf(typeFromClass(clazz)));
   }
 
   /** Matches an AST node if it has the same erased type as the given type. */
   public static <T extends Tree> Matcher<T> isSameType(Supplier<Type> type) {
-    return typePredicateMatcher(isExactType(type));
+    return typeMatcher(isExactType(type));
   }
 
   /** Matches an AST node if it has the same erased type as the given type. */
   public static <T extends Tree> Matcher<T> isSameType(String typeString) {
-    return typePredicateMatcher(isExactType(typeString));
+    return typeMatcher(isExactType(typeString));
   }
 
   /** Matches an AST node if it has the same erased type as the given class. */
   public static <T extends Tree> Matcher<T> isSameType(Class<?> clazz) {
-    return typePredicateMatcher(isExactType(typeFromClass(clazz)));
+    return typeMatcher(isExactType(typeFromClass(clazz)));
   }
 
   /**
@@ -446,31 +433,36 @@ public final class Matchers {
     };
   }
 
+  /** Like {@link #typePredicateMatcher}, for predicates that never throw. */
+  private static <T extends Tree> Matcher<T> typeMatcher(TypePredicate pred) {
+    return withCost(Cost.TYPE, typePredicateMatcher(pred));
+  }
+
   /** Matches an AST node if its type is an array type. */
   public static <T extends Tree> Matcher<T> isArrayType() {
-    return typePredicateMatcher((type, state) -> state.getTypes().isArray(type));
+    return typeMatcher((type, state) -> state.getTypes().isArray(type));
   }
 
   /** Matches an AST node if its type is a primitive array type. */
   public static <T extends Tree> Matcher<T> isPrimitiveArrayType() {
-    return typePredicateMatcher(
+    return typeMatcher(
         (type, state) ->
             state.getTypes().isArray(type) && state.getTypes().elemtype(type).isPrimitive());
   }
 
   /** Matches an AST node if its type is a primitive type. */
   public static <T extends Tree> Matcher<T> isPrimitiveType() {
-    return typePredicateMatcher((type, state) -> type.isPrimitive());
+    return typeMatcher((type, state) -> type.isPrimitive());
   }
 
   /** Matches an AST node if its type is either a primitive type or a {@code void} type. */
   public static <T extends Tree> Matcher<T> isPrimitiveOrVoidType() {
-    return typePredicateMatcher((type, state) -> type.isPrimitiveOrVoid());
+    return typeMatcher((type, state) -> type.isPrimitiveOrVoid());
   }
 
   /** Matches an AST node if its type is a {@code void} type. */
   public static <T extends Tree> Matcher<T> isVoidType() {
-    return typePredicateMatcher(
+    return typeMatcher(
         (type, state) -> state.getTypes().isSameType(type, state.getSymtab().voidType));
   }
 
@@ -478,13 +470,12 @@ public final class Matchers {
    * Matches an AST node if its type is a primitive type, or a boxed version of a primitive type.
    */
   public static <T extends Tree> Matcher<T> isPrimitiveOrBoxedPrimitiveType() {
-    return typePredicateMatcher(
-        (type, state) -> state.getTypes().unboxedTypeOrType(type).isPrimitive());
+    return typeMatcher((type, state) -> state.getTypes().unboxedTypeOrType(type).isPrimitive());
   }
 
   /** Matches an AST node if its type is a boxed primitive type. */
   public static Matcher<ExpressionTree> isBoxedPrimitiveType() {
-    return typePredicateMatcher(
+    return typeMatcher(
         (type, state) ->
             !state.getTypes().isSameType(state.getTypes().unboxedType(type), Type.noType));
   }
@@ -714,9 +705,11 @@ public final class Matchers {
     Supplier<Set<Name>> name =
         VisitorState.memoize(
             state -> ImmutableSet.of(state.binaryNameFromClassname(annotationClass)));
-    return (T tree, VisitorState state) ->
-        !ASTHelpers.annotationsAmong(ASTHelpers.getDeclaredSymbol(tree), name.get(state), state)
-            .isEmpty();
+    return withCost(
+        Cost.SYMBOL,
+        (T tree, VisitorState state) ->
+            !ASTHelpers.annotationsAmong(ASTHelpers.getDeclaredSymbol(tree), name.get(state), state)
+                .isEmpty());
   }
 
   /**
@@ -772,8 +765,10 @@ public final class Matchers {
    * @param inputClass The class of the annotation to look for (e.g, Produces.class).
    */
   public static <T extends Tree> Matcher<T> hasAnnotation(Class<? extends Annotation> inputClass) {
-    return (tree, state) ->
-        ASTHelpers.hasAnnotation(ASTHelpers.getDeclaredSymbol(tree), inputClass, state);
+    return withCost(
+        Cost.SYMBOL,
+        (tree, state) ->
+            ASTHelpers.hasAnnotation(ASTHelpers.getDeclaredSymbol(tree), inputClass, state));
   }
 
   /**
@@ -803,7 +798,7 @@ public final class Matchers {
       if (ASTHelpers.hasAnnotation(methodSym, annotationClass, state)) {
         return true;
       }
-      for (MethodSymbol method : ASTHelpers.findSuperMethods(methodSym, state.getTypes())) {
+      for (MethodSymbol method : ASTHelpers.findSuperMethods(methodSym, state)) {
         if (ASTHelpers.hasAnnotation(method, annotationClass, state)) {
           return true;
         }
@@ -1032,10 +1027,12 @@ public final class Matchers {
 
   /** Returns true if the Tree node has the expected {@code Modifier}. */
   public static <T extends Tree> Matcher<T> hasModifier(Modifier modifier) {
-    return (tree, state) -> {
-      Symbol sym = getSymbol(tree);
-      return sym != null && sym.getModifiers().contains(modifier);
-    };
+    return withCost(
+        Cost.SYMBOL,
+        (tree, state) -> {
+          Symbol sym = getSymbol(tree);
+          return sym != null && sym.getModifiers().contains(modifier);
+        });
   }
 
   /** Matches an AST node which is an expression yielding the indicated static field access. */
@@ -1045,10 +1042,12 @@ public final class Matchers {
 
   /** Matches an AST node that is static. */
   public static <T extends Tree> Matcher<T> isStatic() {
-    return (tree, state) -> {
-      Symbol sym = getSymbol(tree);
-      return sym != null && ASTHelpers.isStatic(sym);
-    };
+    return withCost(
+        Cost.SYMBOL,
+        (tree, state) -> {
+          Symbol sym = getSymbol(tree);
+          return sym != null && ASTHelpers.isStatic(sym);
+        });
   }
 
   /** Matches an AST node that is transient. */
@@ -44,7 +44,7 @@ public final class TestNgMatchers {
     if (hasTestNgAttr(methodSym)) {
       return true;
     }
-    return streamSuperMethods(methodSym, state.getTypes()).anyMatch(TestNgMatchers::hasTestNgAttr);
+    return streamSuperMethods(methodSym, state).anyMatch(TestNgMatchers::hasTestNgAttr);
   }
 
   /** Checks if a class is annotated with any annotation from the org.testng package. */
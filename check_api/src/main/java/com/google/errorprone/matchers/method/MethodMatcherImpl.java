@@ -38,12 +38,16 @@ import com.google.errorprone.suppliers.Supplier;
 import com.google.errorprone.suppliers.Suppliers;
 import com.google.errorprone.util.ASTHelpers;
 import com.sun.source.tree.ExpressionTree;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
 import com.sun.tools.javac.code.Symbol.VarSymbol;
 import com.sun.tools.javac.code.Type;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import org.jspecify.annotations.Nullable;
 
 final class MethodMatcherImpl
     implements InstanceMethodMatcher,
@@ -65,44 +69,117 @@ final class MethodMatcherImpl
     boolean matches(MatchState m, VisitorState s);
   }
 
+  /** What the result of a {@link Constraint} depends on. */
+  private enum Dependency {
+    /** Only the method symbol, and the constraint is cheap to test, e.g. by comparing names. */
+    NAME,
+    /**
+     * Only the method symbol and the erasure of its owner type. Since these constraints usually
+     * involve subtyping checks, their combined result is memoized for each compilation.
+     */
+    SYMBOL,
+    /**
+     * Possibly anything about the invocation, including the tree being matched. Predicates given by
+     * callers are assumed to be in this category, as are types given as {@link Supplier}s, which
+     * are evaluated against the current {@link VisitorState} and may depend on its path.
+     */
+    TREE
+  }
+
   static final AnyMethodMatcher ANY_METHOD =
-      new MethodMatcherImpl(
-          BaseMethodMatcher.METHOD,
-          ImmutableList.of(
+      new MethodMatcherImpl(BaseMethodMatcher.METHOD)
+          .append(
+              Dependency.NAME,
               (m, s) -> {
                 // Handled by base matcher.
                 return true;
-              }));
+              });
   static final ConstructorMatcher CONSTRUCTOR =
-      new MethodMatcherImpl(BaseMethodMatcher.CONSTRUCTOR, ImmutableList.of((m, s) -> true));
+      new MethodMatcherImpl(BaseMethodMatcher.CONSTRUCTOR).append(Dependency.NAME, (m, s) -> true);
   static final StaticMethodMatcher STATIC_METHOD =
-      new MethodMatcherImpl(
-          BaseMethodMatcher.METHOD, ImmutableList.of((m, s) -> m.sym().isStatic()));
+      new MethodMatcherImpl(BaseMethodMatcher.METHOD)
+          .append(Dependency.NAME, (m, s) -> m.sym().isStatic());
   static final InstanceMethodMatcher INSTANCE_METHOD =
-      new MethodMatcherImpl(
-          BaseMethodMatcher.METHOD, ImmutableList.of((m, s) -> !m.sym().isStatic()));
+      new MethodMatcherImpl(BaseMethodMatcher.METHOD)
+          .append(Dependency.NAME, (m, s) -> !m.sym().isStatic());
 
   private final BaseMethodMatcher baseMatcher;
 
-  private final ImmutableList<Constraint> constraints;
+  private final ImmutableList<Constraint> nameConstraints;
+  private final ImmutableList<Constraint> symbolConstraints;
+  private final ImmutableList<Constraint> treeConstraints;
 
   // All constructors private: only static final instances are legal starting points for chains.
-  private MethodMatcherImpl(BaseMethodMatcher baseMatcher, ImmutableList<Constraint> matchers) {
+  private MethodMatcherImpl(BaseMethodMatcher baseMatcher) {
+    this(baseMatcher, ImmutableList.of(), ImmutableList.of(), ImmutableList.of());
+  }
+
+  private MethodMatcherImpl(
+      BaseMethodMatcher baseMatcher,
+      ImmutableList<Constraint> nameConstraints,
+      ImmutableList<Constraint> symbolConstraints,
+      ImmutableList<Constraint> treeConstraints) {
     this.baseMatcher = baseMatcher;
-    this.constraints = matchers;
+    this.nameConstraints = nameConstraints;
+    this.symbolConstraints = symbolConstraints;
+    this.treeConstraints = treeConstraints;
   }
 
-  private MethodMatcherImpl append(Constraint c) {
+  private MethodMatcherImpl append(Dependency dependency, Constraint c) {
     return new MethodMatcherImpl(
-        baseMatcher, ImmutableList.<Constraint>builder().addAll(this.constraints).add(c).build());
+        baseMatcher,
+        dependency == Dependency.NAME ? append(nameConstraints, c) : nameConstraints,
+        dependency == Dependency.SYMBOL ? append(symbolConstraints, c) : symbolConstraints,
+        dependency == Dependency.TREE ? append(treeConstraints, c) : treeConstraints);
   }
 
+  private static ImmutableList<Constraint> append(
+      ImmutableList<Constraint> constraints, Constraint c) {
+    return ImmutableList.<Constraint>builder().addAll(constraints).add(c).build();
+  }
+
+  /**
+   * The combined results of the {@link Dependency#SYMBOL} constraints of each matcher, for each
+   * method symbol and erased owner type it has been tested against in the current compilation. This
+   * means that the owner type checks for frequently called methods, like {@code
+   * Preconditions.checkNotNull}, are done once per matcher rather than once per call.
+   */
+  private static final Supplier<Map<SymbolVerdictKey, Boolean>> SYMBOL_VERDICTS =
+      VisitorState.memoize(unused -> new HashMap<>());
+
+  private record SymbolVerdictKey(
+      MethodMatcherImpl matcher, MethodSymbol sym, @Nullable Type erasedOwnerType) {}
+
   @Override
   public boolean matches(ExpressionTree tree, VisitorState state) {
     MatchState method = baseMatcher.match(tree);
     if (method == null) {
       return false;
     }
+    // The order of the constraints doesn't matter, so the cheapest ones go first.
+    if (!matchesAll(nameConstraints, method, state)) {
+      return false;
+    }
+    if (!symbolConstraints.isEmpty()) {
+      Type ownerType = method.ownerType();
+      SymbolVerdictKey key =
+          new SymbolVerdictKey(
+              this, method.sym(), ownerType != null ? state.getTypes().erasure(ownerType) : null);
+      Map<SymbolVerdictKey, Boolean> verdicts = SYMBOL_VERDICTS.get(state);
+      Boolean verdict = verdicts.get(key);
+      if (verdict == null) {
+        verdict = matchesAll(symbolConstraints, method, state);
+        verdicts.put(key, verdict);
+      }
+      if (!verdict) {
+        return false;
+      }
+    }
+    return matchesAll(treeConstraints, method, state);
+  }
+
+  private static boolean matchesAll(
+      ImmutableList<Constraint> constraints, MatchState method, VisitorState state) {
     for (Constraint constraint : constraints) {
       if (!constraint.matches(method, state)) {
         return false;
@@ -113,13 +190,13 @@ final class MethodMatcherImpl
 
   @Override
   public MethodClassMatcher onClass(TypePredicate predicate) {
-    return append((m, s) -> predicate.apply(m.ownerType(), s));
+    return append(Dependency.TREE, (m, s) -> predicate.apply(m.ownerType(), s));
   }
 
   @Override
   public MethodClassMatcher onClass(String className) {
     TypePredicate pred = TypePredicates.isExactType(className);
-    return append((m, s) -> pred.apply(m.ownerType(), s));
+    return onErasedClass(pred);
   }
 
   @Override
@@ -130,7 +207,7 @@ final class MethodMatcherImpl
   @Override
   public MethodClassMatcher onClassAny(Iterable<String> classNames) {
     TypePredicate pred = TypePredicates.isExactTypeAny(classNames);
-    return append((m, s) -> pred.apply(m.ownerType(), s));
+    return onErasedClass(pred);
   }
 
   @Override
@@ -161,7 +238,7 @@ final class MethodMatcherImpl
   @Override
   public MethodClassMatcher onDescendantOf(String className) {
     TypePredicate pred = TypePredicates.isDescendantOf(className);
-    return append((m, s) -> pred.apply(m.ownerType(), s));
+    return onErasedClass(pred);
   }
 
   @Override
@@ -177,7 +254,15 @@ final class MethodMatcherImpl
   @Override
   public MethodClassMatcher onDescendantOfAny(Iterable<String> classTypes) {
     TypePredicate pred = TypePredicates.isDescendantOfAny(classTypes);
-    return append((m, s) -> pred.apply(m.ownerType(), s));
+    return onErasedClass(pred);
+  }
+
+  /**
+   * Matches methods whose owner type satisfies the given predicate, which must only depend on the
+   * erasure of the type.
+   */
+  private MethodClassMatcher onErasedClass(TypePredicate predicate) {
+    return append(Dependency.SYMBOL, (m, s) -> predicate.apply(m.ownerType(), s));
   }
 
   @Override
@@ -191,7 +276,7 @@ final class MethodMatcherImpl
         !name.contains("(") && !name.contains(")"),
         "method name (%s) cannot contain parentheses; use \"foo\" instead of \"foo()\"",
         name);
-    return append((m, s) -> m.sym().getSimpleName().contentEquals(name));
+    return append(Dependency.NAME, (m, s) -> m.sym().getSimpleName().contentEquals(name));
   }
 
   @Override
@@ -202,7 +287,7 @@ final class MethodMatcherImpl
   @Override
   public MethodNameMatcher namedAnyOf(Iterable<String> names) {
     ImmutableSet<String> expected = ImmutableSet.copyOf(names);
-    return append((m, s) -> expected.contains(m.sym().getSimpleName().toString()));
+    return append(Dependency.NAME, (m, s) -> expected.contains(m.sym().getSimpleName().toString()));
   }
 
   @Override
@@ -211,7 +296,7 @@ final class MethodMatcherImpl
   }
 
   private MethodNameMatcher stringConstraint(Predicate<String> constraint) {
-    return append((m, s) -> constraint.test(m.sym().getSimpleName().toString()));
+    return append(Dependency.NAME, (m, s) -> constraint.test(m.sym().getSimpleName().toString()));
   }
 
   @Override
@@ -231,12 +316,18 @@ final class MethodMatcherImpl
 
   @Override
   public ParameterMatcher withParameters(Iterable<String> expected) {
-    return withParametersOfType(Suppliers.fromStrings(expected));
+    return withParametersOfType(Dependency.SYMBOL, Suppliers.fromStrings(expected));
   }
 
   @Override
   public ParameterMatcher withParametersOfType(Iterable<Supplier<Type>> expected) {
+    return withParametersOfType(Dependency.TREE, expected);
+  }
+
+  private ParameterMatcher withParametersOfType(
+      Dependency dependency, Iterable<Supplier<Type>> expected) {
     return append(
+        dependency,
         (method, state) -> {
           List<Type> actual = method.paramTypes();
           if (actual.size() != Iterables.size(expected)) {
@@ -267,6 +358,7 @@ final class MethodMatcherImpl
   @Override
   public ParameterMatcher withParametersMatching(Iterable<ParameterPredicate> expected) {
     return append(
+        Dependency.TREE,
         (method, state) -> {
           List<VarSymbol> actual = method.sym().getParameters();
           if (actual.size() != Iterables.size(expected)) {
@@ -286,12 +378,14 @@ final class MethodMatcherImpl
 
   @Override
   public ConstructorClassMatcher forClass(TypePredicate predicate) {
-    return append((m, s) -> predicate.apply(m.ownerType(), s));
+    return append(Dependency.TREE, (m, s) -> predicate.apply(m.ownerType(), s));
   }
 
   @Override
   public ConstructorClassMatcher forClass(String className) {
-    return append((m, s) -> m.ownerType().asElement().getQualifiedName().contentEquals(className));
+    return append(
+        Dependency.SYMBOL,
+        (m, s) -> m.ownerType().asElement().getQualifiedName().contentEquals(className));
   }
 
   @Override
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone.names;
+
+/**
+ * Per-thread scratch space for the edit distance algorithms, so that comparing many pairs of names
+ * doesn't allocate a new matrix for each one.
+ */
+final class EditDistanceBuffers {
+
+  /** Buffers larger than this aren't retained, so one long string doesn't pin a large array. */
+  private static final int MAX_RETAINED_LENGTH = 4096;
+
+  private static final ThreadLocal<int[]> INTS = ThreadLocal.withInitial(() -> new int[64]);
+
+  /**
+   * Returns an array with at least {@code length} elements, whose contents are unspecified. The
+   * array may be returned again by a later call on the same thread, so callers must not hold on to
+   * it, or call any other edit distance method while using it.
+   */
+  static int[] ints(int length) {
+    int[] buffer = INTS.get();
+    if (buffer.length >= length) {
+      return buffer;
+    }
+    buffer = new int[Math.max(length, buffer.length * 2)];
+    if (buffer.length <= MAX_RETAINED_LENGTH) {
+      INTS.set(buffer);
+    }
+    return buffer;
+  }
+
+  private EditDistanceBuffers() {}
+}
@@ -16,7 +16,10 @@
 
 package com.google.errorprone.names;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.google.common.base.Ascii;
+import com.google.common.base.CharMatcher;
 import com.google.common.primitives.Ints;
 
 /**
@@ -30,6 +33,9 @@ import com.google.common.primitives.Ints;
  */
 public final class LevenshteinEditDistance {
 
+  /** The characters matched by {@code \s} in a regular expression. */
+  private static final CharMatcher WHITESPACE = CharMatcher.anyOf(" \t\n\u000B\f\r");
+
   private LevenshteinEditDistance() {
     /* disallow instantiation */
   }
@@ -48,7 +54,8 @@ public final class LevenshteinEditDistance {
 
   /**
    * Returns the edit distance between two strings. The algorithm used to calculate this distance
-   * has space requirements of len(source)*len(target).
+   * takes time proportional to len(source)*len(target), and reuses a per-thread buffer with space
+   * proportional to len(target).
    *
    * @param source The source string.
    * @param target The target string
@@ -57,6 +64,26 @@ public final class LevenshteinEditDistance {
    * @see #getEditDistance(String, String)
    */
   public static int getEditDistance(String source, String target, boolean caseSensitive) {
+    return getEditDistance(source, target, caseSensitive, Integer.MAX_VALUE - 1);
+  }
+
+  /**
+   * Returns the edit distance between two strings, or {@code maxDistance + 1} if it is greater than
+   * {@code maxDistance}. Only the diagonal band of width {@code 2 * maxDistance + 1} is computed,
+   * and the computation stops as soon as every entry of a row exceeds the bound, so this is much
+   * cheaper than {@link #getEditDistance(String, String, boolean)} when the caller only needs to
+   * know whether the strings are similar.
+   *
+   * @param source The source string.
+   * @param target The target string
+   * @param caseSensitive If true, case is used in comparisons and 'a' != 'A'.
+   * @param maxDistance The largest distance of interest.
+   * @return The edit distance between the source and target strings, if it is at most {@code
+   *     maxDistance}, and {@code maxDistance + 1} otherwise.
+   */
+  public static int getEditDistance(
+      String source, String target, boolean caseSensitive, int maxDistance) {
+    checkArgument(maxDistance >= 0 && maxDistance < Integer.MAX_VALUE, maxDistance);
 
     // Levenshtein distance algorithm
 
@@ -64,46 +91,72 @@ public final class LevenshteinEditDistance {
     int targetLength = isEmptyOrWhitespace(target) ? 0 : target.length();
 
     if (sourceLength == 0) {
-      return targetLength;
+      return Math.min(targetLength, maxDistance + 1);
     }
 
     if (targetLength == 0) {
-      return sourceLength;
-    }
-
-    if (!caseSensitive) {
-      source = Ascii.toLowerCase(source);
-      target = Ascii.toLowerCase(target);
+      return Math.min(sourceLength, maxDistance + 1);
     }
 
-    int[][] levMatrix = new int[sourceLength + 1][targetLength + 1];
-
-    for (int i = 0; i <= sourceLength; i++) {
-      levMatrix[i][0] = i;
+    if (Math.abs(sourceLength - targetLength) > maxDistance) {
+      return maxDistance + 1;
     }
 
-    for (int i = 0; i <= targetLength; i++) {
-      levMatrix[0][i] = i;
+    // Only the previous row of the matrix is needed to compute the next one. Entries outside of
+    // the band are treated as being larger than the bound, which is never more than the worst case
+    // distance.
+    int bound = Math.min(maxDistance, getWorstCaseEditDistance(sourceLength, targetLength));
+    int outOfBand = bound + 1;
+    int[] rows = EditDistanceBuffers.ints(2 * (targetLength + 1));
+    int previous = 0;
+    int current = targetLength + 1;
+
+    for (int j = 0; j <= targetLength; j++) {
+      rows[previous + j] = j <= bound ? j : outOfBand;
     }
 
     for (int i = 1; i <= sourceLength; i++) {
 
       char sourceI = source.charAt(i - 1);
-      for (int j = 1; j <= targetLength; j++) {
+      int first = Math.max(1, i - bound);
+      int last = Math.min(targetLength, i + bound);
+      rows[current] = i <= bound ? i : outOfBand;
+      if (first > 1) {
+        rows[current + first - 1] = outOfBand;
+      }
+      int rowMin = rows[current];
+      for (int j = first; j <= last; j++) {
         char targetJ = target.charAt(j - 1);
 
         int cost = 0;
-        if (sourceI != targetJ) {
+        if (!charsEqual(sourceI, targetJ, caseSensitive)) {
           cost = 1;
         }
 
-        levMatrix[i][j] =
+        int distance =
             Ints.min(
-                cost + levMatrix[i - 1][j - 1], levMatrix[i - 1][j] + 1, levMatrix[i][j - 1] + 1);
+                cost + rows[previous + j - 1], rows[previous + j] + 1, rows[current + j - 1] + 1);
+        rows[current + j] = Math.min(distance, outOfBand);
+        rowMin = Math.min(rowMin, rows[current + j]);
       }
+      if (last < targetLength) {
+        rows[current + last + 1] = outOfBand;
+      }
+      if (rowMin > bound) {
+        // Distances never decrease along a path through the matrix.
+        return outOfBand;
+      }
+
+      int swap = previous;
+      previous = current;
+      current = swap;
     }
 
-    return levMatrix[sourceLength][targetLength];
+    return rows[previous + targetLength];
+  }
+
+  static boolean charsEqual(char a, char b, boolean caseSensitive) {
+    return a == b || (!caseSensitive && Ascii.toLowerCase(a) == Ascii.toLowerCase(b));
   }
 
   /** Calculate the worst case distance between two strings with the given lengths */
@@ -118,6 +171,14 @@ public final class LevenshteinEditDistance {
    * @return True if the string is empty or contains only whitespace, false otherwise
    */
   private static boolean isEmptyOrWhitespace(String source) {
-    return source == null || source.matches("\\s*");
+    if (source == null) {
+      return true;
+    }
+    for (int i = 0; i < source.length(); i++) {
+      if (!WHITESPACE.matches(source.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
   }
 }
@@ -18,10 +18,13 @@ package com.google.errorprone.names;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import javax.lang.model.element.Name;
 
 /** Utility functions for dealing with Java naming conventions */
 public final class NamingConventions {
@@ -36,6 +39,10 @@ public final class NamingConventions {
       Splitter.onPattern(String.format("%s|%s|%s", UNDERSCORE, CASE_TRANSITION, TRAILING_DIGITS))
           .omitEmptyStrings();
 
+  // Names are canonicalized by javac, and the cache compares its weak keys by identity.
+  private static final Cache<Name, ImmutableList<String>> TERMS_BY_NAME =
+      Caffeine.newBuilder().weakKeys().maximumSize(10_000).build();
+
   /**
    * Split a Java name into terms based on either Camel Case or Underscores. We also split digits at
    * the end of the name into a separate term so as to treat PERSON1 and PERSON_1 as the same thing.
@@ -54,6 +61,18 @@ public final class NamingConventions {
         .collect(toImmutableList());
   }
 
+  /**
+   * Split a Java name into terms, as {@link #splitToLowercaseTerms(String)} does. The result is
+   * cached for each {@link Name}, so checks that look at the same identifiers many times only split
+   * them once.
+   *
+   * @param identifierName to split
+   * @return a list of the terms in the name, in order and converted to lowercase
+   */
+  public static ImmutableList<String> splitToLowercaseTerms(Name identifierName) {
+    return TERMS_BY_NAME.get(identifierName, n -> splitToLowercaseTerms(n.toString()));
+  }
+
   public static String convertToLowerUnderscore(String identifierName) {
     return splitToLowercaseTerms(identifierName).stream().collect(Collectors.joining("_"));
   }
@@ -19,6 +19,7 @@ import blogspot.software_and_algorithms.stern_library.optimization.HungarianAlgo
 import com.google.common.collect.ImmutableList;
 import java.util.function.BiFunction;
 import java.util.stream.DoubleStream;
+import javax.lang.model.element.Name;
 
 /**
  * A utility class for finding the distance between two identifiers. Each identifier is split into
@@ -51,33 +52,50 @@ public class TermEditDistance {
   }
 
   public double getNormalizedEditDistance(String source, String target) {
+    return getNormalizedEditDistance(
+        NamingConventions.splitToLowercaseTerms(source),
+        NamingConventions.splitToLowercaseTerms(target));
+  }
+
+  /**
+   * Returns the normalized distance between two identifiers, as {@link
+   * #getNormalizedEditDistance(String, String)} does, reusing the terms cached for each name.
+   */
+  public double getNormalizedEditDistance(Name source, Name target) {
+    return getNormalizedEditDistance(
+        NamingConventions.splitToLowercaseTerms(source),
+        NamingConventions.splitToLowercaseTerms(target));
+  }
 
-    ImmutableList<String> sourceTerms = NamingConventions.splitToLowercaseTerms(source);
-    ImmutableList<String> targetTerms = NamingConventions.splitToLowercaseTerms(target);
+  private double getNormalizedEditDistance(
+      ImmutableList<String> sourceTerms, ImmutableList<String> targetTerms) {
+    int sourceSize = sourceTerms.size();
+    int targetSize = targetTerms.size();
 
     // costMatrix[s][t] is the edit distance between source term s and target term t
-    double[][] costMatrix =
-        sourceTerms.stream()
-            .map(s -> targetTerms.stream().mapToDouble(t -> editDistanceFn.apply(s, t)).toArray())
-            .toArray(double[][]::new);
+    double[][] costMatrix = new double[sourceSize][targetSize];
 
     // worstCaseMatrix[s][t] is the worst case distance between source term s and target term t
-    double[][] worstCaseMatrix =
-        sourceTerms.stream()
-            .map(s -> s.length())
-            .map(
-                s ->
-                    targetTerms.stream()
-                        .map(t -> t.length())
-                        .mapToDouble(t -> maxDistanceFn.apply(s, t))
-                        .toArray())
-            .toArray(double[][]::new);
-
-    double[] sourceTermDeletionCosts =
-        sourceTerms.stream().mapToDouble(s -> maxDistanceFn.apply(s.length(), 0)).toArray();
-
-    double[] targetTermAdditionCosts =
-        targetTerms.stream().mapToDouble(s -> maxDistanceFn.apply(0, s.length())).toArray();
+    double[][] worstCaseMatrix = new double[sourceSize][targetSize];
+
+    for (int s = 0; s < sourceSize; s++) {
+      String sourceTerm = sourceTerms.get(s);
+      for (int t = 0; t < targetSize; t++) {
+        String targetTerm = targetTerms.get(t);
+        costMatrix[s][t] = editDistanceFn.apply(sourceTerm, targetTerm);
+        worstCaseMatrix[s][t] = maxDistanceFn.apply(sourceTerm.length(), targetTerm.length());
+      }
+    }
+
+    double[] sourceTermDeletionCosts = new double[sourceSize];
+    for (int s = 0; s < sourceSize; s++) {
+      sourceTermDeletionCosts[s] = maxDistanceFn.apply(sourceTerms.get(s).length(), 0);
+    }
+
+    double[] targetTermAdditionCosts = new double[targetSize];
+    for (int t = 0; t < targetSize; t++) {
+      targetTermAdditionCosts[t] = maxDistanceFn.apply(0, targetTerms.get(t).length());
+    }
 
     // this is an array of assignments of source terms to target terms. If assignments[i] contains
     // the value j this means that source term i has been assigned to target term j
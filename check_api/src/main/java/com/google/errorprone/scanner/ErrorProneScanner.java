@@ -17,11 +17,14 @@
 package com.google.errorprone.scanner;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableRangeSet;
 import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.BugPattern;
 import com.google.errorprone.BugPattern.SeverityLevel;
+import com.google.errorprone.ChangedLines;
 import com.google.errorprone.ErrorProneError;
 import com.google.errorprone.ErrorProneOptions;
+import com.google.errorprone.ReusableVisitorState;
 import com.google.errorprone.SourcePositionException;
 import com.google.errorprone.SuppressionInfo.SuppressedState;
 import com.google.errorprone.VisitorState;
@@ -91,6 +94,7 @@ import com.google.errorprone.bugpatterns.BugChecker.VariableTreeMatcher;
 import com.google.errorprone.bugpatterns.BugChecker.WhileLoopTreeMatcher;
 import com.google.errorprone.bugpatterns.BugChecker.WildcardTreeMatcher;
 import com.google.errorprone.bugpatterns.BugChecker.YieldTreeMatcher;
+import com.google.errorprone.fixes.ErrorProneEndPosTable;
 import com.google.errorprone.matchers.Description;
 import com.google.errorprone.matchers.Suppressible;
 import com.google.errorprone.util.ASTHelpers;
@@ -145,6 +149,7 @@ import com.sun.source.tree.PrimitiveTypeTree;
 import com.sun.source.tree.ProvidesTree;
 import com.sun.source.tree.RequiresTree;
 import com.sun.source.tree.ReturnTree;
+import com.sun.source.tree.StatementTree;
 import com.sun.source.tree.SwitchExpressionTree;
 import com.sun.source.tree.SwitchTree;
 import com.sun.source.tree.SynchronizedTree;
@@ -171,6 +176,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.tools.JavaFileObject;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Scans the parsed AST, looking for violations of any of the enabled checks.
@@ -185,6 +191,28 @@ public class ErrorProneScanner extends Scanner {
   private final Map<String, SeverityLevel> severities;
   private final ImmutableSet<BugChecker> bugCheckers;
 
+  /** The checks which still run on trees outside the changed lines, see {@link ChangedLines}. */
+  private final ImmutableSet<BugChecker> unchangedLinesCheckers;
+
+  /** The changed lines of the current compilation unit, or {@code null} to analyze all lines. */
+  private @Nullable ImmutableRangeSet<Integer> changedLines;
+
+  /** Whether the current tree is entirely outside the changed lines. */
+  private boolean outsideChangedLines = false;
+
+  /**
+   * The state passed to checks when {@link ErrorProneOptions#reuseVisitorState} is set, which is
+   * moved to each tree in turn.
+   */
+  private @Nullable ReusableVisitorState reusableState;
+
+  /**
+   * When assertions are enabled, checks get a fresh view of {@link #reusableState} that expires
+   * once they return, see {@link ReusableVisitorState#lend}.
+   */
+  private static final boolean CHECK_REUSED_STATE_RETENTION =
+      ErrorProneScanner.class.desiredAssertionStatus();
+
   /**
    * Create an error-prone scanner for the given checkers.
    *
@@ -212,6 +240,10 @@ public class ErrorProneScanner extends Scanner {
   public ErrorProneScanner(Iterable<BugChecker> checkers, Map<String, SeverityLevel> severities) {
     this.bugCheckers = ImmutableSet.copyOf(checkers);
     this.severities = severities;
+    this.unchangedLinesCheckers =
+        bugCheckers.stream()
+            .filter(BugChecker::analyzesUnchangedLines)
+            .collect(ImmutableSet.toImmutableSet());
     ImmutableSet.Builder<Class<? extends Annotation>> annotationClassesBuilder =
         ImmutableSet.builder();
     for (BugChecker checker : this.bugCheckers) {
@@ -527,9 +559,15 @@ public class ErrorProneScanner extends Scanner {
   private <M extends Suppressible, T extends Tree> VisitorState processMatchers(
       Iterable<M> matchers, T tree, TreeProcessor<M, T> processingFunction, VisitorState oldState) {
     ErrorProneOptions errorProneOptions = oldState.errorProneOptions();
+    if (errorProneOptions.reuseVisitorState()) {
+      return processMatchersReusingState(matchers, tree, processingFunction, oldState);
+    }
     // A VisitorState with our new path, but without mentioning the suppression of any matcher.
     VisitorState newState = oldState.withPath(getCurrentPath());
     for (M matcher : matchers) {
+      if (outsideChangedLines && !unchangedLinesCheckers.contains(matcher)) {
+        continue;
+      }
       SuppressedState suppressed = isSuppressed(matcher, errorProneOptions, newState);
       // If the ErrorProneOptions say to visit suppressed code, we still visit it
       if (suppressed == SuppressedState.UNSUPPRESSED
@@ -548,6 +586,75 @@ public class ErrorProneScanner extends Scanner {
     return newState;
   }
 
+  /**
+   * Like {@link #processMatchers}, but moves a single reusable state to each tree and check rather
+   * than allocating new ones. The reusable state is also what's passed down to the children of the
+   * tree, which move it on in turn.
+   */
+  private <M extends Suppressible, T extends Tree> VisitorState processMatchersReusingState(
+      Iterable<M> matchers, T tree, TreeProcessor<M, T> processingFunction, VisitorState oldState) {
+    ErrorProneOptions errorProneOptions = oldState.errorProneOptions();
+    if (reusableState == null || oldState != reusableState.state()) {
+      // the first tree of a new scan
+      reusableState = new ReusableVisitorState(oldState, CHECK_REUSED_STATE_RETENTION);
+    }
+    TreePath path = getCurrentPath();
+    VisitorState state = reusableState.moveTo(path, SuppressedState.UNSUPPRESSED);
+    for (M matcher : matchers) {
+      if (outsideChangedLines && !unchangedLinesCheckers.contains(matcher)) {
+        continue;
+      }
+      SuppressedState suppressed = isSuppressed(matcher, errorProneOptions, state);
+      // If the ErrorProneOptions say to visit suppressed code, we still visit it
+      if (suppressed == SuppressedState.UNSUPPRESSED
+          || errorProneOptions.isIgnoreSuppressionAnnotations()) {
+        reusableState.moveTo(path, suppressed);
+        VisitorState matcherState = reusableState.lend();
+        try (AutoCloseable unused = oldState.timingSpan(matcher)) {
+          reportMatch(processingFunction.process(matcher, tree, matcherState), matcherState);
+        } catch (Exception | AssertionError t) {
+          handleError(matcher, t);
+        } finally {
+          reusableState.reclaim(matcherState);
+        }
+        reusableState.moveTo(path, SuppressedState.UNSUPPRESSED);
+      }
+    }
+    return state;
+  }
+
+  /**
+   * Skips class members and statements which are entirely outside the changed lines, or only runs
+   * the checks which asked to see them.
+   */
+  @Override
+  public Void scan(Tree tree, VisitorState state) {
+    if (reusableState != null && state == reusableState.state() && getCurrentPath() != null) {
+      // The reusable state was left at the last tree visited, which may be a sibling of this one or
+      // one of its descendants, but suppressions are updated for this tree with its parent's state.
+      reusableState.moveTo(getCurrentPath(), SuppressedState.UNSUPPRESSED);
+    }
+    if (changedLines == null
+        || outsideChangedLines
+        || !(tree instanceof StatementTree || tree instanceof MethodTree)
+        || ChangedLines.intersects(
+            changedLines,
+            getCurrentPath().getCompilationUnit().getLineMap(),
+            ASTHelpers.getStartPosition(tree),
+            ErrorProneEndPosTable.getEndPosition(tree, getCurrentPath().getCompilationUnit()))) {
+      return super.scan(tree, state);
+    }
+    if (unchangedLinesCheckers.isEmpty()) {
+      return null;
+    }
+    outsideChangedLines = true;
+    try {
+      return super.scan(tree, state);
+    } finally {
+      outsideChangedLines = false;
+    }
+  }
+
   @Override
   public Void visitAnnotation(AnnotationTree tree, VisitorState visitorState) {
     VisitorState state =
@@ -653,6 +760,12 @@ public class ErrorProneScanner extends Scanner {
 
   @Override
   public Void visitCompilationUnit(CompilationUnitTree tree, VisitorState visitorState) {
+    ErrorProneOptions errorProneOptions = visitorState.errorProneOptions();
+    changedLines =
+        errorProneOptions.changedLines().isPresent()
+            ? errorProneOptions.changedLines().get().forCompilationUnit(tree)
+            : null;
+    outsideChangedLines = false;
 
     VisitorState state =
         processMatchers(
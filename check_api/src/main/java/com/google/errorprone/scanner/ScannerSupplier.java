@@ -132,6 +132,7 @@ public abstract class ScannerSupplier implements Supplier<Scanner> {
    *   <li>Disable a check that is currently on
    *   <li>Change the severity of a check that is on, promoting a warning to an error or demoting an
    *       error to a warning
+   *   <li>Restrict the enabled checks to those in a shard
    * </ul>
    *
    * @param errorProneOptions an {@link ErrorProneOptions} object that encapsulates the overrides
@@ -148,7 +149,8 @@ public abstract class ScannerSupplier implements Supplier<Scanner> {
         && !errorProneOptions.isDropErrorsToWarnings()
         && !errorProneOptions.isDisableAllChecks()
         && !errorProneOptions.isDisableAllWarnings()
-        && !errorProneOptions.isSuggestionsAsWarnings()) {
+        && !errorProneOptions.isSuggestionsAsWarnings()
+        && !errorProneOptions.shard().isPresent()) {
       return this;
     }
 
@@ -234,6 +236,13 @@ public abstract class ScannerSupplier implements Supplier<Scanner> {
           }
         });
 
+    // Only run this shard's share of the checks that would otherwise be enabled.
+    if (errorProneOptions.shard().isPresent()) {
+      ImmutableSet<String> enabled = Sets.difference(checks.keySet(), disabled).immutableCopy();
+      ImmutableSet<String> selected = errorProneOptions.shard().get().select(enabled);
+      disabled.addAll(Sets.difference(enabled, selected));
+    }
+
     flagsMap.putAll(errorProneOptions.getFlags().getFlagsMap());
 
     return new ScannerSupplierImpl(
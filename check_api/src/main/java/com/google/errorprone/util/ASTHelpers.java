@@ -146,9 +146,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -328,7 +330,7 @@ public final class ASTHelpers {
    */
   public static boolean canBeRemoved(Symbol symbol, VisitorState state) {
     if (symbol instanceof MethodSymbol methodSymbol
-        && !findSuperMethods(methodSymbol, state.getTypes()).isEmpty()) {
+        && !findSuperMethods(methodSymbol, state).isEmpty()) {
       return false;
     }
     return isEffectivelyPrivate(symbol);
@@ -716,6 +718,16 @@ public final class ASTHelpers {
     return streamSuperMethods(methodSymbol, types).collect(toCollection(LinkedHashSet::new));
   }
 
+  /**
+   * Finds supermethods of {@code methodSymbol}, not including {@code methodSymbol} itself, and
+   * including interfaces.
+   *
+   * <p>The super methods of each method are only computed once per compilation.
+   */
+  public static Set<MethodSymbol> findSuperMethods(MethodSymbol methodSymbol, VisitorState state) {
+    return streamSuperMethods(methodSymbol, state).collect(toCollection(LinkedHashSet::new));
+  }
+
   /** See {@link #findSuperMethods(MethodSymbol, Types)}. */
   public static Stream<MethodSymbol> streamSuperMethods(MethodSymbol methodSymbol, Types types) {
     TypeSymbol owner = (TypeSymbol) methodSymbol.owner;
@@ -724,6 +736,24 @@ public final class ASTHelpers {
         .filter(Objects::nonNull);
   }
 
+  /** See {@link #findSuperMethods(MethodSymbol, VisitorState)}. */
+  public static Stream<MethodSymbol> streamSuperMethods(
+      MethodSymbol methodSymbol, VisitorState state) {
+    return SUPER_METHODS
+        .get(state)
+        .computeIfAbsent(
+            methodSymbol, m -> streamSuperMethods(m, state.getTypes()).collect(toImmutableList()))
+        .stream();
+  }
+
+  /**
+   * The super methods of each method that has been looked up in the current compilation. Many
+   * checks ask for the super methods of the same methods, so they're only computed for the methods
+   * that are asked about. The closure of each class is already cached by {@link Types#closure}.
+   */
+  private static final Supplier<Map<MethodSymbol, ImmutableList<MethodSymbol>>> SUPER_METHODS =
+      VisitorState.memoize(unusedState -> new HashMap<>());
+
   /**
    * Finds all methods in any superclass of {@code startClass} with a certain {@code name} that
    * match the given {@code predicate}.
@@ -845,14 +875,14 @@ public final class ASTHelpers {
     // normalize to non-binary names
     annotationClass = annotationClass.replace('$', '.');
     Name annotationName = state.getName(annotationClass);
-    if (hasAttribute(sym, annotationName)) {
+    if (directAnnotations(sym, state).qualifiedNames().contains(annotationName)) {
       return true;
     }
     if (sym instanceof ClassSymbol cs && isInherited(state, annotationClass)) {
       for (sym = cs.getSuperclass().tsym;
           sym instanceof ClassSymbol cs2;
           sym = cs2.getSuperclass().tsym) {
-        if (hasAttribute(sym, annotationName)) {
+        if (directAnnotations(sym, state).qualifiedNames().contains(annotationName)) {
           return true;
         }
       }
@@ -938,13 +968,49 @@ public final class ASTHelpers {
     return isInherited(state, state.binaryNameFromClassname(annotationName));
   }
 
-  private static boolean hasAttribute(Symbol sym, Name annotationName) {
-    for (Compound a : sym.getRawAttributes()) {
-      if (a.type.tsym.getQualifiedName().equals(annotationName)) {
-        return true;
+  /**
+   * The interned names of the annotations directly present on a symbol.
+   *
+   * @param qualifiedNames the annotations' canonical names, e.g. "com.google.Foo.Bar"
+   * @param flatNames the annotations' binary names, e.g. "com.google.Foo$Bar"
+   * @param generated whether any of the annotations is named {@code Generated}
+   */
+  private record DirectAnnotations(
+      ImmutableSet<Name> qualifiedNames, ImmutableSet<Name> flatNames, boolean generated) {
+    static final DirectAnnotations NONE =
+        new DirectAnnotations(ImmutableSet.of(), ImmutableSet.of(), false);
+  }
+
+  /**
+   * The annotations of every symbol whose annotations have been asked about in the current
+   * compilation. Checks look for annotations on the same symbols over and over again, and
+   * annotations can't change once the symbols have been attributed.
+   */
+  private static final Supplier<Map<Symbol, DirectAnnotations>> DIRECT_ANNOTATIONS =
+      VisitorState.memoize(unused -> new HashMap<>());
+
+  private static DirectAnnotations directAnnotations(Symbol sym, VisitorState state) {
+    Map<Symbol, DirectAnnotations> index = DIRECT_ANNOTATIONS.get(state);
+    DirectAnnotations annotations = index.get(sym);
+    if (annotations == null) {
+      List<Compound> attributes = sym.getRawAttributes();
+      if (attributes.isEmpty()) {
+        annotations = DirectAnnotations.NONE;
+      } else {
+        ImmutableSet.Builder<Name> qualifiedNames = ImmutableSet.builder();
+        ImmutableSet.Builder<Name> flatNames = ImmutableSet.builder();
+        boolean generated = false;
+        for (Compound a : attributes) {
+          TypeSymbol annotationType = a.type.tsym;
+          qualifiedNames.add(annotationType.getQualifiedName());
+          flatNames.add(annotationType.flatName());
+          generated |= annotationType.getSimpleName().contentEquals("Generated");
+        }
+        annotations = new DirectAnnotations(qualifiedNames.build(), flatNames.build(), generated);
       }
+      index.put(sym, annotations);
     }
-    return false;
+    return annotations;
   }
 
   /**
@@ -960,7 +1026,7 @@ public final class ASTHelpers {
     if (sym == null) {
       return ImmutableSet.of();
     }
-    Set<Name> result = directAnnotationsAmong(sym, annotationClasses);
+    Set<Name> result = directAnnotationsAmong(sym, annotationClasses, state);
     if (!(sym instanceof ClassSymbol)) {
       return result;
     }
@@ -973,7 +1039,7 @@ public final class ASTHelpers {
     }
     sym = ((ClassSymbol) sym).getSuperclass().tsym;
     while (sym instanceof ClassSymbol && !possibleInherited.isEmpty()) {
-      for (Name local : directAnnotationsAmong(sym, possibleInherited)) {
+      for (Name local : directAnnotationsAmong(sym, possibleInherited, state)) {
         result.add(local);
         possibleInherited.remove(local);
       }
@@ -987,10 +1053,9 @@ public final class ASTHelpers {
    * add inherited annotations.
    */
   private static Set<Name> directAnnotationsAmong(
-      Symbol sym, Set<? extends Name> binaryAnnotationNames) {
+      Symbol sym, Set<? extends Name> binaryAnnotationNames, VisitorState state) {
     Set<Name> result = new HashSet<>();
-    for (Compound a : sym.getRawAttributes()) {
-      Name annoName = a.type.tsym.flatName();
+    for (Name annoName : directAnnotations(sym, state).flatNames()) {
       if (binaryAnnotationNames.contains(annoName)) {
         result.add(annoName);
       }
@@ -1647,7 +1712,9 @@ public final class ASTHelpers {
   public static ImmutableSet<String> getGeneratedBy(VisitorState state) {
     return stream(state.getPath())
         .filter(ClassTree.class::isInstance)
-        .flatMap(enclosing -> getGeneratedBy(getSymbol(enclosing)).stream())
+        .map(enclosing -> getSymbol(enclosing))
+        .filter(symbol -> directAnnotations(symbol, state).generated())
+        .flatMap(symbol -> getGeneratedBy(symbol).stream())
         .collect(toImmutableSet());
   }
 
@@ -1974,7 +2041,7 @@ public final class ASTHelpers {
     }
 
     // don't match overrides (even "effective overrides")
-    if (!findSuperMethods(method, state.getTypes()).isEmpty()) {
+    if (!findSuperMethods(method, state).isEmpty()) {
       return false;
     }
     return true;
@@ -26,6 +26,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.google.errorprone.VisitorState;
+import com.google.errorprone.suppliers.Supplier;
 import com.sun.source.tree.BinaryTree;
 import com.sun.source.tree.BlockTree;
 import com.sun.source.tree.CatchTree;
@@ -77,7 +78,9 @@ import com.sun.tools.javac.util.Name;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiPredicate;
@@ -97,35 +100,84 @@ public final class FindIdentifiers {
   /** Finds a declaration with the given name and type that is in scope at the current location. */
   public static @Nullable Symbol findIdent(String name, VisitorState state, KindSelector kind) {
     ClassType enclosingClass = ASTHelpers.getType(getEnclosingClass(state.getPath()));
-    Env<AttrContext> env;
+    EnvKey envKey;
     if (enclosingClass == null || enclosingClass.tsym == null) {
-      env =
-          Enter.instance(state.context)
-              .getTopLevelEnv((JCCompilationUnit) state.getPath().getCompilationUnit());
+      envKey = new EnvKey(state.getPath().getCompilationUnit(), null);
     } else {
-      env = Enter.instance(state.context).getClassEnv(enclosingClass.tsym);
-      MethodTree enclosingMethod = state.findEnclosing(MethodTree.class);
-      if (enclosingMethod != null) {
-        env = MemberEnter.instance(state.context).getMethodEnv((JCMethodDecl) enclosingMethod, env);
+      envKey = new EnvKey(enclosingClass.tsym, state.findEnclosing(MethodTree.class));
+    }
+    // The environments and lookups only depend on the enclosing class and method, so they're
+    // shared by all the queries made from within the same method.
+    Map<IdentKey, Symbol> idents = IDENTS.get(state);
+    IdentKey identKey = new IdentKey(envKey, state.getName(name), kind);
+    Symbol result = idents.get(identKey);
+    if (result == null) {
+      try {
+        result = findIdent(identKey.name(), state, kind, env(envKey, state));
+      } catch (ReflectiveOperationException e) {
+        throw new LinkageError(e.getMessage(), e);
       }
+      idents.put(identKey, result);
+    }
+    return result.exists() ? result : null;
+  }
+
+  /**
+   * Identifies the environment that names are resolved in: either a compilation unit, or a class
+   * and the method enclosing the current location, if any.
+   */
+  private record EnvKey(Object scope, @Nullable MethodTree enclosingMethod) {}
+
+  private record IdentKey(EnvKey env, Name name, KindSelector kind) {}
+
+  private static final Supplier<Map<IdentKey, Symbol>> IDENTS =
+      VisitorState.memoize(unused -> new HashMap<>());
+
+  private static final Supplier<Map<EnvKey, Env<AttrContext>>> ENVS =
+      VisitorState.memoize(unused -> new HashMap<>());
+
+  private static Env<AttrContext> env(EnvKey key, VisitorState state) {
+    Map<EnvKey, Env<AttrContext>> envs = ENVS.get(state);
+    Env<AttrContext> env = envs.get(key);
+    if (env != null) {
+      return env;
     }
-    try {
-      Symbol result = findIdent(name, state, kind, env);
-      return result.exists() ? result : null;
-    } catch (ReflectiveOperationException e) {
-      throw new LinkageError(e.getMessage(), e);
+    if (key.scope() instanceof TypeSymbol enclosingClass) {
+      env = Enter.instance(state.context).getClassEnv(enclosingClass);
+      if (key.enclosingMethod() != null) {
+        env =
+            MemberEnter.instance(state.context)
+                .getMethodEnv((JCMethodDecl) key.enclosingMethod(), env);
+      }
+    } else {
+      env = Enter.instance(state.context).getTopLevelEnv((JCCompilationUnit) key.scope());
+    }
+    envs.put(key, env);
+    return env;
+  }
+
+  /** Holds the private {@code Resolve.findIdent} method, which is only looked up once. */
+  private static final class ResolveFindIdent {
+    static final Method METHOD = lookup();
+
+    private static Method lookup() {
+      try {
+        Method method =
+            Resolve.class.getDeclaredMethod(
+                "findIdent", DiagnosticPosition.class, Env.class, Name.class, KindSelector.class);
+        method.setAccessible(true);
+        return method;
+      } catch (NoSuchMethodException e) {
+        throw new LinkageError(e.getMessage(), e);
+      }
     }
   }
 
   private static Symbol findIdent(
-      String name, VisitorState state, KindSelector kind, Env<AttrContext> env)
-      throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
-    Method method =
-        Resolve.class.getDeclaredMethod(
-            "findIdent", DiagnosticPosition.class, Env.class, Name.class, KindSelector.class);
-    method.setAccessible(true);
+      Name name, VisitorState state, KindSelector kind, Env<AttrContext> env)
+      throws IllegalAccessException, InvocationTargetException {
     return (Symbol)
-        method.invoke(Resolve.instance(state.context), null, env, state.getName(name), kind);
+        ResolveFindIdent.METHOD.invoke(Resolve.instance(state.context), null, env, name, kind);
   }
 
   private static @Nullable ClassTree getEnclosingClass(TreePath treePath) {
@@ -223,21 +275,7 @@ public final class FindIdentifiers {
             addIfVariable(member, result);
           }
 
-          // Collect inherited fields.
-          Type classType = ASTHelpers.getType(curr);
-          List<Type> classTypeClosure = state.getTypes().closure(classType);
-          List<Type> superTypes =
-              classTypeClosure.size() <= 1
-                  ? Collections.emptyList()
-                  : classTypeClosure.subList(1, classTypeClosure.size());
-          for (Type type : superTypes) {
-            Scope scope = type.tsym.members();
-            ImmutableList.Builder<VarSymbol> varsList = ImmutableList.builder();
-            for (Symbol var : scope.getSymbols(VarSymbol.class::isInstance)) {
-              varsList.add((VarSymbol) var);
-            }
-            result.addAll(varsList.build().reverse());
-          }
+          result.addAll(inheritedFields(classTree, state));
         }
         case ForLoopTree forLoopTree -> addAllIfVariable(forLoopTree.getInitializer(), result);
         case EnhancedForLoopTree enhancedForLoopTree ->
@@ -281,27 +319,8 @@ public final class FindIdentifiers {
                 conditionalExpressionTree.getCondition(), result, /* startNegated= */ true);
           }
         }
-        case CompilationUnitTree compilationUnitTree -> {
-          for (ImportTree importTree : compilationUnitTree.getImports()) {
-            if (importTree.isStatic()
-                && importTree.getQualifiedIdentifier()
-                    instanceof MemberSelectTree memberSelectTree) {
-              Scope scope =
-                  state
-                      .getTypes()
-                      .membersClosure(
-                          ASTHelpers.getType(memberSelectTree.getExpression()),
-                          /* skipInterface= */ false);
-              for (Symbol var :
-                  scope.getSymbols(
-                      sym ->
-                          sym instanceof VarSymbol
-                              && sym.getSimpleName().equals(memberSelectTree.getIdentifier()))) {
-                result.add((VarSymbol) var);
-              }
-            }
-          }
-        }
+        case CompilationUnitTree compilationUnitTree ->
+            result.addAll(staticallyImportedFields(compilationUnitTree, state));
         default -> {
           // other node types don't introduce variables
         }
@@ -310,11 +329,88 @@ public final class FindIdentifiers {
       prev = curr;
     }
 
+    Location location = new Location(state.getPath());
     return result.build().stream()
-        .filter(variable -> isVisible(variable, state.getPath()))
+        .filter(variable -> isVisible(variable, location))
         .collect(toImmutableSet());
   }
 
+  /*
+   * The identifiers contributed by classes and compilation units don't depend on where in them a
+   * query is made, so they're computed once per compilation and shared by all queries. Those of
+   * blocks, methods, lambdas, etc. are found by walking up from the query to the enclosing class,
+   * which is cheap since only the statements before the query are visited.
+   */
+
+  private static final Supplier<Map<ClassSymbol, ImmutableList<VarSymbol>>> INHERITED_FIELDS =
+      VisitorState.memoize(unused -> new HashMap<>());
+
+  private static final Supplier<Map<CompilationUnitTree, ImmutableList<VarSymbol>>>
+      STATICALLY_IMPORTED_FIELDS = VisitorState.memoize(unused -> new HashMap<>());
+
+  /**
+   * The fields inherited by the given class, ordered by ascending distance from the class, and then
+   * by reverse declaration order.
+   */
+  private static ImmutableList<VarSymbol> inheritedFields(ClassTree tree, VisitorState state) {
+    ClassSymbol sym = ASTHelpers.getSymbol(tree);
+    Map<ClassSymbol, ImmutableList<VarSymbol>> cache = INHERITED_FIELDS.get(state);
+    ImmutableList<VarSymbol> fields = cache.get(sym);
+    if (fields != null) {
+      return fields;
+    }
+    ImmutableList.Builder<VarSymbol> builder = ImmutableList.builder();
+    List<Type> classTypeClosure = state.getTypes().closure(sym.type);
+    List<Type> superTypes =
+        classTypeClosure.size() <= 1
+            ? Collections.emptyList()
+            : classTypeClosure.subList(1, classTypeClosure.size());
+    for (Type type : superTypes) {
+      Scope scope = type.tsym.members();
+      ImmutableList.Builder<VarSymbol> varsList = ImmutableList.builder();
+      for (Symbol var : scope.getSymbols(VarSymbol.class::isInstance)) {
+        varsList.add((VarSymbol) var);
+      }
+      builder.addAll(varsList.build().reverse());
+    }
+    fields = builder.build();
+    cache.put(sym, fields);
+    return fields;
+  }
+
+  /** The fields imported by the single-static-import declarations of a compilation unit. */
+  private static ImmutableList<VarSymbol> staticallyImportedFields(
+      CompilationUnitTree tree, VisitorState state) {
+    Map<CompilationUnitTree, ImmutableList<VarSymbol>> cache =
+        STATICALLY_IMPORTED_FIELDS.get(state);
+    ImmutableList<VarSymbol> fields = cache.get(tree);
+    if (fields != null) {
+      return fields;
+    }
+    ImmutableList.Builder<VarSymbol> builder = ImmutableList.builder();
+    for (ImportTree importTree : tree.getImports()) {
+      if (importTree.isStatic()
+          && importTree.getQualifiedIdentifier() instanceof MemberSelectTree memberSelectTree) {
+        Scope scope =
+            state
+                .getTypes()
+                .membersClosure(
+                    ASTHelpers.getType(memberSelectTree.getExpression()),
+                    /* skipInterface= */ false);
+        for (Symbol var :
+            scope.getSymbols(
+                sym ->
+                    sym instanceof VarSymbol
+                        && sym.getSimpleName().equals(memberSelectTree.getIdentifier()))) {
+          builder.add((VarSymbol) var);
+        }
+      }
+    }
+    fields = builder.build();
+    cache.put(tree, fields);
+    return fields;
+  }
+
   private static void findBindingVariables(
       Tree tree, ImmutableSet.Builder<VarSymbol> result, boolean startNegated) {
     new SimpleTreeVisitor<Void, Void>() {
@@ -405,6 +501,7 @@ public final class FindIdentifiers {
 
   /** Finds all the visible fields declared or inherited in the target class */
   public static ImmutableList<VarSymbol> findAllFields(Type classType, VisitorState state) {
+    Location location = new Location(state.getPath());
     return state.getTypes().closure(classType).stream()
         .flatMap(
             type -> {
@@ -420,7 +517,7 @@ public final class FindIdentifiers {
                   .reverse()
                   .stream()
                   .map(v -> (VarSymbol) v)
-                  .filter(v -> isVisible(v, state.getPath()));
+                  .filter(v -> isVisible(v, location));
             })
         .collect(toImmutableList());
   }
@@ -463,19 +560,46 @@ public final class FindIdentifiers {
     };
   }
 
-  private static boolean isVisible(VarSymbol var, TreePath path) {
-    switch (var.getKind()) {
-      case ENUM_CONSTANT, FIELD -> {
-        ImmutableList<ClassSymbol> enclosingClasses =
+  /**
+   * The location that variables are checked for visibility from, with the facts about it that don't
+   * depend on the variable computed at most once.
+   */
+  private static final class Location {
+    private final TreePath path;
+    private @Nullable ImmutableList<ClassSymbol> enclosingClasses;
+    private @Nullable Boolean inStaticContext;
+
+    Location(TreePath path) {
+      this.path = path;
+    }
+
+    ImmutableList<ClassSymbol> enclosingClasses() {
+      if (enclosingClasses == null) {
+        enclosingClasses =
             StreamSupport.stream(path.spliterator(), false)
                 .filter(ClassTree.class::isInstance)
                 .map(ClassTree.class::cast)
                 .map(ASTHelpers::getSymbol)
                 .collect(toImmutableList());
+      }
+      return enclosingClasses;
+    }
 
+    boolean inStaticContext() {
+      if (inStaticContext == null) {
+        inStaticContext = FindIdentifiers.inStaticContext(path);
+      }
+      return inStaticContext;
+    }
+  }
+
+  private static boolean isVisible(VarSymbol var, Location location) {
+    TreePath path = location.path;
+    switch (var.getKind()) {
+      case ENUM_CONSTANT, FIELD -> {
         if (!var.isStatic()) {
           // Instance fields are not visible if we are in a static context...
-          if (inStaticContext(path)) {
+          if (location.inStaticContext()) {
             return false;
           }
 
@@ -495,7 +619,7 @@ public final class FindIdentifiers {
 
         // If we're lexically enclosed by the same class that defined var, we can access private
         // fields (JLS 6.6.1).
-        if (enclosingClasses.contains(ASTHelpers.enclosingClass(var))) {
+        if (location.enclosingClasses().contains(ASTHelpers.enclosingClass(var))) {
           return true;
         }
 
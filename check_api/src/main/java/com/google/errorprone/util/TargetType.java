@@ -542,8 +542,7 @@ public record TargetType(Type type, TreePath path) {
       // type of `foo` to be the supermost overload of `bar` which returns something on which we can
       // actually call `baz`, hence the recursion.
       ImmutableSet<MethodSymbol> superMethods =
-          Stream.concat(Stream.of(ms), streamSuperMethods(ms, state.getTypes()))
-              .collect(toImmutableSet());
+          Stream.concat(Stream.of(ms), streamSuperMethods(ms, state)).collect(toImmutableSet());
 
       // Performance win: if there are no covariant return types to worry about, fast-path out.
       var superMethodReturnTypes =
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Range;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** {@link ChangedLines}Test */
+@RunWith(JUnit4.class)
+public class ChangedLinesTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void load() throws IOException {
+    ChangedLines changedLines =
+        load(
+            """
+            # a comment
+
+            src/Foo.java:3-7, 12
+            src/Foo.java:20
+            win\\Bar.java:1
+            """);
+
+    assertThat(changedLines.forPath("/root/src/Foo.java"))
+        .isEqualTo(
+            ImmutableRangeSet.<Integer>builder()
+                .add(Range.closed(3, 7))
+                .add(Range.closed(12, 12))
+                .add(Range.closed(20, 20))
+                .build());
+    assertThat(changedLines.forPath("src/Foo.java")).isNotNull();
+    assertThat(changedLines.forPath("C:\\root\\win\\Bar.java"))
+        .isEqualTo(ImmutableRangeSet.of(Range.closed(1, 1)));
+    assertThat(changedLines.forPath("/root/other/Foo.java")).isNull();
+    assertThat(changedLines.forPath("/root/src/NotFoo.java")).isNull();
+  }
+
+  @Test
+  public void load_invalidEntries() throws IOException {
+    assertThat(assertInvalid("Foo.java")).hasMessageThat().contains("invalid changed lines entry");
+    assertThat(assertInvalid(":3")).hasMessageThat().contains("invalid changed lines entry");
+    assertThat(assertInvalid("Foo.java:7-3")).hasMessageThat().contains("Foo.java:7-3");
+    assertThat(assertInvalid("Foo.java:1-2-3")).hasMessageThat().contains("Foo.java:1-2-3");
+    InvalidCommandLineOptionException e = assertInvalid("Foo.java:one");
+    assertThat(e).hasMessageThat().contains("invalid line number");
+    assertThat(e).hasCauseThat().isInstanceOf(NumberFormatException.class);
+  }
+
+  @Test
+  public void load_missingFile() {
+    Path missing = temporaryFolder.getRoot().toPath().resolve("missing.txt");
+    InvalidCommandLineOptionException e =
+        assertThrows(InvalidCommandLineOptionException.class, () -> ChangedLines.load(missing));
+    assertThat(e).hasMessageThat().contains(missing.toString());
+    assertThat(e).hasCauseThat().isInstanceOf(NoSuchFileException.class);
+  }
+
+  private InvalidCommandLineOptionException assertInvalid(String contents) throws IOException {
+    Path path = temporaryFolder.newFile().toPath();
+    Files.writeString(path, contents, UTF_8);
+    return assertThrows(InvalidCommandLineOptionException.class, () -> ChangedLines.load(path));
+  }
+
+  private ChangedLines load(String contents) throws IOException {
+    Path path = temporaryFolder.newFile().toPath();
+    Files.writeString(path, contents, UTF_8);
+    return ChangedLines.load(path);
+  }
+}
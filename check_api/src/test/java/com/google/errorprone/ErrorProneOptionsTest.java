@@ -30,6 +30,7 @@ import com.google.errorprone.apply.ImportOrganizer;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -198,6 +199,14 @@ public class ErrorProneOptionsTest {
     assertThat(options.isIgnoreSuppressionAnnotations()).isTrue();
   }
 
+  @Test
+  public void recognizesReuseVisitorState() {
+    ErrorProneOptions options =
+        ErrorProneOptions.processArgs(new String[] {"-XepReuseVisitorState"});
+    assertThat(options.reuseVisitorState()).isTrue();
+    assertThat(ErrorProneOptions.empty().reuseVisitorState()).isFalse();
+  }
+
   @Test
   public void recognizesExcludedPaths() {
     ErrorProneOptions options =
@@ -308,6 +317,29 @@ public class ErrorProneOptionsTest {
         .isSameInstanceAs(ImportOrganizer.ANDROID_STATIC_LAST_ORGANIZER);
   }
 
+  @Test
+  public void patchRounds() {
+    ErrorProneOptions options =
+        ErrorProneOptions.processArgs(
+            new String[] {"-XepPatchLocation:IN_PLACE", "-XepPatchRounds:3"});
+    assertThat(options.patchingOptions().maxRounds()).isEqualTo(3);
+    assertThat(options.patchingOptions().iterateToFixpoint()).isTrue();
+
+    options = ErrorProneOptions.processArgs(new String[] {"-XepPatchLocation:IN_PLACE"});
+    assertThat(options.patchingOptions().maxRounds()).isEqualTo(1);
+    assertThat(options.patchingOptions().iterateToFixpoint()).isFalse();
+  }
+
+  @Test
+  public void throwsExceptionWithBadPatchRounds() {
+    assertThrows(
+        InvalidCommandLineOptionException.class,
+        () -> ErrorProneOptions.processArgs(new String[] {"-XepPatchRounds:0"}));
+    assertThrows(
+        InvalidCommandLineOptionException.class,
+        () -> ErrorProneOptions.processArgs(new String[] {"-XepPatchRounds:many"}));
+  }
+
   @Test
   public void noSuchXepFlag() {
     assertThrows(
@@ -445,4 +477,30 @@ public class ErrorProneOptionsTest {
         InvalidCommandLineOptionException.class,
         () -> ErrorProneOptions.processArgs(new String[] {"@test_cfg_is_missing.cfg"}));
   }
+
+  @Test
+  public void recognizesShard() {
+    ErrorProneOptions options = ErrorProneOptions.processArgs(new String[] {"-XepShard:1/3"});
+    assertThat(options.shard().get().index()).isEqualTo(1);
+    assertThat(options.shard().get().count()).isEqualTo(3);
+    assertThat(ErrorProneOptions.processArgs(new String[] {}).shard().isPresent()).isFalse();
+  }
+
+  @Test
+  public void recognizesDiagnosticsOutput() {
+    ErrorProneOptions options =
+        ErrorProneOptions.processArgs(new String[] {"-XepDiagnosticsOutput:out/findings.sarif"});
+    assertThat(options.diagnosticsOutput().get()).isEqualTo(Path.of("out/findings.sarif"));
+    assertThat(ErrorProneOptions.processArgs(new String[] {}).diagnosticsOutput().isPresent())
+        .isFalse();
+  }
+
+  @Test
+  public void malformedShardThrowsProperException() {
+    for (String arg : ImmutableList.of("-XepShard:3/3", "-XepShard:1", "-XepShard:a/b")) {
+      assertThrows(
+          InvalidCommandLineOptionException.class,
+          () -> ErrorProneOptions.processArgs(new String[] {arg}));
+    }
+  }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** {@link ShardOutputMerger}Test */
+@RunWith(JUnit4.class)
+public class ShardOutputMergerTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+  @Test
+  public void mergesPatches() throws IOException {
+    Path root = temporaryFolder.newFolder("root").toPath();
+    Files.writeString(root.resolve("A.java"), lines("a", "b", "c", "d", "e", "f", "g", "h"), UTF_8);
+    Path shard0 =
+        shard(
+            "shard0",
+            ShardOutputMerger.PATCH_FILE,
+            "--- A.java",
+            "+++ A.java",
+            "@@ -1,3 +1,3 @@",
+            "-a",
+            "+A",
+            " b",
+            " c");
+    Path shard1 =
+        shard(
+            "shard1",
+            ShardOutputMerger.PATCH_FILE,
+            "--- A.java",
+            "+++ A.java",
+            "@@ -6,3 +6,3 @@",
+            " f",
+            "-g",
+            "+G",
+            " h");
+    Path shard2 =
+        shard(
+            "shard2",
+            ShardOutputMerger.PATCH_FILE,
+            "--- A.java",
+            "+++ A.java",
+            "@@ -1,2 +1,2 @@",
+            "-a",
+            "+X",
+            " b");
+
+    String merged = merger(root).mergePatches(ImmutableList.of(shard0, shard1, shard2));
+
+    assertThat(merged).contains("+A\n");
+    assertThat(merged).contains("+G\n");
+    assertThat(merged).doesNotContain("+X");
+    assertThat(err.toString(UTF_8)).contains("conflicting changes");
+  }
+
+  @Test
+  public void mergesLogs() throws IOException {
+    Path shard0 =
+        shard(
+            "shard0",
+            ShardOutputMerger.LOG_FILE,
+            "B.java:3: warning: [Foo] foo",
+            "  foo();",
+            "     ^",
+            "A.java:7: error: [Bar] bar",
+            "  bar();",
+            "     ^",
+            "1 error",
+            "1 warning");
+    Path shard1 =
+        shard(
+            "shard1",
+            ShardOutputMerger.LOG_FILE,
+            "A.java:2: warning: [Baz] baz",
+            "  baz();",
+            "     ^",
+            "1 warning");
+
+    String merged =
+        merger(temporaryFolder.getRoot().toPath()).mergeLogs(ImmutableList.of(shard0, shard1));
+
+    assertThat(merged)
+        .isEqualTo(
+            lines(
+                "A.java:2: warning: [Baz] baz",
+                "  baz();",
+                "     ^",
+                "A.java:7: error: [Bar] bar",
+                "  bar();",
+                "     ^",
+                "B.java:3: warning: [Foo] foo",
+                "  foo();",
+                "     ^",
+                "1 error",
+                "2 warnings"));
+  }
+
+  private ShardOutputMerger merger(Path root) {
+    return new ShardOutputMerger(root, new PrintStream(err, true, UTF_8));
+  }
+
+  private Path shard(String name, String file, String... lines) throws IOException {
+    Path shard = temporaryFolder.newFolder(name).toPath();
+    Files.writeString(shard.resolve(file), lines(lines), UTF_8);
+    return shard;
+  }
+
+  private static String lines(String... lines) {
+    return Joiner.on('\n').join(lines) + "\n";
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone.names;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for LevenshteinEditDistance */
+@RunWith(JUnit4.class)
+public class LevenshteinEditDistanceTest {
+
+  @Test
+  public void levenshteinEditDistance_kitten() {
+    assertThat(LevenshteinEditDistance.getEditDistance("kitten", "sitting")).isEqualTo(3);
+    assertThat(LevenshteinEditDistance.getEditDistance("sitting", "kitten")).isEqualTo(3);
+  }
+
+  @Test
+  public void levenshteinEditDistance_ignoresCase() {
+    assertThat(LevenshteinEditDistance.getEditDistance("fooBar", "FOOBAR")).isEqualTo(5);
+    assertThat(
+            LevenshteinEditDistance.getEditDistance("fooBar", "FOOBAR", /* caseSensitive= */ false))
+        .isEqualTo(0);
+  }
+
+  @Test
+  public void levenshteinEditDistance_emptyOrWhitespace() {
+    assertThat(LevenshteinEditDistance.getEditDistance(" \t", "foo")).isEqualTo(3);
+    assertThat(LevenshteinEditDistance.getEditDistance("foo", "")).isEqualTo(3);
+  }
+
+  @Test
+  public void boundedEditDistance_matchesUnbounded_withinBound() {
+    String[] words = {"", "a", "ab", "abc", "kitten", "sitting", "mitten", "fooBar", "barFoo"};
+    for (String source : words) {
+      for (String target : words) {
+        int distance = LevenshteinEditDistance.getEditDistance(source, target);
+        for (int maxDistance = 0; maxDistance < 8; maxDistance++) {
+          assertThat(
+                  LevenshteinEditDistance.getEditDistance(
+                      source, target, /* caseSensitive= */ true, maxDistance))
+              .isEqualTo(Math.min(distance, maxDistance + 1));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void boundedEditDistance_longStrings() {
+    String source = "a".repeat(5000);
+    String target = "b".repeat(5000);
+
+    assertThat(
+            LevenshteinEditDistance.getEditDistance(
+                source, target, /* caseSensitive= */ true, /* maxDistance= */ 2))
+        .isEqualTo(3);
+    assertThat(LevenshteinEditDistance.getEditDistance(source, source + "b")).isEqualTo(1);
+  }
+}
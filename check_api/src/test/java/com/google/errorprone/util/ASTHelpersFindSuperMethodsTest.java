@@ -161,6 +161,27 @@ public final class ASTHelpersFindSuperMethodsTest extends CompilerBasedAbstractT
     assertThat(findSuperMethod(fooOfNorf)).isEqualTo(Optional.of(fooOfBaz));
   }
 
+  @Test
+  public void findSuperMethods_repeatedLookupsAgree() {
+    MethodSymbol fooOfNorf = scanner.getMethod("Norf", "foo");
+    MethodSymbol fooOfBaz = scanner.getMethod("Baz", "foo");
+    VisitorState state = scanner.getState();
+    ImmutableList<MethodSymbol> first = findSuperMethods(fooOfNorf);
+    assertThat(ASTHelpers.findSuperMethods(fooOfNorf, state))
+        .containsExactlyElementsIn(first)
+        .inOrder();
+    // A lookup for a method in the middle of the hierarchy doesn't affect the earlier result.
+    assertThat(ASTHelpers.findSuperMethods(fooOfBaz, state)).doesNotContain(fooOfBaz);
+    assertThat(ASTHelpers.findSuperMethods(fooOfNorf, state))
+        .containsExactlyElementsIn(first)
+        .inOrder();
+    // The returned sets are independent copies.
+    ASTHelpers.findSuperMethods(fooOfNorf, state).clear();
+    assertThat(ASTHelpers.findSuperMethods(fooOfNorf, state))
+        .containsExactlyElementsIn(first)
+        .inOrder();
+  }
+
   private ImmutableList<MethodSymbol> findSuperMethods(MethodSymbol method) {
     return ImmutableList.copyOf(ASTHelpers.findSuperMethods(method, getTypes()));
   }
@@ -458,6 +458,61 @@ public class ASTHelpersTest extends CompilerBasedAbstractTest {
     assertCompiles(scanner);
   }
 
+  @Test
+  public void inheritedInnerAnnotationType_annotationsAmong() {
+    writeFile(
+        "test/Lib.java",
+        """
+        package test;
+        import java.lang.annotation.Inherited;
+        public class Lib {
+          @Inherited
+          public @interface MyAnnotation {}
+        }
+        """);
+    writeFile(
+        "test/Super.java",
+        """
+        package test;
+        @Lib.MyAnnotation
+        @Deprecated
+        public class Super {}
+        """);
+    writeFile(
+        "test/Test.java",
+        """
+        package test;
+        public class Test extends Super {}
+        """);
+
+    TestScanner scanner =
+        new TestScanner() {
+          @Override
+          public Void visitClass(ClassTree tree, VisitorState state) {
+            if (tree.getSimpleName().contentEquals("Test")) {
+              Symbol sym = ASTHelpers.getSymbol(tree);
+              // Ask twice, so the second answer comes from the index.
+              for (int i = 0; i < 2; i++) {
+                assertThat(hasAnnotation(sym, "test.Lib$MyAnnotation", state)).isTrue();
+                assertThat(hasAnnotation(sym, "java.lang.Deprecated", state)).isFalse();
+                assertThat(
+                        ASTHelpers.annotationsAmong(
+                            sym,
+                            ImmutableSet.of(
+                                state.getName("test.Lib$MyAnnotation"),
+                                state.getName("java.lang.Deprecated")),
+                            state))
+                    .containsExactly(state.getName("test.Lib$MyAnnotation"));
+              }
+              setAssertionsComplete();
+            }
+            return super.visitClass(tree, state);
+          }
+        };
+    tests.add(scanner);
+    assertCompiles(scanner);
+  }
+
   /* Tests for ASTHelpers#getType */
 
   @Test
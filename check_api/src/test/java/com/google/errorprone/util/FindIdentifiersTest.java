@@ -1277,6 +1277,50 @@ public class FindIdentifiersTest {
         .doTest();
   }
 
+  /** A {@link BugChecker} that prints the owner of the variable x at calls to String.format(). */
+  @BugPattern(
+      severity = SeverityLevel.ERROR,
+      summary = "Prints the owner of the variable x at calls to String.format()")
+  public static class PrintOwnerOfX extends BugChecker implements MethodInvocationTreeMatcher {
+    @Override
+    public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+      if (MethodMatchers.staticMethod()
+          .onClass("java.lang.String")
+          .named("format")
+          .matches(tree, state)) {
+        return buildDescription(tree)
+            .setMessage("owner: " + FindIdentifiers.findIdent("x", state).owner)
+            .build();
+      }
+      return Description.NO_MATCH;
+    }
+  }
+
+  @Test
+  public void findIdentInDifferentMethods() {
+    CompilationTestHelper.newInstance(PrintOwnerOfX.class, getClass())
+        .addSourceLines(
+            "Test.java",
+            """
+            class Test {
+              String x;
+
+              void a(String x) {
+                // BUG: Diagnostic contains: owner: a(java.lang.String)
+                String.format(x);
+                // BUG: Diagnostic contains: owner: a(java.lang.String)
+                String.format(x);
+              }
+
+              void b() {
+                // BUG: Diagnostic contains: owner: Test
+                String.format(x);
+              }
+            }
+            """)
+        .doTest();
+  }
+
   /** A {@link BugChecker} that prints whether {@code A} is visible on each member select. */
   @BugPattern(severity = SeverityLevel.ERROR, summary = "A is visible")
   public static class IsAVisible extends BugChecker implements MemberSelectTreeMatcher {
@@ -0,0 +1,387 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.base.Optional;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.errorprone.ErrorProneOptions.Severity;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.CheckReturnValue;
+import com.google.errorprone.bugpatterns.RestrictedApiChecker;
+import com.google.errorprone.bugpatterns.UnusedVariable;
+import com.google.errorprone.bugpatterns.apidiff.Java8ApiChecker;
+import com.google.errorprone.bugpatterns.inlineme.Inliner;
+import com.google.errorprone.scanner.BuiltInCheckerSuppliers;
+import com.google.errorprone.scanner.ErrorProneScanner;
+import com.google.errorprone.scanner.ErrorProneScannerTransformer;
+import com.google.errorprone.scanner.ScannerSupplier;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskEvent.Kind;
+import com.sun.source.util.TaskListener;
+import com.sun.tools.javac.api.JavacTool;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.PropagatedException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Runs Error Prone in a long-lived process that performs many compilations, such as a build daemon
+ * or a persistent worker.
+ *
+ * <p>Unlike {@link ErrorProneJavaCompiler}, which parses Error Prone's options and instantiates all
+ * enabled checks for every compilation, the worker reuses parsed options and checker instances
+ * (along with the JVM-wide data they load) for later compilations with the same configuration. A
+ * checker instance is never used by two compilations at once.
+ *
+ * <p>Only the checkers that the worker is told are stateless are reused; their per-compilation
+ * caches are kept with {@link VisitorState#memoize}. All other checkers are instantiated for each
+ * compilation, since state kept in their fields could otherwise refer to the trees and symbols of
+ * an earlier compilation.
+ *
+ * <p>Checks loaded as plugins from the processor path are instantiated for each compilation, since
+ * the class loader they are loaded from is closed when the compilation ends.
+ */
+public final class ErrorProneWorker {
+
+  /**
+   * Built-in checkers whose instances only hold configuration, and which keep their per-compilation
+   * caches with {@link VisitorState#memoize}. Add a checker here only after checking all of its
+   * fields, and those of the objects they refer to.
+   */
+  public static final ImmutableSet<Class<? extends BugChecker>> REUSABLE_BUILT_IN_CHECKERS =
+      ImmutableSet.of(
+          CheckReturnValue.class,
+          Inliner.class,
+          Java8ApiChecker.class,
+          RestrictedApiChecker.class,
+          UnusedVariable.class);
+
+  private final JavacTool javacTool;
+  private final ScannerSupplier scannerSupplier;
+  private final ImmutableSet<Class<? extends BugChecker>> reusableCheckers;
+
+  private final Cache<ImmutableList<String>, ErrorProneOptions> parsedOptions =
+      Caffeine.newBuilder().maximumSize(64).build();
+
+  /** Idle checker instances, which are borrowed by one compilation at a time. */
+  private final ConcurrentMap<ScannerKey, Queue<ImmutableSet<BugChecker>>> checkers =
+      new ConcurrentHashMap<>();
+
+  public ErrorProneWorker() {
+    this(BuiltInCheckerSuppliers.defaultChecks(), REUSABLE_BUILT_IN_CHECKERS);
+  }
+
+  /** Creates a worker which instantiates the given checkers for every compilation. */
+  public ErrorProneWorker(ScannerSupplier scannerSupplier) {
+    this(scannerSupplier, ImmutableSet.of());
+  }
+
+  /**
+   * Creates a worker which reuses instances of the given stateless checkers across compilations,
+   * and instantiates the other checkers for every compilation.
+   */
+  public ErrorProneWorker(
+      ScannerSupplier scannerSupplier, ImmutableSet<Class<? extends BugChecker>> reusableCheckers) {
+    this.javacTool = JavacTool.create();
+    this.scannerSupplier = scannerSupplier;
+    this.reusableCheckers = reusableCheckers;
+  }
+
+  /**
+   * Reads compilations from standard input, and writes the exit code of each compilation to
+   * standard output. Diagnostics are written to standard error.
+   *
+   * <p>Each compilation is given as its javac and Error Prone arguments followed by the source
+   * files to compile, one per line, and is ended by an empty line. Arguments may contain spaces.
+   */
+  public static void main(String[] args) throws IOException {
+    new ErrorProneWorker()
+        .serve(
+            new BufferedReader(new InputStreamReader(System.in, UTF_8)),
+            new PrintWriter(System.out, /* autoFlush= */ true),
+            new PrintWriter(System.err, /* autoFlush= */ true));
+  }
+
+  /** Performs the compilations read from {@code in}, as described in {@link #main}. */
+  void serve(BufferedReader in, PrintWriter out, PrintWriter err) throws IOException {
+    List<String> request = new ArrayList<>();
+    for (String line = in.readLine(); ; line = in.readLine()) {
+      if (line != null && !line.isEmpty()) {
+        request.add(line);
+        continue;
+      }
+      if (!request.isEmpty()) {
+        out.println(compile(request, err));
+        request.clear();
+      }
+      if (line == null) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Compiles the source files named in the given command line, and returns javac's exit code.
+   *
+   * <p>Arguments that start with {@code -} are options, and are followed by as many values as the
+   * option takes; every other argument is the path of a source file. Argument files are not
+   * supported.
+   */
+  public int compile(List<String> args, PrintWriter out) {
+    try (StandardJavaFileManager fileManager =
+        javacTool.getStandardFileManager(null, null, UTF_8)) {
+      ImmutableList.Builder<String> options = ImmutableList.builder();
+      List<Path> sources = new ArrayList<>();
+      for (int i = 0; i < args.size(); i++) {
+        String arg = args.get(i);
+        if (!arg.startsWith("-")) {
+          sources.add(Paths.get(arg));
+          continue;
+        }
+        int end = Math.min(i + 1 + Math.max(isSupportedOption(fileManager, arg), 0), args.size());
+        options.addAll(args.subList(i, end));
+        i = end - 1;
+      }
+      LeasedTask task =
+          newTask(
+              out,
+              fileManager,
+              null,
+              options.build(),
+              fileManager.getJavaFileObjectsFromPaths(sources));
+      try {
+        return task.task().call() ? 0 : 1;
+      } finally {
+        task.release();
+      }
+    } catch (InvalidCommandLineOptionException | IllegalArgumentException e) {
+      out.println(e.getMessage());
+      return 2;
+    } catch (IOException e) {
+      out.println(e.getMessage());
+      return 3;
+    }
+  }
+
+  /**
+   * Returns a javac task which runs Error Prone over the given compilation units, reusing state
+   * from earlier compilations performed by this worker.
+   *
+   * <p>The checkers borrowed by the task are returned to the worker when the compilation finishes.
+   * If it throws instead, they are not reused.
+   */
+  public JavacTask getTask(
+      Writer out,
+      JavaFileManager fileManager,
+      @Nullable DiagnosticListener<? super JavaFileObject> diagnosticListener,
+      Iterable<String> args,
+      Iterable<? extends JavaFileObject> compilationUnits) {
+    return newTask(out, fileManager, diagnosticListener, args, compilationUnits).task();
+  }
+
+  /** A javac task, and the lease of the checkers it borrows, if any. */
+  private record LeasedTask(JavacTask task, @Nullable Lease lease) {
+    /** Returns the borrowed checkers to the worker, even if the compilation didn't finish. */
+    void release() {
+      if (lease != null) {
+        lease.release();
+      }
+    }
+  }
+
+  private LeasedTask newTask(
+      Writer out,
+      JavaFileManager fileManager,
+      @Nullable DiagnosticListener<? super JavaFileObject> diagnosticListener,
+      Iterable<String> args,
+      Iterable<? extends JavaFileObject> compilationUnits) {
+    ErrorProneOptions errorProneOptions = parseOptions(args);
+    JavacTask task =
+        (JavacTask)
+            javacTool.getTask(
+                out,
+                fileManager,
+                diagnosticListener,
+                BaseErrorProneJavaCompiler.javacOptions(errorProneOptions),
+                null,
+                compilationUnits);
+    if (errorProneOptions.patchingOptions().doRefactor()) {
+      // Patching selects its own checks, so there's nothing to reuse.
+      BaseErrorProneJavaCompiler.addTaskListener(task, scannerSupplier, errorProneOptions);
+      return new LeasedTask(task, null);
+    }
+    Context context = BaseErrorProneJavaCompiler.setupContext(task);
+    Lease lease = new Lease(errorProneOptions, context);
+    task.addTaskListener(
+        ErrorProneAnalyzer.createWithCustomDescriptionListener(
+            lease.transformer,
+            errorProneOptions,
+            context,
+            ErrorProneAnalyzer.descriptionListenerFactory(errorProneOptions, context)));
+    task.addTaskListener(lease);
+    return new LeasedTask(task, lease);
+  }
+
+  /** Returns the number of values taken by the given option, or -1 if it isn't supported. */
+  private int isSupportedOption(JavaFileManager fileManager, String option) {
+    int numberOfArgs = javacTool.isSupportedOption(option);
+    if (numberOfArgs != -1) {
+      return numberOfArgs;
+    }
+    // File manager options, such as -d and -classpath, aren't known to the tool
+    numberOfArgs = fileManager.isSupportedOption(option);
+    if (numberOfArgs != -1) {
+      return numberOfArgs;
+    }
+    return ErrorProneOptions.isSupportedOption(option);
+  }
+
+  private ErrorProneOptions parseOptions(Iterable<String> args) {
+    ImmutableList<String> key = ImmutableList.copyOf(args);
+    // The contents of argument files, changed line lists and shard costs may change between
+    // compilations.
+    if (key.stream()
+        .anyMatch(
+            arg ->
+                arg.startsWith("@")
+                    || arg.startsWith("-XepChangedLines:")
+                    || arg.startsWith("-XepShardCosts:"))) {
+      return ErrorProneOptions.processArgs(key);
+    }
+    return parsedOptions.get(key, ErrorProneOptions::processArgs);
+  }
+
+  /** The options which determine the set of enabled checks, and how they are configured. */
+  private record ScannerKey(
+      ImmutableMap<String, Severity> severities,
+      ImmutableMap<String, String> flags,
+      boolean ignoreUnknownChecks,
+      boolean enableAllChecksAsWarnings,
+      boolean dropErrorsToWarnings,
+      boolean suggestionsAsWarnings,
+      boolean disableAllWarnings,
+      boolean disableAllChecks,
+      Optional<CheckShard> shard) {
+    static ScannerKey of(ErrorProneOptions options) {
+      return new ScannerKey(
+          options.getSeverityMap(),
+          options.getFlags().getFlagsMap(),
+          options.ignoreUnknownChecks(),
+          options.isEnableAllChecksAsWarnings(),
+          options.isDropErrorsToWarnings(),
+          options.isSuggestionsAsWarnings(),
+          options.isDisableAllWarnings(),
+          options.isDisableAllChecks(),
+          options.shard());
+    }
+  }
+
+  /**
+   * Borrows checker instances for the duration of a single compilation, and returns them once it
+   * has finished.
+   */
+  private final class Lease implements TaskListener {
+    private final ScannerKey key;
+    private final Supplier<CodeTransformer> transformer;
+    private @Nullable ImmutableSet<BugChecker> borrowed;
+
+    Lease(ErrorProneOptions errorProneOptions, Context context) {
+      this.key = ScannerKey.of(errorProneOptions);
+      this.transformer = Suppliers.memoize(() -> borrow(errorProneOptions, context));
+    }
+
+    private CodeTransformer borrow(ErrorProneOptions errorProneOptions, Context context) {
+      // we can't load plugins from the processorpath until the filemanager has been
+      // initialized, so do it lazily
+      ErrorProneTimings timings = ErrorProneTimings.instance(context);
+      try (AutoCloseable unused = timings.initializationTimeSpan()) {
+        ScannerSupplier withPlugins = ErrorPronePlugins.loadPlugins(scannerSupplier, context);
+        if (withPlugins != scannerSupplier) {
+          return ErrorProneScannerTransformer.create(
+              withPlugins.applyOverrides(errorProneOptions).get());
+        }
+        ScannerSupplier configured = scannerSupplier.applyOverrides(errorProneOptions);
+        ImmutableSet<BugChecker> reusable = idleCheckers().poll();
+        if (reusable == null) {
+          reusable = instantiate(configured.filter(this::isReusable));
+        }
+        borrowed = reusable;
+        ImmutableSet<BugChecker> fresh = instantiate(configured.filter(info -> !isReusable(info)));
+        return ErrorProneScannerTransformer.create(
+            new ErrorProneScanner(Sets.union(reusable, fresh), configured.severities()));
+      } catch (InvalidCommandLineOptionException e) {
+        throw new PropagatedException(e);
+      } catch (Exception e) {
+        // for the timing span, should be impossible
+        throw new AssertionError(e);
+      }
+    }
+
+    private boolean isReusable(BugCheckerInfo info) {
+      return reusableCheckers.contains(info.checkerClass());
+    }
+
+    private ImmutableSet<BugChecker> instantiate(ScannerSupplier supplier) {
+      return ((ErrorProneScanner) supplier.get()).getBugCheckers();
+    }
+
+    private Queue<ImmutableSet<BugChecker>> idleCheckers() {
+      return checkers.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>());
+    }
+
+    @Override
+    public void finished(TaskEvent event) {
+      if (event.getKind() == Kind.COMPILATION) {
+        release();
+      }
+    }
+
+    /** Returns the borrowed checkers to the worker, if they haven't been returned yet. */
+    void release() {
+      if (borrowed != null) {
+        idleCheckers().add(borrowed);
+        borrowed = null;
+      }
+    }
+  }
+}
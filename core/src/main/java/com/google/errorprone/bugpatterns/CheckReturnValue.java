@@ -86,6 +86,8 @@ import com.sun.tools.javac.code.Symbol.MethodSymbol;
 import com.sun.tools.javac.code.Symbol.PackageSymbol;
 import com.sun.tools.javac.code.Type;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.lang.model.element.ElementKind;
@@ -141,6 +143,11 @@ public class CheckReturnValue extends AbstractReturnValueIgnored
             default -> MethodKind.OTHER;
           };
         }
+
+        @Override
+        public <T> Function<VisitorState, T> perCompilation(Supplier<T> factory) {
+          return VisitorState.memoize(unused -> factory.get())::get;
+        }
       };
 
   private final MessageTrailerStyle messageTrailerStyle;
@@ -248,17 +255,13 @@ public class CheckReturnValue extends AbstractReturnValueIgnored
 
   @Override
   public boolean isCovered(ExpressionTree tree, VisitorState state) {
-    return methodToInspect(tree).stream()
-        .flatMap(method -> evaluator.evaluations(method, state))
-        .findFirst()
-        .isPresent();
+    return methodToInspect(tree).flatMap(method -> evaluator.evaluation(method, state)).isPresent();
   }
 
   @Override
   public ImmutableMap<String, ?> getMatchMetadata(ExpressionTree tree, VisitorState state) {
-    return methodToInspect(tree).stream()
-        .flatMap(method -> evaluator.evaluations(method, state))
-        .findFirst()
+    return methodToInspect(tree)
+        .flatMap(method -> evaluator.evaluation(method, state))
         .map(
             evaluation ->
                 ImmutableMap.of(
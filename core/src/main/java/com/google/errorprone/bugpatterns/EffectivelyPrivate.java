@@ -94,7 +94,7 @@ public final class EffectivelyPrivate extends BugChecker
       // a subclass that relies on inheriting a method of a particular visibility to fulfil and
       // interface contract. Skip that for now, since many classes don't rely on that and also
       // aren't explicitly final.
-      if (streamSuperMethods(methodSymbol, state.getTypes()).findAny().isPresent()) {
+      if (streamSuperMethods(methodSymbol, state).findAny().isPresent()) {
         return NO_MATCH;
       }
     }
@@ -189,7 +189,7 @@ public final class ExposedPrivateType extends BugChecker
       return true;
     }
     MethodSymbol methodSymbol = getSymbol(methodTree);
-    if (ASTHelpers.streamSuperMethods(methodSymbol, state.getTypes()).findAny().isPresent()) {
+    if (ASTHelpers.streamSuperMethods(methodSymbol, state).findAny().isPresent()) {
       return false;
     }
     if (JUnitMatchers.TEST_CASE.matches(methodTree, state)) {
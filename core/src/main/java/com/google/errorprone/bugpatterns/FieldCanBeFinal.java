@@ -31,18 +31,28 @@ import com.google.errorprone.matchers.InjectMatchers;
 import com.google.errorprone.util.ASTHelpers;
 import com.sun.source.tree.AssignmentTree;
 import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.CatchTree;
 import com.sun.source.tree.ClassTree;
 import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.tree.CompoundAssignmentTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.ExpressionTree;
 import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.IfTree;
 import com.sun.source.tree.LambdaExpressionTree;
 import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
 import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.ReturnTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.ThrowTree;
 import com.sun.source.tree.Tree;
 import com.sun.source.tree.Tree.Kind;
+import com.sun.source.tree.TryTree;
 import com.sun.source.tree.UnaryTree;
 import com.sun.source.tree.VariableTree;
 import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.TreeScanner;
 import com.sun.tools.javac.code.Attribute;
 import com.sun.tools.javac.code.Flags;
 import com.sun.tools.javac.code.Symbol;
@@ -50,8 +60,11 @@ import com.sun.tools.javac.code.Symbol.MethodSymbol;
 import com.sun.tools.javac.code.Symbol.VarSymbol;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.Modifier;
@@ -154,8 +167,8 @@ public class FieldCanBeFinal extends BugChecker implements CompilationUnitTreeMa
     }
 
     /** Records a variable declaration. */
-    private void recordDeclaration(VarSymbol sym, VariableTree tree) {
-      getDeclaration(sym).recordDeclaration(tree);
+    private void recordDeclaration(VarSymbol sym, VariableTree tree, ClassTree owner) {
+      getDeclaration(sym).recordDeclaration(tree, owner);
     }
   }
 
@@ -165,7 +178,9 @@ public class FieldCanBeFinal extends BugChecker implements CompilationUnitTreeMa
     private final VarSymbol sym;
     private final EnumSet<InitializationContext> writes =
         EnumSet.noneOf(InitializationContext.class);
+    private int writeCount = 0;
     private VariableTree declaration;
+    private ClassTree owner;
 
     VariableAssignments(VarSymbol sym) {
       this.sym = sym;
@@ -174,11 +189,13 @@ public class FieldCanBeFinal extends BugChecker implements CompilationUnitTreeMa
     /** Records an assignment to the variable. */
     private void recordAssignment(InitializationContext init) {
       writes.add(init);
+      writeCount++;
     }
 
     /** Records that a variable was declared in this compilation unit. */
-    private void recordDeclaration(VariableTree tree) {
+    private void recordDeclaration(VariableTree tree, ClassTree owner) {
       declaration = tree;
+      this.owner = owner;
     }
 
     /** Returns true if the variable is effectively final. */
@@ -193,11 +210,8 @@ public class FieldCanBeFinal extends BugChecker implements CompilationUnitTreeMa
       if (writes.contains(InitializationContext.NONE)) {
         return false;
       }
-      // The unsound heuristic for effectively final fields is that they are initialized at least
-      // once in an initializer with the right static-ness. Multiple initializations are allowed
-      // because we don't consider control flow, and zero initializations are allowed to handle
-      // class and instance initializers, and delegating constructors that don't initialize the
-      // field directly.
+      // Cheaply rule out fields which aren't only initialized in initializers with the right
+      // static-ness, before checking that they're definitely assigned exactly once.
       InitializationContext wanted;
       InitializationContext other;
       if (sym.isStatic()) {
@@ -210,7 +224,10 @@ public class FieldCanBeFinal extends BugChecker implements CompilationUnitTreeMa
       if (writes.contains(other)) {
         return false;
       }
-      return writes.contains(wanted) || (sym.flags() & Flags.HASINIT) == Flags.HASINIT;
+      if (!writes.contains(wanted) && (sym.flags() & Flags.HASINIT) != Flags.HASINIT) {
+        return false;
+      }
+      return new DefiniteAssignment(sym).isAssignedOnce(owner, writeCount);
     }
 
     private VariableTree declaration() {
@@ -246,18 +263,278 @@ public class FieldCanBeFinal extends BugChecker implements CompilationUnitTreeMa
       }
       VariableTree varDecl = var.declaration();
       SuggestedFixes.addModifiers(varDecl, state, Modifier.FINAL)
-          .filter(f -> SuggestedFixes.compilesWithFix(f, state))
           .ifPresent(f -> state.reportMatch(describeMatch(varDecl, f)));
     }
     return Description.NO_MATCH;
   }
 
+  private static boolean isObjectifyClass(ClassTree node) {
+    for (Attribute.Compound anno : getSymbol(node).getAnnotationMirrors()) {
+      TypeElement annoElement = (TypeElement) anno.getAnnotationType().asElement();
+      if (annoElement.getQualifiedName().toString().startsWith(OBJECTIFY_PREFIX)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Whether a field has been assigned on the paths that reach a point in its initialization. */
+  private enum Assigned {
+    /** No path reaches this point, e.g. because it follows a {@code throw}. */
+    UNREACHABLE,
+    NO,
+    YES,
+    /** Assigned on some paths but not others. */
+    MAYBE,
+    /** The field couldn't be final, e.g. because it's read before it's assigned. */
+    ILLEGAL;
+
+    Assigned join(Assigned other) {
+      if (this == ILLEGAL || other == ILLEGAL) {
+        return ILLEGAL;
+      }
+      if (this == UNREACHABLE) {
+        return other;
+      }
+      if (other == UNREACHABLE) {
+        return this;
+      }
+      return this == other ? this : MAYBE;
+    }
+
+    /** Whether the field can be read here, once it's final. */
+    boolean isReadable() {
+      return this == YES || this == UNREACHABLE;
+    }
+  }
+
+  /**
+   * Decides whether a field would compile as a blank final, i.e. whether it is definitely assigned
+   * exactly once by the initialization code of its class and not read before then (JLS 16).
+   *
+   * <p>The analysis is conservative: it follows blocks, {@code if} statements and {@code try}
+   * statements without a {@code finally} block, but rejects fields that are assigned inside of any
+   * other statement, such as a loop or {@code switch}, or inside of an expression.
+   */
+  private static final class DefiniteAssignment {
+
+    private final VarSymbol sym;
+
+    /** The assignments to the field which initialize it. */
+    private final Set<AssignmentTree> initializations = new HashSet<>();
+
+    /** The state at each {@code return} of the current constructor. */
+    private Assigned atReturns = Assigned.UNREACHABLE;
+
+    DefiniteAssignment(VarSymbol sym) {
+      this.sym = sym;
+    }
+
+    /**
+     * Returns true if the field is assigned exactly once by the initialization code of {@code
+     * owner}, and all {@code writeCount} assignments to it in the compilation unit are part of
+     * that.
+     */
+    boolean isAssignedOnce(ClassTree owner, int writeCount) {
+      boolean isStatic = sym.isStatic();
+      // field initializers and initializer blocks run first, in the order they're declared
+      Assigned initialized = Assigned.NO;
+      for (Tree member : owner.getMembers()) {
+        switch (member) {
+          case VariableTree var
+              when getSymbol(var).isStatic() == isStatic && var.getInitializer() != null -> {
+            initialized = expression(var.getInitializer(), initialized);
+            if (getSymbol(var).equals(sym)) {
+              initialized = initialized == Assigned.NO ? Assigned.YES : Assigned.ILLEGAL;
+            }
+          }
+          case BlockTree block when block.isStatic() == isStatic ->
+              initialized = statement(block, initialized);
+          default -> {}
+        }
+      }
+      if (initialized == Assigned.ILLEGAL) {
+        return false;
+      }
+      if (isStatic) {
+        return initialized == Assigned.YES && initializations.size() == writeCount;
+      }
+      for (Tree member : owner.getMembers()) {
+        if (member instanceof MethodTree method && getSymbol(method).isConstructor()) {
+          List<? extends StatementTree> body = method.getBody().getStatements();
+          // the constructor that's delegated to initializes the field
+          Assigned start =
+              body.stream().anyMatch(DefiniteAssignment::isThisCall) ? Assigned.YES : initialized;
+          atReturns = Assigned.UNREACHABLE;
+          Assigned end = statements(body, start).join(atReturns);
+          if (end != Assigned.YES && end != Assigned.UNREACHABLE) {
+            return false;
+          }
+        }
+      }
+      return initializations.size() == writeCount;
+    }
+
+    private Assigned statements(List<? extends StatementTree> statements, Assigned state) {
+      for (StatementTree statement : statements) {
+        state = statement(statement, state);
+      }
+      return state;
+    }
+
+    private Assigned statement(StatementTree statement, Assigned state) {
+      if (state == Assigned.ILLEGAL) {
+        return state;
+      }
+      return switch (statement) {
+        case BlockTree block -> statements(block.getStatements(), state);
+        case ExpressionStatementTree expressionStatement
+            when expressionStatement.getExpression() instanceof AssignmentTree assignment
+                && isInitialization(assignment) -> {
+          if (state != Assigned.NO || expression(assignment.getExpression(), state) != state) {
+            yield Assigned.ILLEGAL;
+          }
+          initializations.add(assignment);
+          yield Assigned.YES;
+        }
+        case IfTree ifTree -> {
+          state = expression(ifTree.getCondition(), state);
+          Assigned then = statement(ifTree.getThenStatement(), state);
+          Assigned otherwise =
+              ifTree.getElseStatement() == null
+                  ? state
+                  : statement(ifTree.getElseStatement(), state);
+          yield then.join(otherwise);
+        }
+        case TryTree tryTree when tryTree.getFinallyBlock() == null -> {
+          for (Tree resource : tryTree.getResources()) {
+            state = expression(resource, state);
+          }
+          int initializationsBefore = initializations.size();
+          Assigned afterTry = statement(tryTree.getBlock(), state);
+          // the try block may have assigned the field before throwing
+          Assigned inCatch =
+              initializations.size() > initializationsBefore ? state.join(Assigned.YES) : state;
+          for (CatchTree catchTree : tryTree.getCatches()) {
+            afterTry = afterTry.join(statement(catchTree.getBlock(), inCatch));
+          }
+          yield afterTry;
+        }
+        case ThrowTree throwTree ->
+            expression(throwTree.getExpression(), state) == Assigned.ILLEGAL
+                ? Assigned.ILLEGAL
+                : Assigned.UNREACHABLE;
+        case ReturnTree unused -> {
+          atReturns = atReturns.join(state);
+          yield Assigned.UNREACHABLE;
+        }
+        // anything else mustn't assign the field, and doesn't change whether it's assigned
+        default -> expression(statement, state);
+      };
+    }
+
+    /**
+     * Checks a tree which mustn't assign the field, and returns {@code state} or {@link
+     * Assigned#ILLEGAL}.
+     */
+    private Assigned expression(Tree tree, Assigned state) {
+      boolean[] illegal = {false};
+      new TreeScanner<Void, Boolean>() {
+        @Override
+        public Void visitIdentifier(IdentifierTree node, Boolean nested) {
+          checkRead(node);
+          return null;
+        }
+
+        @Override
+        public Void visitMemberSelect(MemberSelectTree node, Boolean nested) {
+          checkRead(node);
+          return super.visitMemberSelect(node, nested);
+        }
+
+        private void checkRead(Tree node) {
+          if (!state.isReadable() && sym.equals(getSymbol(node))) {
+            illegal[0] = true;
+          }
+        }
+
+        @Override
+        public Void visitAssignment(AssignmentTree node, Boolean nested) {
+          checkWrite(node.getVariable());
+          return super.visitAssignment(node, nested);
+        }
+
+        @Override
+        public Void visitCompoundAssignment(CompoundAssignmentTree node, Boolean nested) {
+          checkWrite(node.getVariable());
+          return super.visitCompoundAssignment(node, nested);
+        }
+
+        @Override
+        public Void visitUnary(UnaryTree node, Boolean nested) {
+          if (UNARY_ASSIGNMENT.contains(node.getKind())) {
+            checkWrite(node.getExpression());
+          }
+          return super.visitUnary(node, nested);
+        }
+
+        private void checkWrite(Tree variable) {
+          if (sym.equals(getSymbol(variable))) {
+            illegal[0] = true;
+          }
+        }
+
+        @Override
+        public Void visitReturn(ReturnTree node, Boolean nested) {
+          if (!nested) {
+            atReturns = atReturns.join(state);
+          }
+          return super.visitReturn(node, nested);
+        }
+
+        @Override
+        public Void visitLambdaExpression(LambdaExpressionTree node, Boolean nested) {
+          return super.visitLambdaExpression(node, true);
+        }
+
+        @Override
+        public Void visitClass(ClassTree node, Boolean nested) {
+          return super.visitClass(node, true);
+        }
+      }.scan(tree, false);
+      return illegal[0] ? Assigned.ILLEGAL : state;
+    }
+
+    /** Whether an assignment may initialize the field, if it's final. */
+    private boolean isInitialization(AssignmentTree assignment) {
+      ExpressionTree variable = assignment.getVariable();
+      if (!sym.equals(getSymbol(variable))) {
+        return false;
+      }
+      return variable instanceof IdentifierTree
+          || (!sym.isStatic()
+              && variable instanceof MemberSelectTree memberSelect
+              && memberSelect.getExpression() instanceof IdentifierTree ident
+              && ident.getName().contentEquals("this"));
+    }
+
+    private static boolean isThisCall(StatementTree statement) {
+      return statement instanceof ExpressionStatementTree expressionStatement
+          && expressionStatement.getExpression() instanceof MethodInvocationTree invocation
+          && invocation.getMethodSelect() instanceof IdentifierTree ident
+          && ident.getName().contentEquals("this");
+    }
+  }
+
   /** Record assignments to possibly-final variables in a compilation unit. */
   private final class FinalScanner extends TreePathScanner<Void, InitializationContext> {
 
     private final VariableAssignmentRecords writes;
     private final VisitorState compilationState;
 
+    /** Whether the current tree is inside a class whose fields shouldn't be reported. */
+    private boolean inIgnoredClass = false;
+
     private FinalScanner(VariableAssignmentRecords writes, VisitorState compilationState) {
       this.writes = writes;
       this.compilationState = compilationState;
@@ -266,8 +543,10 @@ public class FieldCanBeFinal extends BugChecker implements CompilationUnitTreeMa
     @Override
     public Void visitVariable(VariableTree node, InitializationContext init) {
       VarSymbol sym = ASTHelpers.getSymbol(node);
-      if (sym.getKind() == ElementKind.FIELD && !isSuppressed(node, compilationState)) {
-        writes.recordDeclaration(sym, node);
+      if (sym.getKind() == ElementKind.FIELD
+          && !inIgnoredClass
+          && !isSuppressed(node, compilationState)) {
+        writes.recordDeclaration(sym, node, (ClassTree) getCurrentPath().getParentPath().getLeaf());
       }
       return super.visitVariable(node, InitializationContext.NONE);
     }
@@ -320,19 +599,15 @@ public class FieldCanBeFinal extends BugChecker implements CompilationUnitTreeMa
     public Void visitClass(ClassTree node, InitializationContext init) {
       VisitorState state = compilationState.withPath(getCurrentPath());
 
-      if (isSuppressed(node, state)) {
-        return null;
-      }
-
-      for (Attribute.Compound anno : getSymbol(node).getAnnotationMirrors()) {
-        TypeElement annoElement = (TypeElement) anno.getAnnotationType().asElement();
-        if (annoElement.getQualifiedName().toString().startsWith(OBJECTIFY_PREFIX)) {
-          return null;
-        }
+      boolean wasInIgnoredClass = inIgnoredClass;
+      inIgnoredClass |= isSuppressed(node, state) || isObjectifyClass(node);
+      try {
+        // reset the initialization context when entering a new declaration, and keep recording
+        // assignments in ignored classes, since they may be to the fields of enclosing classes
+        return super.visitClass(node, InitializationContext.NONE);
+      } finally {
+        inIgnoredClass = wasInIgnoredClass;
       }
-
-      // reset the initialization context when entering a new declaration
-      return super.visitClass(node, InitializationContext.NONE);
     }
 
     @Override
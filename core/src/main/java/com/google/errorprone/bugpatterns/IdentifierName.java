@@ -146,7 +146,7 @@ public final class IdentifierName extends BugChecker
     if (hasAnnotation(symbol, "org.junit.Ignore", state)) {
       return NO_MATCH;
     }
-    if (!findSuperMethods(symbol, state.getTypes()).isEmpty()) {
+    if (!findSuperMethods(symbol, state).isEmpty()) {
       return NO_MATCH;
     }
     if (tree.getModifiers().getFlags().contains(Modifier.NATIVE)) {
@@ -193,7 +193,7 @@ public final class IdentifierName extends BugChecker
         && symbol.getKind() == ElementKind.PARAMETER
         && !(state.getPath().getParentPath().getLeaf() instanceof LambdaExpressionTree)) {
       int index = methodSymbol.getParameters().indexOf(symbol);
-      var maybeSuper = ASTHelpers.streamSuperMethods(methodSymbol, state.getTypes()).findFirst();
+      var maybeSuper = ASTHelpers.streamSuperMethods(methodSymbol, state).findFirst();
       if (maybeSuper.isPresent()) {
         var superMethod = maybeSuper.get();
         if (NamedParameterComment.containsSyntheticParameterName(superMethod)) {
@@ -141,7 +141,7 @@ public final class JUnit3TestNotRun extends BugChecker implements CompilationUni
     if (calledMethods.contains(getSymbol(methodTree))) {
       return Optional.empty();
     }
-    if (!findSuperMethods(getSymbol(methodTree), state.getTypes()).isEmpty()) {
+    if (!findSuperMethods(getSymbol(methodTree), state).isEmpty()) {
       return Optional.empty();
     }
     String methodName = methodTree.getName().toString();
@@ -190,7 +190,7 @@ public class MethodCanBeStatic extends BugChecker implements CompilationUnitTree
     }
 
     nodes.keySet().stream()
-        .flatMap(ms -> streamSuperMethods(ms, state.getTypes()))
+        .flatMap(ms -> streamSuperMethods(ms, state))
         .map(nodes::get)
         .filter(Objects::nonNull)
         .forEach(sms -> sms.couldPossiblyBeStatic = false);
@@ -43,8 +43,7 @@ public class OverridingMethodInconsistentArgumentNamesChecker extends BugChecker
   @Override
   public Description matchMethod(MethodTree methodTree, VisitorState state) {
     MethodSymbol methodSymbol = getSymbol(methodTree);
-    Optional<MethodSymbol> superMethod =
-        findSuperMethods(methodSymbol, state.getTypes()).stream().findFirst();
+    Optional<MethodSymbol> superMethod = findSuperMethods(methodSymbol, state).stream().findFirst();
     if (superMethod.isEmpty() || methodSymbol.isVarArgs() || superMethod.get().isVarArgs()) {
       return Description.NO_MATCH;
     }
@@ -53,8 +53,7 @@ public class ProtectedMembersInFinalClass extends BugChecker implements ClassTre
   private static final Matcher<Tree> HAS_PROTECTED = hasModifier(PROTECTED);
 
   private static boolean methodHasNoParentMethod(MethodTree methodTree, VisitorState state) {
-    return ASTHelpers.findSuperMethods(ASTHelpers.getSymbol(methodTree), state.getTypes())
-        .isEmpty();
+    return ASTHelpers.findSuperMethods(ASTHelpers.getSymbol(methodTree), state).isEmpty();
   }
 
   @Override
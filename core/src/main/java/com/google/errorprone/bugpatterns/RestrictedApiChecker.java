@@ -21,8 +21,8 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.errorprone.VisitorState.memoize;
 import static com.google.errorprone.matchers.Description.NO_MATCH;
+import static com.google.errorprone.util.ASTHelpers.getDeclaredSymbol;
 import static com.google.errorprone.util.ASTHelpers.getSymbol;
-import static com.google.errorprone.util.ASTHelpers.hasAnnotation;
 import static com.google.errorprone.util.ASTHelpers.streamSuperMethods;
 import static com.google.errorprone.util.AnnotationNames.RESTRICTED_API_ANNOTATION;
 
@@ -49,6 +49,7 @@ import com.sun.source.tree.MemberReferenceTree;
 import com.sun.source.tree.MethodInvocationTree;
 import com.sun.source.tree.NewClassTree;
 import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
 import com.sun.tools.javac.code.Attribute;
 import com.sun.tools.javac.code.Symbol;
 import com.sun.tools.javac.code.Symbol.MethodSymbol;
@@ -58,7 +59,10 @@ import com.sun.tools.javac.code.Types;
 import com.sun.tools.javac.model.AnnotationProxyMaker;
 import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -177,26 +181,66 @@ public class RestrictedApiChecker extends BugChecker
     if (tree.getClassBody() != null) {
       return checkMethodUse(superclassConstructorSymbol(tree, state), tree, state);
     } else {
-      return checkRestriction(getRestrictedApiAnnotation(getSymbol(tree), state), tree, state);
+      // Constructors don't override anything, so this only looks at the constructor itself.
+      return checkMethodUse(getSymbol(tree), tree, state);
     }
   }
 
   private Description checkMethodUse(
-      MethodSymbol method, ExpressionTree where, VisitorState state) {
+      @Nullable MethodSymbol method, ExpressionTree where, VisitorState state) {
+    if (method == null) {
+      return NO_MATCH;
+    }
+    Optional<Restriction> restriction = restriction(method, state);
+    return restriction.isPresent() ? checkRestriction(restriction.get(), where, state) : NO_MATCH;
+  }
+
+  /**
+   * A {@code @RestrictedApi} annotation.
+   *
+   * @param attribute the annotation, which identifies the restriction
+   * @param api the values of the annotation
+   */
+  private record Restriction(Attribute.Compound attribute, RestrictedApi api) {}
+
+  /**
+   * The restriction that applies to each method that has been used in the current compilation, if
+   * any. Almost all methods aren't restricted, and this makes checking that a single map lookup.
+   */
+  private static final Supplier<Map<MethodSymbol, Optional<Restriction>>> RESTRICTIONS =
+      memoize(unused -> new HashMap<>());
+
+  private static Optional<Restriction> restriction(MethodSymbol method, VisitorState state) {
+    Map<MethodSymbol, Optional<Restriction>> restrictions = RESTRICTIONS.get(state);
+    Optional<Restriction> restriction = restrictions.get(method);
+    if (restriction == null) {
+      restriction = findRestriction(method, state);
+      restrictions.put(method, restriction);
+    }
+    return restriction;
+  }
+
+  private static Optional<Restriction> findRestriction(MethodSymbol method, VisitorState state) {
+    Attribute.Compound annotation = findRestrictedApiAnnotation(method, state);
+    if (annotation == null) {
+      return Optional.empty();
+    }
+    RestrictedApi api = AnnotationProxyMaker.generateAnnotation(annotation, RestrictedApi.class);
+    return Optional.ofNullable(api).map(a -> new Restriction(annotation, a));
+  }
+
+  private static Attribute.@Nullable Compound findRestrictedApiAnnotation(
+      MethodSymbol method, VisitorState state) {
     Attribute.Compound annotation = getRestrictedApiAnnotation(method, state);
     if (annotation != null) {
-      return checkRestriction(annotation, where, state);
+      return annotation;
     }
-
     // Try each super method for @RestrictedApi
-    return streamSuperMethods(method, state.getTypes())
-        .filter((t) -> hasAnnotation(t, RESTRICTED_API_ANNOTATION, state))
+    return streamSuperMethods(method, state)
+        .map(superMethod -> getRestrictedApiAnnotation(superMethod, state))
+        .filter(Objects::nonNull)
         .findFirst()
-        .map(
-            superWithRestrictedApi ->
-                checkRestriction(
-                    getRestrictedApiAnnotation(superWithRestrictedApi, state), where, state))
-        .orElse(NO_MATCH);
+        .orElse(null);
   }
 
   private static Attribute.@Nullable Compound getRestrictedApiAnnotation(
@@ -207,16 +251,8 @@ public class RestrictedApiChecker extends BugChecker
     return sym.attribute(RESTRICTED_API_TYPE.get(state));
   }
 
-  private Description checkRestriction(
-      Attribute.@Nullable Compound attribute, Tree where, VisitorState state) {
-    if (attribute == null) {
-      return NO_MATCH;
-    }
-    RestrictedApi restriction =
-        AnnotationProxyMaker.generateAnnotation(attribute, RestrictedApi.class);
-    if (restriction == null) {
-      return NO_MATCH;
-    }
+  private Description checkRestriction(Restriction found, Tree where, VisitorState state) {
+    RestrictedApi restriction = found.api();
     if (!restriction.allowedOnPath().isEmpty()) {
       JCCompilationUnit compilationUnit = (JCCompilationUnit) state.getPath().getCompilationUnit();
       String path = compilationUnit.getSourceFile().toUri().toString();
@@ -232,9 +268,21 @@ public class RestrictedApiChecker extends BugChecker
             e);
       }
     }
-    boolean warn = Matchers.enclosingNode(shouldAllowWithWarning(attribute)).matches(where, state);
-
-    boolean allow = Matchers.enclosingNode(shouldAllow(attribute)).matches(where, state);
+    boolean warn = false;
+    boolean allow = false;
+    for (TreePath path = state.getPath().getParentPath();
+        path != null;
+        path = path.getParentPath()) {
+      Tree node = path.getLeaf();
+      Symbol enclosing = getDeclaredSymbol(node);
+      if (enclosing == null) {
+        // Only declarations can be annotated.
+        continue;
+      }
+      Allowlisting allowlisting = allowlisting(found, enclosing, node, state);
+      warn |= allowlisting.warn();
+      allow |= allowlisting.allow();
+    }
     if (warn && allow) {
       // TODO(bangert): Clarify this message if possible.
       var descriptionBuilder =
@@ -263,7 +311,38 @@ public class RestrictedApiChecker extends BugChecker
     return description.build();
   }
 
-  // TODO(bangert): Memoize these if necessary.
+  /**
+   * Whether a declaration is annotated with one of a restriction's allowlist annotations.
+   *
+   * @param allow whether it has one of the {@code allowlistAnnotations}
+   * @param warn whether it has one of the {@code allowlistWithWarningAnnotations}
+   */
+  private record Allowlisting(boolean allow, boolean warn) {}
+
+  private record AllowlistingKey(Attribute.Compound restriction, Symbol enclosing) {}
+
+  /**
+   * The allowlisting of each enclosing declaration of a restricted API use in the current
+   * compilation, for each restriction.
+   */
+  private static final Supplier<Map<AllowlistingKey, Allowlisting>> ALLOWLISTINGS =
+      memoize(unused -> new HashMap<>());
+
+  private static Allowlisting allowlisting(
+      Restriction restriction, Symbol enclosing, Tree node, VisitorState state) {
+    Map<AllowlistingKey, Allowlisting> allowlistings = ALLOWLISTINGS.get(state);
+    AllowlistingKey key = new AllowlistingKey(restriction.attribute(), enclosing);
+    Allowlisting allowlisting = allowlistings.get(key);
+    if (allowlisting == null) {
+      allowlisting =
+          new Allowlisting(
+              shouldAllow(restriction.attribute()).matches(node, state),
+              shouldAllowWithWarning(restriction.attribute()).matches(node, state));
+      allowlistings.put(key, allowlisting);
+    }
+    return allowlisting;
+  }
+
   private static Matcher<Tree> shouldAllow(Attribute.Compound api) {
     Optional<Attribute> allowlistAnnotations =
         MoreAnnotations.getValue(api, "allowlistAnnotations");
@@ -85,7 +85,7 @@ public final class UnnecessarilyVisible extends BugChecker implements MethodTree
     if (annotations.isEmpty()) {
       return NO_MATCH;
     }
-    if (streamSuperMethods(symbol, state.getTypes()).findAny().isPresent()) {
+    if (streamSuperMethods(symbol, state).findAny().isPresent()) {
       return NO_MATCH;
     }
     if (hasDirectAnnotationWithSimpleName(tree, "VisibleForTesting")) {
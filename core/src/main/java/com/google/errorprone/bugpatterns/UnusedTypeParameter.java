@@ -62,8 +62,7 @@ public final class UnusedTypeParameter extends BugChecker implements Compilation
       @Override
       public Void visitMethod(MethodTree node, Void unused) {
         var symbol = getSymbol(node);
-        if (methodCanBeOverridden(symbol)
-            || !findSuperMethods(symbol, state.getTypes()).isEmpty()) {
+        if (methodCanBeOverridden(symbol) || !findSuperMethods(symbol, state).isEmpty()) {
           return null;
         }
         handle(node, node.getTypeParameters());
@@ -44,13 +44,9 @@ import static com.sun.source.tree.Tree.Kind.PREFIX_INCREMENT;
 import com.google.common.base.Ascii;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableListMultimap;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.ListMultimap;
-import com.google.common.collect.Multimaps;
 import com.google.common.collect.Range;
 import com.google.common.collect.RangeSet;
 import com.google.common.collect.Streams;
@@ -97,7 +93,6 @@ import com.sun.source.tree.WhileLoopTree;
 import com.sun.source.util.SimpleTreeVisitor;
 import com.sun.source.util.TreePath;
 import com.sun.source.util.TreePathScanner;
-import com.sun.source.util.TreeScanner;
 import com.sun.tools.javac.code.Symbol;
 import com.sun.tools.javac.code.Symbol.ClassSymbol;
 import com.sun.tools.javac.code.Symbol.MethodSymbol;
@@ -106,13 +101,12 @@ import com.sun.tools.javac.code.Type;
 import com.sun.tools.javac.util.Position;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicBoolean;
 import javax.inject.Inject;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.Modifier;
@@ -196,79 +190,61 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
 
   @Override
   public Description matchCompilationUnit(CompilationUnitTree tree, VisitorState state) {
+    // Declarations, uses and exemptions are all collected in a single pass over the compilation
+    // unit. Fixes are only generated for the variables which are actually reported.
+    VariableScanner scanner = new VariableScanner(tree.getSourceFile(), state);
+    scanner.scan(state.getPath(), null);
+
     // We will skip reporting on the whole compilation if there are any native methods found.
-    // Use a TreeScanner to find all local variables and fields.
-    if (hasNativeMethods(tree)) {
+    if (scanner.hasNativeMethods) {
       return Description.NO_MATCH;
     }
 
-    ImmutableMultimap<MethodSymbol, MethodSymbol> superMethodsToOverrides =
-        getSuperMethodsToOverrides(tree, state);
-
-    VariableFinder variableFinder = new VariableFinder(state, superMethodsToOverrides);
-    variableFinder.scan(state.getPath(), null);
-
-    // Map of symbols to variable declarations. Initially this is a map of all of the local variable
-    // and fields. As we go we remove those variables which are used.
-    Map<Symbol, TreePath> unusedElements = variableFinder.unusedElements;
-
-    // Whether a symbol should only be checked for reassignments (e.g. public methods' parameters).
-    Set<Symbol> onlyCheckForReassignments = variableFinder.onlyCheckForReassignments;
-
-    // Map of symbols to their usage sites. In this map we also include the definition site in
-    // addition to all the trees where symbol is used. This map is designed to keep the usage sites
-    // of variables (parameters, fields, locals).
-    //
-    // We populate this map when analyzing the unused variables and then use it to generate
-    // appropriate fixes for them.
-    ListMultimap<Symbol, TreePath> usageSites = variableFinder.usageSites;
-
-    FilterUsedVariables filterUsedVariables = new FilterUsedVariables(unusedElements, usageSites);
-    filterUsedVariables.scan(state.getPath(), null);
-
-    // Keeps track of whether a symbol was _ever_ used (between reassignments).
-    Set<Symbol> isEverUsed = filterUsedVariables.isEverUsed;
-    List<UnusedSpec> unusedSpecs = filterUsedVariables.unusedSpecs;
-
-    // Add the left-over unused variables...
-    for (Map.Entry<Symbol, TreePath> entry : unusedElements.entrySet()) {
-      unusedSpecs.add(
-          UnusedSpec.of(entry.getKey(), entry.getValue(), usageSites.get(entry.getKey()), null));
-    }
-
-    ImmutableListMultimap<Symbol, UnusedSpec> unusedSpecsBySymbol =
-        Multimaps.index(unusedSpecs, UnusedSpec::symbol);
-
-    for (Map.Entry<Symbol, Collection<UnusedSpec>> entry : unusedSpecsBySymbol.asMap().entrySet()) {
+    for (Map.Entry<Symbol, VariableInfo> entry : scanner.variables.entrySet()) {
       Symbol unusedSymbol = entry.getKey();
-      Collection<UnusedSpec> specs = entry.getValue();
+      VariableInfo info = entry.getValue();
+      if (info.declarationSite == null) {
+        continue;
+      }
+      List<UnusedSpec> specs = info.unusedSpecs;
+      // Add the left-over unused assignment...
+      if (info.unused) {
+        specs.add(UnusedSpec.of(unusedSymbol, info.unusedAssignment, info.usageSites, null));
+      } else {
+        info.isEverUsed = true;
+      }
+      if (specs.isEmpty()) {
+        continue;
+      }
+      // Whether the symbol should only be checked for reassignments (e.g. public methods' params).
+      boolean onlyCheckForReassignments =
+          info.isMethodParameter && !scanner.isParameterSubjectToAnalysis(unusedSymbol);
+      // Don't complain if this is a public method and we only overwrote it once.
+      if (onlyCheckForReassignments && specs.size() <= 1) {
+        continue;
+      }
 
       ImmutableList<TreePath> allUsageSites =
           specs.stream().flatMap(u -> u.usageSites().stream()).collect(toImmutableList());
-      if (!unusedElements.containsKey(unusedSymbol)) {
-        isEverUsed.add(unusedSymbol);
-      }
       SuggestedFix makeFirstAssignmentDeclaration =
           makeAssignmentDeclaration(unusedSymbol, specs, allUsageSites, state);
-      // Don't complain if this is a public method and we only overwrote it once.
-      if (onlyCheckForReassignments.contains(unusedSymbol) && specs.size() <= 1) {
-        continue;
-      }
-      Tree unused = specs.iterator().next().assignmentPath().getLeaf();
+      Tree unused = specs.get(0).assignmentPath().getLeaf();
       VarSymbol symbol = (VarSymbol) unusedSymbol;
       ImmutableList.Builder<SuggestedFix> fixes = ImmutableList.builder();
       if (symbol.getKind() == ElementKind.PARAMETER
-          && !onlyCheckForReassignments.contains(unusedSymbol)
-          && !isEverUsed.contains(unusedSymbol)) {
-        fixes.addAll(buildUnusedParameterFixes(symbol, allUsageSites, state));
+          && !onlyCheckForReassignments
+          && !info.isEverUsed) {
+        fixes.addAll(
+            buildUnusedParameterFixes(
+                symbol, info.declarationSite, allUsageSites, scanner.invocations, state));
       } else {
         fixes.addAll(buildUnusedVarFixes(symbol, allUsageSites, state));
       }
-      if (suggestUnderscore(state, isEverUsed, unusedSymbol, specs, allUsageSites)) {
+      if (suggestUnderscore(state, info.isEverUsed, unusedSymbol, specs, allUsageSites)) {
         fixes.add(SuggestedFixes.renameVariable((VariableTree) unused, "_", state));
       }
       String message;
-      if (!isEverUsed.contains(symbol)) {
+      if (!info.isEverUsed) {
         message =
             String.format("The %s '%s' is never read.", describeVariable(symbol), symbol.name);
       } else if (unused instanceof VariableTree && symbol.getKind() == ElementKind.PARAMETER) {
@@ -293,7 +269,7 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
 
   private static boolean suggestUnderscore(
       VisitorState state,
-      Set<Symbol> isEverUsed,
+      boolean isEverUsed,
       Symbol symbol,
       Collection<UnusedSpec> specs,
       ImmutableList<TreePath> allUsageSites) {
@@ -302,7 +278,7 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
     if (!(unused instanceof VariableTree variableTree)) {
       return false;
     }
-    if (isEverUsed.contains(symbol) || specs.size() != 1 || allUsageSites.size() > 1) {
+    if (isEverUsed || specs.size() != 1 || allUsageSites.size() > 1) {
       return false;
     }
     if (!SourceVersion.supportsUnnamedVariablesAndPatterns(state.context)) {
@@ -372,37 +348,6 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
     };
   }
 
-  private static boolean hasNativeMethods(CompilationUnitTree tree) {
-    AtomicBoolean hasAnyNativeMethods = new AtomicBoolean(false);
-    new TreeScanner<Void, Void>() {
-      @Override
-      public Void visitMethod(MethodTree tree, Void unused) {
-        if (tree.getModifiers().getFlags().contains(Modifier.NATIVE)) {
-          hasAnyNativeMethods.set(true);
-        }
-        return null;
-      }
-    }.scan(tree, null);
-    return hasAnyNativeMethods.get();
-  }
-
-  private static ImmutableMultimap<MethodSymbol, MethodSymbol> getSuperMethodsToOverrides(
-      CompilationUnitTree tree, VisitorState state) {
-    ImmutableMultimap.Builder<MethodSymbol, MethodSymbol> overrides = ImmutableMultimap.builder();
-    JavaFileObject sourceFile = tree.getSourceFile();
-    new TreeScanner<Void, Void>() {
-      @Override
-      public Void visitMethod(MethodTree tree, Void unused) {
-        MethodSymbol sym = getSymbol(tree);
-        findSuperMethods(getSymbol(tree), state.getTypes()).stream()
-            .filter(m -> sourceFile.equals(m.enclClass().sourcefile))
-            .forEach(m -> overrides.put(m, sym));
-        return null;
-      }
-    }.scan(tree, null);
-    return overrides.build();
-  }
-
   // https://docs.oracle.com/javase/specs/jls/se11/html/jls-14.html#jls-ExpressionStatement
   private static final ImmutableSet<Tree.Kind> TOP_LEVEL_EXPRESSIONS =
       ImmutableSet.of(
@@ -568,7 +513,11 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
   }
 
   private static ImmutableList<SuggestedFix> buildUnusedParameterFixes(
-      Symbol varSymbol, List<TreePath> usagePaths, VisitorState state) {
+      Symbol varSymbol,
+      TreePath declarationSite,
+      List<TreePath> usagePaths,
+      ListMultimap<MethodSymbol, MethodInvocationTree> invocations,
+      VisitorState state) {
     if (!(varSymbol.owner instanceof MethodSymbol methodSymbol)
         || !methodSymbol.params().contains(varSymbol)
         || !canBeRemoved(varSymbol.owner, state)) {
@@ -581,61 +530,55 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
       deletions.add(
           Range.closed(getStartPosition(path.getLeaf()), state.getEndPosition(path.getLeaf())));
     }
-    new TreePathScanner<Void, Void>() {
-      @Override
-      public Void visitMethodInvocation(MethodInvocationTree tree, Void unused) {
-        if (getSymbol(tree).equals(methodSymbol)) {
-          removeByIndex(tree.getArguments());
-        }
-        return super.visitMethodInvocation(tree, null);
-      }
-
-      @Override
-      public Void visitMethod(MethodTree tree, Void unused) {
-        if (getSymbol(tree).equals(methodSymbol)) {
-          removeByIndex(tree.getParameters());
-        }
-        return super.visitMethod(tree, null);
-      }
-
-      private void removeByIndex(List<? extends Tree> trees) {
-        if (index >= trees.size()) {
-          // possible when removing a varargs parameter with no corresponding formal parameters
-          return;
-        }
-        if (trees.size() == 1) {
-          Tree tree = getOnlyElement(trees);
-          if (!hasExplicitSource(tree, state)) {
-            // TODO(b/118437729): handle bogus source positions in enum declarations
-            return;
-          }
-          deletions.add(Range.closed(getStartPosition(tree), state.getEndPosition(tree)));
-          return;
-        }
-        int startPos;
-        int endPos;
-        if (index >= 1) {
-          startPos = state.getEndPosition(trees.get(index - 1));
-          endPos = state.getEndPosition(trees.get(index));
-        } else {
-          startPos = getStartPosition(trees.get(index));
-          endPos = getStartPosition(trees.get(index + 1));
-        }
-        if (index == methodSymbol.params().size() - 1 && methodSymbol.isVarArgs()) {
-          endPos = state.getEndPosition(getLast(trees));
-        }
-        if (startPos == Position.NOPOS || endPos == Position.NOPOS) {
-          // TODO(b/118437729): handle bogus source positions in enum declarations
-          return;
-        }
-        deletions.add(Range.closed(startPos, endPos));
-      }
-    }.scan(state.getPath().getCompilationUnit(), null);
+    if (declarationSite.getParentPath().getLeaf() instanceof MethodTree methodTree) {
+      removeByIndex(methodSymbol, index, methodTree.getParameters(), deletions, state);
+    }
+    for (MethodInvocationTree invocation : invocations.get(methodSymbol)) {
+      removeByIndex(methodSymbol, index, invocation.getArguments(), deletions, state);
+    }
     SuggestedFix.Builder fix = SuggestedFix.builder();
     deletions.asRanges().forEach(x -> fix.replace(x.lowerEndpoint(), x.upperEndpoint(), ""));
     return ImmutableList.of(fix.build());
   }
 
+  private static void removeByIndex(
+      MethodSymbol methodSymbol,
+      int index,
+      List<? extends Tree> trees,
+      RangeSet<Integer> deletions,
+      VisitorState state) {
+    if (index >= trees.size()) {
+      // possible when removing a varargs parameter with no corresponding formal parameters
+      return;
+    }
+    if (trees.size() == 1) {
+      Tree tree = getOnlyElement(trees);
+      if (!hasExplicitSource(tree, state)) {
+        // TODO(b/118437729): handle bogus source positions in enum declarations
+        return;
+      }
+      deletions.add(Range.closed(getStartPosition(tree), state.getEndPosition(tree)));
+      return;
+    }
+    int startPos;
+    int endPos;
+    if (index >= 1) {
+      startPos = state.getEndPosition(trees.get(index - 1));
+      endPos = state.getEndPosition(trees.get(index));
+    } else {
+      startPos = getStartPosition(trees.get(index));
+      endPos = getStartPosition(trees.get(index + 1));
+    }
+    if (index == methodSymbol.params().size() - 1 && methodSymbol.isVarArgs()) {
+      endPos = state.getEndPosition(getLast(trees));
+    }
+    if (startPos == Position.NOPOS || endPos == Position.NOPOS) {
+      // TODO(b/118437729): handle bogus source positions in enum declarations
+      return;
+    }
+    deletions.add(Range.closed(startPos, endPos));
+  }
+
   private static boolean isEnhancedForLoopVar(TreePath variablePath) {
     Tree tree = variablePath.getLeaf();
     Tree parent = variablePath.getParentPath().getLeaf();
@@ -650,42 +593,141 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
         || exemptNames.contains(nameString);
   }
 
-  private final class VariableFinder extends TreePathScanner<Void, Void> {
-    private final Map<Symbol, TreePath> unusedElements = new HashMap<>();
+  /** Everything collected about a single variable that is a candidate for being reported. */
+  private static final class VariableInfo {
+    /**
+     * The declaration of the variable, or null if the variable has been referenced before its
+     * declaration was reached (e.g. a field used by a method declared above it).
+     */
+    @Nullable TreePath declarationSite;
+
+    /** The scope depth of the declaration site, see {@link #scopeDepth}. */
+    int declarationDepth;
+
+    /** Whether this is a method parameter, which may only be checked for reassignments. */
+    boolean isMethodParameter;
 
-    private final Set<Symbol> onlyCheckForReassignments = new HashSet<>();
+    /** Whether the last assignment to the variable is (so far) never read. */
+    boolean unused = true;
 
-    private final ListMultimap<Symbol, TreePath> usageSites = ArrayListMultimap.create();
+    /** The last assignment to the variable, which is unused if {@link #unused} is set. */
+    @Nullable TreePath unusedAssignment;
 
+    /** The last site the variable was definitely assigned at. */
+    @Nullable TreePath assignmentSite;
+
+    /** Whether the variable was _ever_ used (between reassignments). */
+    boolean isEverUsed;
+
+    /**
+     * The usage sites of the last assignment: the assignment itself, and all the statements writing
+     * to the variable since.
+     */
+    final List<TreePath> usageSites = new ArrayList<>();
+
+    /** Assignments which were overwritten before being read. */
+    final List<UnusedSpec> unusedSpecs = new ArrayList<>();
+  }
+
+  /**
+   * Scans a compilation unit once, collecting candidate variable declarations along with their uses
+   * and reassignments, and the facts needed to exempt variables from being reported.
+   */
+  private final class VariableScanner extends TreePathScanner<Void, Void> {
+    private final JavaFileObject sourceFile;
     private final VisitorState state;
-    private final ImmutableMultimap<MethodSymbol, MethodSymbol> superMethodsToOverrides;
 
-    private VariableFinder(
-        VisitorState state, ImmutableMultimap<MethodSymbol, MethodSymbol> superMethodsToOverrides) {
+    /** Candidate variables, plus any variables referenced before their declaration. */
+    private final Map<Symbol, VariableInfo> variables = new LinkedHashMap<>();
+
+    /** Methods declared in this compilation unit which are overridden within it. */
+    private final Set<MethodSymbol> overriddenMethods = new HashSet<>();
+
+    /** Invocations of methods declared in this compilation unit, for removing parameters. */
+    private final ListMultimap<MethodSymbol, MethodInvocationTree> invocations =
+        ArrayListMultimap.create();
+
+    private boolean hasNativeMethods = false;
+
+    // Whether variable declarations are candidates for being reported; this is false within
+    // suppressed or exempted code, which is still scanned for uses.
+    private boolean collectDeclarations = true;
+
+    private boolean leftHandSideAssignment = false;
+    // When this greater than zero, the usage of identifiers are real.
+    private int inArrayAccess = 0;
+    // This is true when we are processing a `return` statement. Elements used in return statement
+    // must not be considered unused.
+    private boolean inReturnStatement = false;
+    // When this greater than zero, the usage of identifiers are real because they are in a method
+    // call.
+    private int inMethodCall = 0;
+
+    private TreePath currentExpressionStatement = null;
+
+    private VariableScanner(JavaFileObject sourceFile, VisitorState state) {
+      this.sourceFile = sourceFile;
       this.state = state;
-      this.superMethodsToOverrides = superMethodsToOverrides;
+    }
+
+    private boolean isInExpressionStatementTree() {
+      Tree parent = getCurrentPath().getParentPath().getLeaf();
+      return parent instanceof ExpressionStatementTree;
+    }
+
+    private boolean isRealUse() {
+      return !leftHandSideAssignment || inReturnStatement || inArrayAccess > 0 || inMethodCall > 0;
+    }
+
+    /**
+     * Returns the record of a variable which is still considered unused, or null. Fields and
+     * parameters which are referenced before their declaration is reached get a provisional record,
+     * which is discarded if the declaration turns out not to be a candidate.
+     */
+    private @Nullable VariableInfo unusedVariable(@Nullable Symbol symbol, Tree reference) {
+      VariableInfo info = variables.get(symbol);
+      if (info == null && isDeclaredLater(symbol, reference)) {
+        info = new VariableInfo();
+        variables.put(symbol, info);
+      }
+      return info != null && info.unused ? info : null;
+    }
+
+    private boolean isDeclaredLater(@Nullable Symbol symbol, Tree reference) {
+      return symbol instanceof VarSymbol varSymbol
+          && (varSymbol.getKind() == ElementKind.FIELD
+              || varSymbol.getKind() == ElementKind.PARAMETER)
+          && varSymbol.pos > getStartPosition(reference)
+          && sourceFile.equals(varSymbol.enclClass().sourcefile);
     }
 
     @Override
-    public Void visitVariable(VariableTree variableTree, Void unused) {
-      handleVariable(variableTree);
-      return super.visitVariable(variableTree, null);
+    public Void visitVariable(VariableTree tree, Void unused) {
+      VarSymbol symbol = getSymbol(tree);
+      VariableInfo provisional = variables.remove(symbol);
+      if (collectDeclarations) {
+        handleVariable(tree, symbol, provisional);
+      }
+      VariableInfo info = variables.get(symbol);
+      if (info != null && hasBeenAssigned(tree, symbol, info)) {
+        info.assignmentSite = getCurrentPath();
+      }
+      return super.visitVariable(tree, null);
     }
 
-    private void handleVariable(VariableTree variableTree) {
+    private void handleVariable(
+        VariableTree variableTree, VarSymbol symbol, @Nullable VariableInfo provisional) {
       if (exemptedByName(variableTree.getName())) {
         return;
       }
       if (isSuppressed(variableTree, state)) {
         return;
       }
-      VarSymbol symbol = getSymbol(variableTree);
       var parent = getCurrentPath().getParentPath().getLeaf();
       if (parent instanceof LambdaExpressionTree) {
         if (FUNCTIONAL_INTERFACE_TYPES_TO_CHECK.stream()
             .anyMatch(t -> isSubtype(getType(parent), state.getTypeFromString(t), state))) {
-          unusedElements.put(symbol, getCurrentPath());
-          usageSites.put(symbol, getCurrentPath());
+          declare(symbol, provisional, /* isMethodParameter= */ false);
         }
         return;
       }
@@ -706,20 +748,15 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
         case FIELD -> {
           // We are only interested in private fields and those which are not special.
           if (isFieldEligibleForChecking(variableTree, symbol)) {
-            unusedElements.put(symbol, getCurrentPath());
-            usageSites.put(symbol, getCurrentPath());
+            declare(symbol, provisional, /* isMethodParameter= */ false);
           }
         }
-        case LOCAL_VARIABLE -> {
-          unusedElements.put(symbol, getCurrentPath());
-          usageSites.put(symbol, getCurrentPath());
-        }
+        case LOCAL_VARIABLE -> declare(symbol, provisional, /* isMethodParameter= */ false);
         case BINDING_VARIABLE -> {
           if (parent instanceof BindingPatternTree
               && getCurrentPath().getParentPath().getParentPath().getLeaf()
                   instanceof InstanceOfTree) {
-            unusedElements.put(symbol, getCurrentPath());
-            usageSites.put(symbol, getCurrentPath());
+            declare(symbol, provisional, /* isMethodParameter= */ false);
           }
         }
         case PARAMETER -> {
@@ -734,15 +771,27 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
           if (hasRecordFlag(symbol.owner)) {
             return;
           }
-          unusedElements.put(symbol, getCurrentPath());
-          if (!isParameterSubjectToAnalysis(symbol)) {
-            onlyCheckForReassignments.add(symbol);
-          }
+          declare(symbol, provisional, /* isMethodParameter= */ true);
         }
         default -> {}
       }
     }
 
+    private void declare(
+        VarSymbol symbol, @Nullable VariableInfo provisional, boolean isMethodParameter) {
+      VariableInfo info = provisional == null ? new VariableInfo() : provisional;
+      TreePath path = getCurrentPath();
+      info.declarationSite = path;
+      info.declarationDepth = scopeDepth(path);
+      info.isMethodParameter = isMethodParameter;
+      info.unusedAssignment = path;
+      if (!isMethodParameter) {
+        // Method parameters can't be removed like other declarations, so they aren't usage sites.
+        info.usageSites.add(0, path);
+      }
+      variables.put(symbol, info);
+    }
+
     private boolean exemptedFieldBySuperType(Type type, VisitorState state) {
       return EXEMPTING_FIELD_SUPER_TYPES.stream()
           .anyMatch(t -> isSubtype(type, state.getTypeFromString(t), state));
@@ -766,14 +815,17 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
       return (symbol.flags() & RECORD_FLAG) == RECORD_FLAG;
     }
 
-    /** Returns whether {@code sym} can be removed without updating call sites in other files. */
+    /**
+     * Returns whether {@code sym} can be removed without updating call sites in other files. Only
+     * meaningful once the whole compilation unit has been scanned.
+     */
     private boolean isParameterSubjectToAnalysis(Symbol sym) {
       checkArgument(sym.getKind() == ElementKind.PARAMETER);
       Symbol enclosingMethod = sym.owner;
 
       if (!(enclosingMethod instanceof MethodSymbol methodSymbol)
           || isAbstract(methodSymbol)
-          || superMethodsToOverrides.containsKey(enclosingMethod)) {
+          || overriddenMethods.contains(enclosingMethod)) {
         return false;
       }
 
@@ -810,9 +862,25 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
               functionalInterfaceMethod, method.owner.type.tsym, state.getTypes(), true);
     }
 
+    private boolean hasBeenAssigned(VariableTree tree, VarSymbol symbol, VariableInfo info) {
+      // Parameters and enhanced for loop variables are always considered assigned.
+      if (symbol.getKind() == ElementKind.PARAMETER) {
+        return true;
+      }
+      if (getCurrentPath().getParentPath().getLeaf() instanceof EnhancedForLoopTree) {
+        return true;
+      }
+      // Otherwise it's assigned if the VariableTree has an initializer.
+      return info.unused && tree.getInitializer() != null;
+    }
+
     @Override
     public Void visitTry(TryTree node, Void unused) {
-      // Skip resources, as while these may not be referenced, they are used.
+      // Don't collect resources, as while these may not be referenced, they are used.
+      boolean wasCollectingDeclarations = collectDeclarations;
+      collectDeclarations = false;
+      scan(node.getResources(), null);
+      collectDeclarations = wasCollectingDeclarations;
       scan(node.getBlock(), null);
       scan(node.getCatches(), null);
       scan(node.getFinallyBlock(), null);
@@ -821,94 +889,48 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
 
     @Override
     public Void visitClass(ClassTree tree, Void unused) {
-      if (isSuppressed(tree, state)) {
-        return null;
-      }
-      if (EXEMPTING_SUPER_TYPES.stream()
-          .anyMatch(t -> isSubtype(getType(tree), Suppliers.typeFromString(t).get(state), state))) {
-        return null;
-      }
-      return super.visitClass(tree, null);
+      boolean wasCollectingDeclarations = collectDeclarations;
+      collectDeclarations =
+          wasCollectingDeclarations
+              && !isSuppressed(tree, state)
+              && EXEMPTING_SUPER_TYPES.stream()
+                  .noneMatch(
+                      t -> isSubtype(getType(tree), Suppliers.typeFromString(t).get(state), state));
+      super.visitClass(tree, null);
+      collectDeclarations = wasCollectingDeclarations;
+      return null;
     }
 
     @Override
     public Void visitMethod(MethodTree tree, Void unused) {
-      if (SERIALIZATION_METHODS.matches(tree, state)) {
-        return scan(tree.getBody(), null);
-      }
-      return isSuppressed(tree, state) ? null : super.visitMethod(tree, null);
-    }
-  }
-
-  private static final class FilterUsedVariables extends TreePathScanner<Void, Void> {
-    private boolean leftHandSideAssignment = false;
-    // When this greater than zero, the usage of identifiers are real.
-    private int inArrayAccess = 0;
-    // This is true when we are processing a `return` statement. Elements used in return statement
-    // must not be considered unused.
-    private boolean inReturnStatement = false;
-    // When this greater than zero, the usage of identifiers are real because they are in a method
-    // call.
-    private int inMethodCall = 0;
-
-    private final Map<Symbol, TreePath> assignmentSite = new HashMap<>();
-
-    private TreePath currentExpressionStatement = null;
-
-    private final Map<Symbol, TreePath> unusedElements;
-
-    private final ListMultimap<Symbol, TreePath> usageSites;
-
-    // Keeps track of whether a symbol was _ever_ used (between reassignments).
-    private final Set<Symbol> isEverUsed = new HashSet<>();
-
-    private final List<UnusedSpec> unusedSpecs = new ArrayList<>();
-
-    private final ImmutableMap<Symbol, TreePath> declarationSites;
-
-    private FilterUsedVariables(
-        Map<Symbol, TreePath> unusedElements, ListMultimap<Symbol, TreePath> usageSites) {
-      this.unusedElements = unusedElements;
-      this.usageSites = usageSites;
-      this.declarationSites = ImmutableMap.copyOf(unusedElements);
-    }
-
-    private boolean isInExpressionStatementTree() {
-      Tree parent = getCurrentPath().getParentPath().getLeaf();
-      return parent instanceof ExpressionStatementTree;
-    }
-
-    private boolean isUsed(@Nullable Symbol symbol) {
-      return symbol != null
-          && (!leftHandSideAssignment || inReturnStatement || inArrayAccess > 0 || inMethodCall > 0)
-          && unusedElements.containsKey(symbol);
-    }
-
-    @Override
-    public Void visitVariable(VariableTree tree, Void unused) {
-      VarSymbol symbol = getSymbol(tree);
-      if (hasBeenAssigned(tree, symbol)) {
-        assignmentSite.put(symbol, getCurrentPath());
-      }
-      return super.visitVariable(tree, null);
-    }
-
-    private boolean hasBeenAssigned(VariableTree tree, VarSymbol symbol) {
-      if (symbol == null) {
-        return false;
-      }
-      // Parameters and enhanced for loop variables are always considered assigned.
-      if (symbol.getKind() == ElementKind.PARAMETER) {
-        return true;
+      MethodSymbol symbol = getSymbol(tree);
+      if (tree.getModifiers().getFlags().contains(Modifier.NATIVE)) {
+        hasNativeMethods = true;
       }
-      if (getCurrentPath().getParentPath().getLeaf() instanceof EnhancedForLoopTree) {
-        return true;
+      // Overriding a method without parameters can't affect whether any parameters are reported.
+      if (!symbol.getParameters().isEmpty()) {
+        findSuperMethods(symbol, state).stream()
+            .filter(m -> sourceFile.equals(m.enclClass().sourcefile))
+            .forEach(overriddenMethods::add);
       }
-      // Otherwise it's assigned if the VariableTree has an initializer.
-      if (unusedElements.containsKey(symbol) && tree.getInitializer() != null) {
-        return true;
+      boolean wasCollectingDeclarations = collectDeclarations;
+      if (wasCollectingDeclarations && SERIALIZATION_METHODS.matches(tree, state)) {
+        // Only the body of serialization methods is checked; their signature is fixed.
+        collectDeclarations = false;
+        scan(tree.getModifiers(), null);
+        scan(tree.getReturnType(), null);
+        scan(tree.getTypeParameters(), null);
+        scan(tree.getParameters(), null);
+        scan(tree.getReceiverParameter(), null);
+        scan(tree.getThrows(), null);
+        collectDeclarations = wasCollectingDeclarations;
+        scan(tree.getBody(), null);
+        return null;
       }
-      return false;
+      collectDeclarations = wasCollectingDeclarations && !isSuppressed(tree, state);
+      super.visitMethod(tree, null);
+      collectDeclarations = wasCollectingDeclarations;
+      return null;
     }
 
     @Override
@@ -921,13 +943,16 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
 
     @Override
     public Void visitIdentifier(IdentifierTree tree, Void unused) {
-      Symbol symbol = getSymbol(tree);
-      // Filtering out identifier symbol from vars map. These are real usages of identifiers.
-      if (isUsed(symbol)) {
-        unusedElements.remove(symbol);
+      VariableInfo info = unusedVariable(getSymbol(tree), tree);
+      if (info == null) {
+        return null;
       }
-      if (currentExpressionStatement != null && unusedElements.containsKey(symbol)) {
-        usageSites.put(symbol, currentExpressionStatement);
+      // Filtering out identifier symbol from unused variables. These are real usages of
+      // identifiers.
+      if (isRealUse()) {
+        info.unused = false;
+      } else if (currentExpressionStatement != null) {
+        info.usageSites.add(currentExpressionStatement);
       }
       return null;
     }
@@ -964,9 +989,13 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
         return;
       }
       Symbol symbol = getSymbol(tree.getVariable());
+      VariableInfo info = variables.get(symbol);
       // Check if it was actually assigned to at this depth (or is a parameter).
-      if (!((assignmentSite.containsKey(symbol) && symbol.getKind() == ElementKind.LOCAL_VARIABLE)
-          || symbol.getKind() == ElementKind.PARAMETER)) {
+      if (info == null
+          || info.declarationSite == null
+          || info.assignmentSite == null
+          || !(symbol.getKind() == ElementKind.LOCAL_VARIABLE
+              || symbol.getKind() == ElementKind.PARAMETER)) {
         return;
       }
       // Don't regard assigning `null` as a potentially unused assignment, as people do this for GC
@@ -974,50 +1003,30 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
       if (getType(tree.getExpression()) instanceof NullType) {
         return;
       }
-      TreePath lastAssignmentSite = assignmentSite.get(symbol);
-      if (lastAssignmentSite == null) {
-        return;
-      }
-      TreePath declarationSite = declarationSites.get(symbol);
-      if (declarationSite == null) {
-        return;
-      }
-      if (scopeDepth(declarationSite) != Iterables.size(getCurrentPath().getParentPath())) {
+      if (info.declarationDepth != Iterables.size(getCurrentPath().getParentPath())) {
         return;
       }
-      if (unusedElements.containsKey(symbol)) {
-        unusedSpecs.add(UnusedSpec.of(symbol, lastAssignmentSite, usageSites.get(symbol), tree));
+      if (info.unused) {
+        info.unusedSpecs.add(UnusedSpec.of(symbol, info.assignmentSite, info.usageSites, tree));
       } else {
-        isEverUsed.add(symbol);
-      }
-      unusedElements.put(symbol, getCurrentPath());
-      usageSites.removeAll(symbol);
-      usageSites.put(symbol, getCurrentPath().getParentPath());
-      assignmentSite.put(symbol, getCurrentPath().getParentPath());
-    }
-
-    // This is a crude proxy for when a variable is unconditionally overwritten. It doesn't match
-    // all cases, but it catches a reassignment at the same depth.
-    private static int scopeDepth(TreePath assignmentSite) {
-      if (assignmentSite.getParentPath().getLeaf() instanceof EnhancedForLoopTree) {
-        return Iterables.size(assignmentSite) + 1;
-      }
-      if (assignmentSite.getLeaf() instanceof VariableTree variableTree) {
-        VarSymbol symbol = getSymbol(variableTree);
-        if (symbol.getKind() == ElementKind.PARAMETER) {
-          return Iterables.size(assignmentSite) + 1;
-        }
+        info.isEverUsed = true;
       }
-      return Iterables.size(assignmentSite);
+      info.unused = true;
+      info.unusedAssignment = getCurrentPath();
+      info.usageSites.clear();
+      info.usageSites.add(getCurrentPath().getParentPath());
+      info.assignmentSite = getCurrentPath().getParentPath();
     }
 
     @Override
     public Void visitMemberSelect(MemberSelectTree memberSelectTree, Void unused) {
-      Symbol symbol = getSymbol(memberSelectTree);
-      if (isUsed(symbol)) {
-        unusedElements.remove(symbol);
-      } else if (currentExpressionStatement != null && unusedElements.containsKey(symbol)) {
-        usageSites.put(symbol, currentExpressionStatement);
+      VariableInfo info = unusedVariable(getSymbol(memberSelectTree), memberSelectTree);
+      if (info != null) {
+        if (isRealUse()) {
+          info.unused = false;
+        } else if (currentExpressionStatement != null) {
+          info.usageSites.add(currentExpressionStatement);
+        }
       }
       // Clear leftHandSideAssignment and descend down the tree to catch any variables in the
       // receiver of this member select, which _are_ considered used.
@@ -1032,7 +1041,12 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
     public Void visitMemberReference(MemberReferenceTree tree, Void unused) {
       super.visitMemberReference(tree, null);
       MethodSymbol symbol = getSymbol(tree);
-      symbol.getParameters().forEach(unusedElements::remove);
+      for (VarSymbol parameter : symbol.getParameters()) {
+        VariableInfo info = unusedVariable(parameter, tree);
+        if (info != null) {
+          info.unused = false;
+        }
+      }
       return null;
     }
 
@@ -1091,15 +1105,24 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
 
     @Override
     public Void visitErroneous(ErroneousTree tree, Void unused) {
-      return scan(tree.getErrorTrees(), null);
+      boolean wasCollectingDeclarations = collectDeclarations;
+      collectDeclarations = false;
+      scan(tree.getErrorTrees(), null);
+      collectDeclarations = wasCollectingDeclarations;
+      return null;
     }
 
     /**
-     * Looks at method invocations and removes the invoked private methods from {@code
-     * #unusedElements}.
+     * Looks at method invocations: arguments are real usages, and invocations of methods in this
+     * compilation unit are recorded in case one of their parameters needs to be removed.
      */
     @Override
     public Void visitMethodInvocation(MethodInvocationTree tree, Void unused) {
+      if (getSymbol(tree.getMethodSelect()) instanceof MethodSymbol methodSymbol
+          && !methodSymbol.getParameters().isEmpty()
+          && sourceFile.equals(methodSymbol.enclClass().sourcefile)) {
+        invocations.put((MethodSymbol) methodSymbol.baseSymbol(), tree);
+      }
       inMethodCall++;
       super.visitMethodInvocation(tree, null);
       inMethodCall--;
@@ -1107,6 +1130,21 @@ public final class UnusedVariable extends BugChecker implements CompilationUnitT
     }
   }
 
+  // This is a crude proxy for when a variable is unconditionally overwritten. It doesn't match
+  // all cases, but it catches a reassignment at the same depth.
+  private static int scopeDepth(TreePath assignmentSite) {
+    if (assignmentSite.getParentPath().getLeaf() instanceof EnhancedForLoopTree) {
+      return Iterables.size(assignmentSite) + 1;
+    }
+    if (assignmentSite.getLeaf() instanceof VariableTree variableTree) {
+      VarSymbol symbol = getSymbol(variableTree);
+      if (symbol.getKind() == ElementKind.PARAMETER) {
+        return Iterables.size(assignmentSite) + 1;
+      }
+    }
+    return Iterables.size(assignmentSite);
+  }
+
   /**
    * @param symbol {@link Symbol} of the unused element.
    * @param assignmentPath {@link VariableTree} or {@link AssignmentTree} for the original
@@ -54,6 +54,11 @@ public record ApiDiff(
     return unsupportedClasses().contains(className);
   }
 
+  /** Returns true if any member of the class with the given binary name is unsupported. */
+  boolean hasUnsupportedMembers(String className) {
+    return unsupportedMembersByClass().containsKey(className);
+  }
+
   /** Returns true if the member with the given declaring class is unsupported. */
   boolean isMemberUnsupported(String className, ClassMemberKey memberKey) {
     return unsupportedMembersByClass().containsEntry(className, memberKey)
@@ -26,6 +26,7 @@ import com.google.errorprone.bugpatterns.BugChecker.IdentifierTreeMatcher;
 import com.google.errorprone.bugpatterns.BugChecker.MemberSelectTreeMatcher;
 import com.google.errorprone.bugpatterns.apidiff.ApiDiff.ClassMemberKey;
 import com.google.errorprone.matchers.Description;
+import com.google.errorprone.suppliers.Supplier;
 import com.google.errorprone.util.ASTHelpers;
 import com.google.errorprone.util.Signatures;
 import com.sun.source.tree.ExpressionTree;
@@ -38,6 +39,8 @@ import com.sun.tools.javac.code.Symbol.MethodSymbol;
 import com.sun.tools.javac.code.Symbol.VarSymbol;
 import com.sun.tools.javac.code.Type;
 import java.lang.annotation.Annotation;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import org.jspecify.annotations.Nullable;
 
@@ -82,7 +85,7 @@ public abstract class ApiDiffChecker extends BugChecker
       return Description.NO_MATCH;
     }
     // check for information associated with the class
-    if (apiDiff.isClassUnsupported(Signatures.classDescriptor(receiver.type, state))
+    if (apiDiff.isClassUnsupported(classDescriptor(receiver, state))
         || classOrEnclosingClassIsForbiddenByAnnotation(receiver, state)) {
       return buildDescription(tree).setMessage("%s is not available", receiver).build();
     }
@@ -90,12 +93,8 @@ public abstract class ApiDiffChecker extends BugChecker
     if (!(sym instanceof VarSymbol || sym instanceof MethodSymbol)) {
       return Description.NO_MATCH;
     }
-    ClassMemberKey memberKey =
-        ClassMemberKey.create(
-            sym.getSimpleName().toString(), Signatures.descriptor(sym.type, state));
     ClassSymbol owner = enclosingClass(sym);
-    if (apiDiff.isMemberUnsupported(Signatures.classDescriptor(owner.type, state), memberKey)
-        || hasAnnotationForbiddingUse(sym, state)) {
+    if (isMemberUnsupported(owner, sym, state) || hasAnnotationForbiddingUse(sym, state)) {
       return buildDescription(tree)
           .setMessage("%s#%s is not available in %s", owner, sym, receiver)
           .build();
@@ -103,6 +102,33 @@ public abstract class ApiDiffChecker extends BugChecker
     return Description.NO_MATCH;
   }
 
+  private boolean isMemberUnsupported(ClassSymbol owner, Symbol sym, VisitorState state) {
+    String ownerDescriptor = classDescriptor(owner, state);
+    // Only a small fraction of classes have unsupported members, so avoid computing the member's
+    // descriptor for all the others.
+    if (!apiDiff.hasUnsupportedMembers(ownerDescriptor)) {
+      return false;
+    }
+    ClassMemberKey memberKey =
+        ClassMemberKey.create(
+            sym.getSimpleName().toString(), Signatures.descriptor(sym.type, state));
+    return apiDiff.isMemberUnsupported(ownerDescriptor, memberKey);
+  }
+
+  /** The binary names of the classes seen in this compilation. */
+  private static final Supplier<Map<ClassSymbol, String>> CLASS_DESCRIPTORS =
+      VisitorState.memoize(unused -> new HashMap<>());
+
+  private static String classDescriptor(ClassSymbol clazz, VisitorState state) {
+    Map<ClassSymbol, String> classDescriptors = CLASS_DESCRIPTORS.get(state);
+    String descriptor = classDescriptors.get(clazz);
+    if (descriptor == null) {
+      descriptor = Signatures.classDescriptor(clazz.type, state);
+      classDescriptors.put(clazz, descriptor);
+    }
+    return descriptor;
+  }
+
   private boolean classOrEnclosingClassIsForbiddenByAnnotation(Symbol clazz, VisitorState state) {
     if (alsoForbidApisAnnotated.isEmpty()) {
       return false;
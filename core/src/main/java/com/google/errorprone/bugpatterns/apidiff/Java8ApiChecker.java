@@ -19,6 +19,8 @@ package com.google.errorprone.bugpatterns.apidiff;
 import static com.google.common.collect.ImmutableSetMultimap.toImmutableSetMultimap;
 import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.io.Resources;
 import com.google.errorprone.BugPattern;
@@ -28,6 +30,8 @@ import com.google.protobuf.ExtensionRegistry;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
 
@@ -41,33 +45,50 @@ import javax.inject.Inject;
     severity = ERROR)
 public class Java8ApiChecker extends ApiDiffChecker {
 
-  private static ApiDiff loadApiDiff(ErrorProneFlags errorProneFlags) {
+  /** The bundled diff, which is only loaded once per JVM. */
+  private static final Supplier<ApiDiff> BUNDLED_API_DIFF =
+      Suppliers.memoize(Java8ApiChecker::loadBundledApiDiff);
+
+  /** The bundled diff filtered for each combination of flags, shared by all instances. */
+  private static final ConcurrentMap<DiffOptions, ApiDiff> API_DIFFS = new ConcurrentHashMap<>();
+
+  private record DiffOptions(boolean checkBuffer, boolean checkChecksum) {}
+
+  private static ApiDiff loadBundledApiDiff() {
     try {
       byte[] diffData =
           Resources.toByteArray(
               Resources.getResource(Java8ApiChecker.class, "8-to-lts-diff.binarypb"));
-      ApiDiff diff =
-          ApiDiff.fromProto(
-              ApiDiffProto.Diff.newBuilder()
-                  .mergeFrom(diffData, ExtensionRegistry.getEmptyRegistry())
-                  .build());
-      boolean checkBuffer = errorProneFlags.getBoolean("Java8ApiChecker:checkBuffer").orElse(true);
-      boolean checkChecksum =
-          errorProneFlags.getBoolean("Java8ApiChecker:checkChecksum").orElse(true);
-      if (checkBuffer && checkChecksum) {
-        return diff;
-      }
-      ImmutableSetMultimap<String, ClassMemberKey> unsupportedMembers =
-          diff.unsupportedMembersByClass().entries().stream()
-              .filter(e -> checkBuffer || !BUFFER.matcher(e.getKey()).matches())
-              .filter(e -> checkChecksum || !e.getKey().equals(CHECKSUM))
-              .collect(toImmutableSetMultimap(Map.Entry::getKey, Map.Entry::getValue));
-      return ApiDiff.fromMembers(diff.unsupportedClasses(), unsupportedMembers);
+      return ApiDiff.fromProto(
+          ApiDiffProto.Diff.newBuilder()
+              .mergeFrom(diffData, ExtensionRegistry.getEmptyRegistry())
+              .build());
     } catch (IOException e) {
       throw new UncheckedIOException(e);
     }
   }
 
+  private static ApiDiff loadApiDiff(ErrorProneFlags errorProneFlags) {
+    boolean checkBuffer = errorProneFlags.getBoolean("Java8ApiChecker:checkBuffer").orElse(true);
+    boolean checkChecksum =
+        errorProneFlags.getBoolean("Java8ApiChecker:checkChecksum").orElse(true);
+    return API_DIFFS.computeIfAbsent(
+        new DiffOptions(checkBuffer, checkChecksum), Java8ApiChecker::filterApiDiff);
+  }
+
+  private static ApiDiff filterApiDiff(DiffOptions options) {
+    ApiDiff diff = BUNDLED_API_DIFF.get();
+    if (options.checkBuffer() && options.checkChecksum()) {
+      return diff;
+    }
+    ImmutableSetMultimap<String, ClassMemberKey> unsupportedMembers =
+        diff.unsupportedMembersByClass().entries().stream()
+            .filter(e -> options.checkBuffer() || !BUFFER.matcher(e.getKey()).matches())
+            .filter(e -> options.checkChecksum() || !e.getKey().equals(CHECKSUM))
+            .collect(toImmutableSetMultimap(Map.Entry::getKey, Map.Entry::getValue));
+    return ApiDiff.fromMembers(diff.unsupportedClasses(), unsupportedMembers);
+  }
+
   private static final Pattern BUFFER = Pattern.compile("java/nio/.*Buffer");
 
   private static final String CHECKSUM = "java/util/zip/Checksum";
@@ -86,6 +86,13 @@ record ArgumentChangeFinder(
 
     Costs costs = new Costs(formals, actuals);
 
+    /* If the arguments are already in a zero-cost order, e.g. because their names match the
+    parameters or they are literals, then no permutation can be better. This avoids the type
+    checks and distance computations for all other pairs. */
+    if (!costs.updateOriginalPairs(distanceFunction())) {
+      return Changes.empty();
+    }
+
     /* Set the distance between a pair to Inf if not assignable */
     costs
         .viablePairs()
@@ -99,8 +106,11 @@ record ArgumentChangeFinder(
       return Changes.empty();
     }
 
-    /* Set the lexical distance between pairs */
-    costs.viablePairs().forEach(p -> costs.updatePair(p, distanceFunction().apply(p)));
+    /* Set the lexical distance between the remaining pairs */
+    costs
+        .viablePairs()
+        .filter(ParameterPair::isAlternativePairing)
+        .forEach(p -> costs.updatePair(p, distanceFunction().apply(p)));
 
     Changes changes = costs.computeAssignments();
 
@@ -18,6 +18,8 @@ package com.google.errorprone.bugpatterns.argumentselectiondefects;
 
 import static com.google.errorprone.BugPattern.SeverityLevel.WARNING;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.errorprone.BugPattern;
 import com.google.errorprone.VisitorState;
@@ -137,17 +139,29 @@ public class ArgumentSelectionDefectChecker extends BugChecker
     }
 
     if (!pair.formal().isUnknownName() && !pair.actual().isUnknownName()) {
-      String normalizedSource = NamingConventions.convertToLowerUnderscore(pair.formal().name());
-      String normalizedTarget = NamingConventions.convertToLowerUnderscore(pair.actual().name());
+      return NAME_DISTANCES.get(
+          new NamePair(pair.formal().name(), pair.actual().name()), NamePair::distance);
+    }
+
+    return pair.formal().index() == pair.actual().index() ? 0.0 : Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * The distances between parameter and argument names. The same names, e.g. {@code expected} and
+   * {@code actual} in assertion-heavy tests, are compared over and over again.
+   */
+  private static final Cache<NamePair, Double> NAME_DISTANCES =
+      Caffeine.newBuilder().maximumSize(10_000).build();
+
+  private record NamePair(String source, String target) {
+    double distance() {
       return NeedlemanWunschEditDistance.getNormalizedEditDistance(
-          /* source= */ normalizedSource,
-          /* target= */ normalizedTarget,
+          /* source= */ NamingConventions.convertToLowerUnderscore(source),
+          /* target= */ NamingConventions.convertToLowerUnderscore(target),
           /* caseSensitive= */ false,
           /* changeCost= */ 8,
           /* openGapCost= */ 8,
           /* continueGapCost= */ 1);
     }
-
-    return pair.formal().index() == pair.actual().index() ? 0.0 : Double.POSITIVE_INFINITY;
   }
 }
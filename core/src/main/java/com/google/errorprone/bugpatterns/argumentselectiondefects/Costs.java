@@ -20,6 +20,7 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 
 import blogspot.software_and_algorithms.stern_library.optimization.HungarianAlgorithm;
 import com.google.common.collect.ImmutableList;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
@@ -94,6 +95,21 @@ final class Costs {
             p -> costMatrix[p.formal().index()][p.actual().index()] != Double.POSITIVE_INFINITY);
   }
 
+  /**
+   * Sets the cost of pairing each formal parameter with the actual parameter in the same position,
+   * and returns true if any of those costs are non-zero.
+   */
+  boolean updateOriginalPairs(Function<ParameterPair, Double> distanceFunction) {
+    boolean nonZero = false;
+    for (Parameter formal : formals) {
+      double cost =
+          distanceFunction.apply(ParameterPair.create(formal, actuals.get(formal.index())));
+      costMatrix[formal.index()][formal.index()] = cost;
+      nonZero |= cost != 0.0;
+    }
+    return nonZero;
+  }
+
   /** Update the cost of the given pairing. */
   void updatePair(ParameterPair p, double cost) {
     costMatrix[p.formal().index()][p.actual().index()] = cost;
@@ -172,7 +172,8 @@ record Parameter(String name, Type type, int index, String text, Kind kind, bool
       case MethodInvocationTree methodInvocationTree -> {
         MethodSymbol methodSym = ASTHelpers.getSymbol(methodInvocationTree);
         String name = methodSym.getSimpleName().toString();
-        ImmutableList<String> terms = NamingConventions.splitToLowercaseTerms(name);
+        ImmutableList<String> terms =
+            NamingConventions.splitToLowercaseTerms(methodSym.getSimpleName());
         String firstTerm = Iterables.getFirst(terms, null);
         if (METHODNAME_PREFIXES_TO_REMOVE.contains(firstTerm)) {
           if (terms.size() == 1) {
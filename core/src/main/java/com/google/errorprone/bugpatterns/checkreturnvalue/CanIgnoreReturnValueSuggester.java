@@ -150,7 +150,7 @@ public final class CanIgnoreReturnValueSuggester extends BugChecker implements M
     }
 
     // Don't fire on overrides of methods within anonymous classes.
-    if (streamSuperMethods(methodSymbol, state.getTypes()).findFirst().isPresent()
+    if (streamSuperMethods(methodSymbol, state).findFirst().isPresent()
         && methodSymbol.owner.isAnonymous()) {
       return Description.NO_MATCH;
     }
@@ -16,7 +16,6 @@
 
 package com.google.errorprone.bugpatterns.checkreturnvalue;
 
-import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.ImmutableSetMultimap.toImmutableSetMultimap;
 import static com.google.common.io.MoreFiles.asCharSource;
 import static com.google.common.io.Resources.asCharSource;
@@ -24,8 +23,9 @@ import static com.google.common.io.Resources.getResource;
 import static com.google.errorprone.bugpatterns.checkreturnvalue.ApiFactory.fullyErasedAndUnannotatedType;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.io.CharSource;
@@ -39,7 +39,11 @@ import com.sun.tools.javac.code.Types;
 import com.sun.tools.javac.util.List;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -108,6 +112,12 @@ public final class ExternalCanIgnoreReturnValue extends ErrorProneMethodRule {
       MethodPredicate load(String file) throws IOException {
         return configByInterpretingMethodsAsStrings(asCharSource(getResource(file), UTF_8));
       }
+
+      @Override
+      long lastModified(String file) {
+        // Resources on the classpath don't change during the lifetime of the JVM.
+        return 0;
+      }
     },
     PARSE_TOKENS {
       @Override
@@ -117,39 +127,105 @@ public final class ExternalCanIgnoreReturnValue extends ErrorProneMethodRule {
     };
 
     abstract MethodPredicate load(String file) throws IOException;
+
+    /** Returns the last modification time of the given {@code file}, used to detect changes. */
+    long lastModified(String file) throws IOException {
+      return Files.getLastModifiedTime(Paths.get(file)).toMillis();
+    }
   }
 
+  /** Identifies a version of an exclusion list loaded with a given parser. */
+  private record LoadedConfigKey(String file, ConfigParser configParser, long lastModified) {}
+
+  /**
+   * Exclusion lists loaded in this JVM. Lists are large and expensive to parse, so they're shared
+   * across compilations (e.g. in a persistent compiler worker), and reloaded if modified.
+   */
+  private static final Cache<LoadedConfigKey, MethodPredicate> LOADED_CONFIGS =
+      Caffeine.newBuilder().maximumSize(4).softValues().build();
+
   static MethodPredicate loadConfigListFromFile(String filename, ConfigParser configParser) {
     try {
-      return configParser.load(filename);
+      LoadedConfigKey key =
+          new LoadedConfigKey(filename, configParser, configParser.lastModified(filename));
+      return LOADED_CONFIGS.get(
+          key,
+          k -> {
+            try {
+              return k.configParser().load(k.file());
+            } catch (IOException e) {
+              throw loadingFailed(e);
+            }
+          });
     } catch (IOException e) {
-      throw new UncheckedIOException(
-          "Could not load external resource for CanIgnoreReturnValue", e);
+      throw loadingFailed(e);
     }
   }
 
+  private static UncheckedIOException loadingFailed(IOException e) {
+    return new UncheckedIOException("Could not load external resource for CanIgnoreReturnValue", e);
+  }
+
   private static MethodPredicate configByInterpretingMethodsAsStrings(CharSource file)
       throws IOException {
-    ImmutableSet<String> apis;
+    SignatureTable apis;
     // NB: No whitespace stripping here
     try (Stream<String> lines = file.lines()) {
-      apis = lines.collect(toImmutableSet());
+      apis = new SignatureTable(lines);
     }
-    return new MethodPredicate() {
-      @Override
-      public boolean methodMatches(MethodSymbol methodSymbol, VisitorState state) {
-        // Construct an API identifier for this method, which involves erasing parameter types
-        return apis.contains(apiSignature(methodSymbol, state.getTypes()));
+    // Most methods belong to classes without any listed APIs, so whether each class has any is
+    // checked first, and remembered for the rest of the compilation. This avoids building the
+    // class name and erasing the parameter types for every lookup.
+    Supplier<Map<Symbol, Boolean>> listedClasses = VisitorState.memoize(unused -> new HashMap<>());
+    return (methodSymbol, state) -> {
+      Symbol owner = methodSymbol.owner;
+      Map<Symbol, Boolean> classes = listedClasses.get(state);
+      Boolean listed = classes.get(owner);
+      if (listed == null) {
+        listed = apis.containsPrefix(classPrefix(owner));
+        classes.put(owner, listed);
       }
-
-      private String apiSignature(MethodSymbol methodSymbol, Types types) {
-        return methodSymbol.owner.getQualifiedName()
-            + "#"
-            + methodNameAndParams(methodSymbol, types);
+      if (!listed) {
+        return false;
       }
+      // Construct an API identifier for this method, which involves erasing parameter types
+      return apis.contains(
+          classPrefix(owner) + methodNameAndParams(methodSymbol, state.getTypes()));
     };
   }
 
+  private static String classPrefix(Symbol owner) {
+    return owner.getQualifiedName() + "#";
+  }
+
+  /**
+   * A sorted table of API signatures (e.g. {@code com.foo.Bar#baz(int,java.lang.String)}), which is
+   * considerably more compact than a hash set for lists of many thousands of APIs, and supports
+   * prefix queries for classes and packages.
+   */
+  static final class SignatureTable {
+    private final String[] signatures;
+
+    SignatureTable(Stream<String> signatures) {
+      this.signatures = signatures.sorted().distinct().toArray(String[]::new);
+    }
+
+    /** Returns whether the table contains the given {@code signature}. */
+    boolean contains(String signature) {
+      return Arrays.binarySearch(signatures, signature) >= 0;
+    }
+
+    /** Returns whether the table contains any signature starting with the given {@code prefix}. */
+    boolean containsPrefix(String prefix) {
+      int index = Arrays.binarySearch(signatures, prefix);
+      if (index >= 0) {
+        return true;
+      }
+      int insertionPoint = -index - 1;
+      return insertionPoint < signatures.length && signatures[insertionPoint].startsWith(prefix);
+    }
+  }
+
   private static MethodPredicate configByParsingApiObjects(CharSource file) throws IOException {
     ImmutableSetMultimap<String, Api> apis;
     try (Stream<String> lines = file.lines()) {
@@ -29,10 +29,16 @@ import com.google.errorprone.bugpatterns.checkreturnvalue.ResultUseRule.Evaluati
 import com.google.errorprone.bugpatterns.checkreturnvalue.ResultUseRule.RuleScope;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Evaluates methods and their enclosing classes and packages to determine a {@link ResultUsePolicy}
@@ -70,6 +76,15 @@ public final class ResultUsePolicyEvaluator<C, S, M extends S> {
     /** Returns the kind of the given method. */
     MethodKind getMethodKind(M method);
 
+    /**
+     * Returns a function from contexts to a value created by {@code factory} once for each
+     * compilation, or null if evaluations must not be memoized. Evaluations of methods and their
+     * enclosing elements are memoized in these values.
+     */
+    default <T> @Nullable Function<C, T> perCompilation(Supplier<T> factory) {
+      return null;
+    }
+
     /** Returns the scopes that apply for the given method. */
     default ImmutableList<RuleScope> scopes(M method) {
       return getMethodKind(method).scopes;
@@ -103,12 +118,16 @@ public final class ResultUsePolicyEvaluator<C, S, M extends S> {
 
   private final MethodInfo<C, S, M> methodInfo;
 
+  /** The evaluations memoized for the compilation of a context, if they are memoized. */
+  private final @Nullable Function<C, MemoizedEvaluations<S, M>> memoizedEvaluations;
+
   private ResultUsePolicyEvaluator(Builder<C, S, M> builder) {
     this.rules =
         builder.rules.stream()
             .flatMap(rule -> rule.scopes().stream().map(scope -> entry(scope, rule)))
             .collect(toImmutableListMultimap(Entry::getKey, Entry::getValue));
     this.methodInfo = builder.methodInfo;
+    this.memoizedEvaluations = methodInfo.perCompilation(MemoizedEvaluations::new);
   }
 
   /**
@@ -116,10 +135,67 @@ public final class ResultUsePolicyEvaluator<C, S, M extends S> {
    * apply to it.
    */
   public ResultUsePolicy evaluate(M method, C state) {
-    return evaluateAcrossScopes(
-            method, state, (rule, scope, symbol, context) -> rule.evaluate(symbol, context))
-        .findFirst()
-        .orElse(UNSPECIFIED);
+    return evaluation(method, state).map(Evaluation::policy).orElse(UNSPECIFIED);
+  }
+
+  /**
+   * Returns the first {@link Evaluation} made by rules starting from the given {@code method},
+   * which is the one that determines its {@link ResultUsePolicy}.
+   */
+  public Optional<Evaluation<S>> evaluation(M method, C state) {
+    if (memoizedEvaluations == null) {
+      return evaluations(method, state).findFirst();
+    }
+    MemoizedEvaluations<S, M> memoized = memoizedEvaluations.apply(state);
+    Optional<Evaluation<S>> evaluation = memoized.methods.get(method);
+    if (evaluation == null) {
+      evaluation = evaluateMemoized(method, state, memoized);
+      memoized.methods.put(method, evaluation);
+    }
+    return evaluation;
+  }
+
+  private Optional<Evaluation<S>> evaluateMemoized(
+      M method, C state, MemoizedEvaluations<S, M> memoized) {
+    for (RuleScope scope : methodInfo.scopes(method)) {
+      Iterator<S> members = methodInfo.scopeMembers(scope, method, state).iterator();
+      while (members.hasNext()) {
+        S symbol = members.next();
+        Optional<Evaluation<S>> evaluation;
+        if (scope == ENCLOSING_ELEMENTS) {
+          evaluation = memoized.enclosingElements.get(symbol);
+          if (evaluation == null) {
+            evaluation = evaluateSymbol(scope, symbol, state);
+            memoized.enclosingElements.put(symbol, evaluation);
+          }
+        } else {
+          evaluation = evaluateSymbol(scope, symbol, state);
+        }
+        if (evaluation.isPresent()) {
+          return evaluation;
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  private Optional<Evaluation<S>> evaluateSymbol(RuleScope scope, S symbol, C state) {
+    for (ResultUseRule<C, S> rule : rules.get(scope)) {
+      Optional<Evaluation<S>> evaluation = rule.evaluate(scope, symbol, state);
+      if (evaluation.isPresent()) {
+        return evaluation;
+      }
+    }
+    return Optional.empty();
+  }
+
+  /** The evaluations made during one compilation. */
+  private static final class MemoizedEvaluations<S, M extends S> {
+    /** The first evaluation made for each method, if any. */
+    final Map<M, Optional<Evaluation<S>>> methods = new HashMap<>();
+
+    /** The first evaluation made for each enclosing class or package, shared between methods. */
+    final Map<S, Optional<Evaluation<S>>> enclosingElements = new HashMap<>();
   }
 
   /**
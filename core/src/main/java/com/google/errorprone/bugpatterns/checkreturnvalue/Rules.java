@@ -83,7 +83,7 @@ public final class Rules {
             Streams.concat(
                     Stream.of(sym),
                     sym instanceof MethodSymbol methodSymbol
-                        ? streamSuperMethods(methodSymbol, st.getTypes())
+                        ? streamSuperMethods(methodSymbol, st)
                         : Stream.empty())
                 .anyMatch(s -> hasDirectAnnotationWithSimpleName(s, simpleName)),
         policy);
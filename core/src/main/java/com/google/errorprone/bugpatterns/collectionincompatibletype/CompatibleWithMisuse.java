@@ -73,8 +73,7 @@ public class CompatibleWithMisuse extends BugChecker implements AnnotationTreeMa
 
     // If this method overrides other methods, ensure that none of them have @CompatibleWith.
     // This restriction may need to be removed to allow more complex declaration hierarchies.
-    for (MethodSymbol methodSymbol :
-        ASTHelpers.findSuperMethods(declaredMethod, state.getTypes())) {
+    for (MethodSymbol methodSymbol : ASTHelpers.findSuperMethods(declaredMethod, state)) {
       if (methodSymbol.params().stream()
           .anyMatch(p -> hasAnnotation(p, COMPATIBLE_WITH_ANNOTATION, state))) {
         return describeWithMessage(
@@ -21,6 +21,7 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.errorprone.BugPattern.SeverityLevel.WARNING;
 import static com.google.errorprone.bugpatterns.flogger.FloggerHelpers.inferFormatSpecifier;
+import static com.google.errorprone.bugpatterns.flogger.FloggerHelpers.logCall;
 import static com.google.errorprone.bugpatterns.formatstring.LenientFormatStringUtils.getLenientFormatStringPosition;
 import static com.google.errorprone.matchers.Description.NO_MATCH;
 import static com.google.errorprone.matchers.Matchers.allOf;
@@ -48,6 +49,7 @@ import com.google.errorprone.BugPattern;
 import com.google.errorprone.VisitorState;
 import com.google.errorprone.bugpatterns.BugChecker;
 import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.bugpatterns.flogger.FloggerHelpers.LogCall;
 import com.google.errorprone.fixes.SuggestedFix;
 import com.google.errorprone.matchers.Description;
 import com.google.errorprone.matchers.Matcher;
@@ -300,22 +302,21 @@ public class FloggerArgumentToString extends BugChecker implements MethodInvocat
     return getOnlyElement(invocation.getArguments());
   }
 
-  private static final Matcher<ExpressionTree> LOG_MATCHER =
-      instanceMethod().onDescendantOf("com.google.common.flogger.LoggingApi").named("log");
-
   @Override
   public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
     List<? extends ExpressionTree> arguments = tree.getArguments();
-    if (LOG_MATCHER.matches(tree, state)) {
-      if (arguments.isEmpty()) {
+    LogCall logCall = logCall(tree, state);
+    if (logCall != null) {
+      ExpressionTree formatArgument = logCall.formatString();
+      if (formatArgument == null) {
         return NO_MATCH;
       }
-      String formatString = ASTHelpers.constValue(arguments.getFirst(), String.class);
+      String formatString = ASTHelpers.constValue(formatArgument, String.class);
       if (formatString == null) {
         return NO_MATCH;
       }
-      arguments = arguments.subList(1, arguments.size());
-      return unwrapArguments(formatString, tree, arguments, EnumSet.allOf(Unwrapper.class), state);
+      return unwrapArguments(
+          formatString, tree, logCall.formatArguments(), EnumSet.allOf(Unwrapper.class), state);
     } else {
       var lenientFormatPosition = getLenientFormatStringPosition(tree, state);
       EnumSet<Unwrapper> unwrappers =
@@ -18,25 +18,23 @@ package com.google.errorprone.bugpatterns.flogger;
 
 import static com.google.common.collect.Iterables.getLast;
 import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;
+import static com.google.errorprone.bugpatterns.flogger.FloggerHelpers.logCall;
 import static com.google.errorprone.matchers.Description.NO_MATCH;
-import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
 
 import com.google.errorprone.BugPattern;
 import com.google.errorprone.VisitorState;
 import com.google.errorprone.bugpatterns.BugChecker;
 import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.bugpatterns.flogger.FloggerHelpers.LogCall;
 import com.google.errorprone.bugpatterns.formatstring.FormatStringValidation;
 import com.google.errorprone.bugpatterns.formatstring.FormatStringValidation.ValidationResult;
 import com.google.errorprone.fixes.Fix;
 import com.google.errorprone.fixes.SuggestedFix;
 import com.google.errorprone.matchers.Description;
-import com.google.errorprone.matchers.Matcher;
 import com.google.errorprone.util.ASTHelpers;
 import com.sun.source.tree.ExpressionTree;
 import com.sun.source.tree.MethodInvocationTree;
-import com.sun.source.util.TreeScanner;
 import com.sun.tools.javac.code.Symbol.MethodSymbol;
-import java.util.List;
 import org.jspecify.annotations.Nullable;
 
 /**
@@ -48,19 +46,13 @@ import org.jspecify.annotations.Nullable;
     severity = ERROR)
 public class FloggerFormatString extends BugChecker implements MethodInvocationTreeMatcher {
 
-  private static final Matcher<ExpressionTree> FORMAT_METHOD =
-      instanceMethod().onDescendantOf("com.google.common.flogger.LoggingApi").named("log");
-
-  private static final Matcher<ExpressionTree> WITH_CAUSE =
-      instanceMethod().onDescendantOf("com.google.common.flogger.LoggingApi").named("withCause");
-
   @Override
   public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
-    if (!FORMAT_METHOD.matches(tree, state)) {
+    LogCall logCall = logCall(tree, state);
+    if (logCall == null) {
       return NO_MATCH;
     }
-    List<? extends ExpressionTree> args = tree.getArguments();
-    if (args.size() <= 1) {
+    if (!logCall.isFormatted()) {
       // log(String)'s argument isn't a format string, see FloggerLogString
       // we also warn on mistakes like `log("hello %s")` in OrphanedFormatString
       return NO_MATCH;
@@ -72,7 +64,7 @@ public class FloggerFormatString extends BugChecker implements MethodInvocationT
       return NO_MATCH;
     }
     Description.Builder description = buildDescription(tree).setMessage(result.message());
-    Fix fix = withCauseFix(result, tree, state);
+    Fix fix = withCauseFix(result, logCall, state);
     if (fix != null) {
       description.addFix(fix);
     }
@@ -83,30 +75,18 @@ public class FloggerFormatString extends BugChecker implements MethodInvocationT
    * If there were more arguments than format specifiers and the last argument is an exception,
    * suggest using {@code withCause(e)} instead of adding a format specifier.
    */
-  private @Nullable Fix withCauseFix(
-      ValidationResult result, MethodInvocationTree tree, VisitorState state) {
+  private @Nullable Fix withCauseFix(ValidationResult result, LogCall logCall, VisitorState state) {
     if (!result.message().startsWith("extra format arguments")) {
       return null;
     }
+    MethodInvocationTree tree = logCall.log();
     ExpressionTree last = getLast(tree.getArguments());
     if (!ASTHelpers.isSubtype(ASTHelpers.getType(last), state.getSymtab().throwableType, state)) {
       return null;
     }
 
     // if there's already a call to withCause, don't suggest adding another one
-    boolean[] withCause = {false};
-    tree.accept(
-        new TreeScanner<Void, Void>() {
-          @Override
-          public Void visitMethodInvocation(MethodInvocationTree tree, Void unused) {
-            if (WITH_CAUSE.matches(tree, state)) {
-              withCause[0] = true;
-            }
-            return super.visitMethodInvocation(tree, null);
-          }
-        },
-        null);
-    if (withCause[0]) {
+    if (logCall.withCause() != null) {
       return null;
     }
 
@@ -16,17 +16,135 @@
 
 package com.google.errorprone.bugpatterns.flogger;
 
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.util.ASTHelpers.getReceiver;
+import static com.google.errorprone.util.ASTHelpers.getSymbol;
 import static com.google.errorprone.util.ASTHelpers.getType;
 
+import com.google.common.collect.ImmutableList;
 import com.google.errorprone.VisitorState;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.suppliers.Supplier;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.MethodInvocationTree;
 import com.sun.source.tree.Tree;
 import com.sun.tools.javac.code.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
 
 /** Analysis helpers for flogger. */
 final class FloggerHelpers {
 
   private static final char STRING_FORMAT = 's';
 
+  private static final String LOGGING_API = "com.google.common.flogger.LoggingApi";
+
+  private static final Matcher<ExpressionTree> LOG_METHOD =
+      instanceMethod().onDescendantOf(LOGGING_API).named("log");
+
+  private static final Matcher<ExpressionTree> API_METHOD =
+      instanceMethod().onDescendantOf(LOGGING_API);
+
+  private static final Matcher<ExpressionTree> LEVEL_METHOD =
+      instanceMethod().onDescendantOf("com.google.common.flogger.AbstractLogger");
+
+  /**
+   * A fluent {@code logger.atInfo().withCause(e).log("format", args)} call chain, ending in a call
+   * to {@code log}.
+   *
+   * @param log the terminal {@code log} invocation
+   * @param level the call selecting the level, e.g. {@code atInfo()}, or null if the chain doesn't
+   *     start at a logger
+   * @param apiCalls the calls on the {@code LoggingApi} between the level and {@code log}, in
+   *     source order
+   */
+  record LogCall(
+      MethodInvocationTree log,
+      @Nullable MethodInvocationTree level,
+      ImmutableList<MethodInvocationTree> apiCalls) {
+
+    /** Returns the name of the level selection method, e.g. {@code atInfo}. */
+    @Nullable String levelName() {
+      return level == null ? null : getSymbol(level).getSimpleName().toString();
+    }
+
+    /** Returns the first call in the chain to a {@code LoggingApi} method with one of the names. */
+    @Nullable MethodInvocationTree apiCall(String... names) {
+      List<String> candidates = Arrays.asList(names);
+      for (MethodInvocationTree call : apiCalls) {
+        if (candidates.contains(getSymbol(call).getSimpleName().toString())) {
+          return call;
+        }
+      }
+      return null;
+    }
+
+    /** Returns the {@code withCause} call in the chain, if any. */
+    @Nullable MethodInvocationTree withCause() {
+      return apiCall("withCause");
+    }
+
+    /**
+     * Returns the first argument to {@code log}: the format string, or the literal message of
+     * {@code log(String)}. Returns null for the argument-less {@code log()}.
+     */
+    @Nullable ExpressionTree formatString() {
+      return log.getArguments().isEmpty() ? null : log.getArguments().getFirst();
+    }
+
+    /** Returns the arguments to {@code log} after the format string. */
+    List<? extends ExpressionTree> formatArguments() {
+      List<? extends ExpressionTree> arguments = log.getArguments();
+      return arguments.isEmpty() ? arguments : arguments.subList(1, arguments.size());
+    }
+
+    /** Returns true if this is a call to one of the formatting {@code log} methods. */
+    boolean isFormatted() {
+      return log.getArguments().size() > 1;
+    }
+  }
+
+  private static final Supplier<Map<MethodInvocationTree, LogCall>> LOG_CALLS =
+      VisitorState.memoize(unused -> new HashMap<>());
+
+  /**
+   * Returns the call chain ending in the given {@code LoggingApi.log} invocation, or null if the
+   * tree is not a call to {@code log}. The chain is only analyzed once per compilation, and shared
+   * by all the flogger checks.
+   */
+  static @Nullable LogCall logCall(ExpressionTree tree, VisitorState state) {
+    if (!(tree instanceof MethodInvocationTree log) || !LOG_METHOD.matches(log, state)) {
+      return null;
+    }
+    Map<MethodInvocationTree, LogCall> logCalls = LOG_CALLS.get(state);
+    LogCall logCall = logCalls.get(log);
+    if (logCall == null) {
+      logCall = analyze(log, state);
+      logCalls.put(log, logCall);
+    }
+    return logCall;
+  }
+
+  private static LogCall analyze(MethodInvocationTree log, VisitorState state) {
+    List<MethodInvocationTree> apiCalls = new ArrayList<>();
+    MethodInvocationTree level = null;
+    for (ExpressionTree receiver = getReceiver(log);
+        receiver instanceof MethodInvocationTree call;
+        receiver = getReceiver(call)) {
+      if (API_METHOD.matches(call, state)) {
+        apiCalls.add(call);
+      } else if (LEVEL_METHOD.matches(call, state)) {
+        level = call;
+        break;
+      }
+    }
+    return new LogCall(log, level, ImmutableList.copyOf(apiCalls).reverse());
+  }
+
   static char inferFormatSpecifier(Tree piece, VisitorState state) {
     Type type = getType(piece);
     return inferFormatSpecifier(type, state);
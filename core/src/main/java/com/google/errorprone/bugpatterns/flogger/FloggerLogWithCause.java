@@ -18,22 +18,22 @@ package com.google.errorprone.bugpatterns.flogger;
 
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.errorprone.BugPattern.SeverityLevel.WARNING;
+import static com.google.errorprone.bugpatterns.flogger.FloggerHelpers.logCall;
 import static com.google.errorprone.fixes.SuggestedFix.postfixWith;
 import static com.google.errorprone.matchers.Description.NO_MATCH;
-import static com.google.errorprone.matchers.Matchers.instanceMethod;
 import static com.google.errorprone.util.ASTHelpers.getReceiver;
 import static com.google.errorprone.util.ASTHelpers.getSymbol;
 import static java.lang.Boolean.TRUE;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.BugPattern;
 import com.google.errorprone.VisitorState;
 import com.google.errorprone.bugpatterns.BugChecker;
 import com.google.errorprone.bugpatterns.BugChecker.CatchTreeMatcher;
+import com.google.errorprone.bugpatterns.flogger.FloggerHelpers.LogCall;
 import com.google.errorprone.matchers.Description;
-import com.google.errorprone.matchers.Matcher;
 import com.sun.source.tree.CatchTree;
 import com.sun.source.tree.ExpressionStatementTree;
-import com.sun.source.tree.ExpressionTree;
 import com.sun.source.tree.IdentifierTree;
 import com.sun.source.tree.MethodInvocationTree;
 import com.sun.source.tree.StatementTree;
@@ -52,16 +52,7 @@ import java.util.List;
     severity = WARNING)
 public final class FloggerLogWithCause extends BugChecker implements CatchTreeMatcher {
 
-  private static final Matcher<ExpressionTree> LOG_MATCHER =
-      instanceMethod().onDescendantOf("com.google.common.flogger.LoggingApi").named("log");
-
-  private static final Matcher<ExpressionTree> WITH_CAUSE =
-      instanceMethod().onDescendantOf("com.google.common.flogger.LoggingApi").named("withCause");
-
-  private static final Matcher<ExpressionTree> HIGH_LEVEL =
-      instanceMethod()
-          .onDescendantOf("com.google.common.flogger.AbstractLogger")
-          .namedAnyOf("atWarning", "atSevere");
+  private static final ImmutableSet<String> HIGH_LEVELS = ImmutableSet.of("atWarning", "atSevere");
 
   @Override
   public Description matchCatch(CatchTree tree, VisitorState state) {
@@ -76,22 +67,11 @@ public final class FloggerLogWithCause extends BugChecker implements CatchTreeMa
     if (!(statementTree instanceof ExpressionStatementTree expressionStatementTree)) {
       return NO_MATCH;
     }
-    ExpressionTree expressionTree = expressionStatementTree.getExpression();
-    if (!LOG_MATCHER.matches(expressionTree, state)) {
+    LogCall logCall = logCall(expressionStatementTree.getExpression(), state);
+    if (logCall == null || logCall.withCause() != null) {
       return NO_MATCH;
     }
-    boolean isHighLevelLog = false;
-    for (ExpressionTree receiver = expressionTree;
-        receiver instanceof MethodInvocationTree;
-        receiver = getReceiver(receiver)) {
-      if (WITH_CAUSE.matches(receiver, state)) {
-        return NO_MATCH;
-      }
-      if (HIGH_LEVEL.matches(receiver, state)) {
-        isHighLevelLog = true;
-      }
-    }
-    if (!isHighLevelLog) {
+    if (!HIGH_LEVELS.contains(logCall.levelName())) {
       return NO_MATCH;
     }
     Symbol parameter = getSymbol(tree.getParameter());
@@ -111,6 +91,7 @@ public final class FloggerLogWithCause extends BugChecker implements CatchTreeMa
       return NO_MATCH;
     }
     String withCause = String.format(".withCause(%s)", tree.getParameter().getName());
-    return describeMatch(expressionTree, postfixWith(getReceiver(expressionTree), withCause));
+    MethodInvocationTree log = logCall.log();
+    return describeMatch(log, postfixWith(getReceiver(log), withCause));
   }
 }
@@ -17,20 +17,19 @@
 package com.google.errorprone.bugpatterns.flogger;
 
 import static com.google.errorprone.BugPattern.SeverityLevel.WARNING;
+import static com.google.errorprone.bugpatterns.flogger.FloggerHelpers.logCall;
 import static com.google.errorprone.matchers.Description.NO_MATCH;
-import static com.google.errorprone.matchers.Matchers.instanceMethod;
 
 import com.google.errorprone.BugPattern;
 import com.google.errorprone.VisitorState;
 import com.google.errorprone.bugpatterns.BugChecker;
 import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.bugpatterns.flogger.FloggerHelpers.LogCall;
 import com.google.errorprone.fixes.SuggestedFix;
 import com.google.errorprone.matchers.Description;
-import com.google.errorprone.matchers.Matcher;
 import com.google.errorprone.util.ASTHelpers;
 import com.sun.source.tree.ExpressionTree;
 import com.sun.source.tree.MethodInvocationTree;
-import java.util.List;
 import java.util.regex.Pattern;
 
 /**
@@ -44,23 +43,20 @@ import java.util.regex.Pattern;
     severity = WARNING)
 public class FloggerMessageFormat extends BugChecker implements MethodInvocationTreeMatcher {
 
-  private static final Matcher<ExpressionTree> LOG_MATCHER =
-      instanceMethod().onDescendantOf("com.google.common.flogger.LoggingApi").named("log");
-
   private static final Pattern MESSAGE_FORMAT_SPECIFIER = Pattern.compile("\\{[0-9]\\}");
 
   @Override
   public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
-    if (!LOG_MATCHER.matches(tree, state)) {
+    LogCall logCall = logCall(tree, state);
+    if (logCall == null) {
       return NO_MATCH;
     }
 
-    List<? extends ExpressionTree> arguments = tree.getArguments();
+    ExpressionTree formatArg = logCall.formatString();
     // There's a 0-arg 'log' method for terminating complex chains, with no format string
-    if (arguments.isEmpty()) {
+    if (formatArg == null) {
       return NO_MATCH;
     }
-    ExpressionTree formatArg = arguments.getFirst();
     String formatString = ASTHelpers.constValue(formatArg, String.class);
     if (formatString == null) {
       return NO_MATCH;
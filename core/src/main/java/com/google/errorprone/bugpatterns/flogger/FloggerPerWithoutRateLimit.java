@@ -16,16 +16,14 @@
 package com.google.errorprone.bugpatterns.flogger;
 
 import static com.google.errorprone.BugPattern.SeverityLevel.WARNING;
-import static com.google.errorprone.matchers.Matchers.instanceMethod;
-import static com.google.errorprone.util.ASTHelpers.getReceiver;
+import static com.google.errorprone.bugpatterns.flogger.FloggerHelpers.logCall;
 
 import com.google.errorprone.BugPattern;
 import com.google.errorprone.VisitorState;
 import com.google.errorprone.bugpatterns.BugChecker;
 import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.bugpatterns.flogger.FloggerHelpers.LogCall;
 import com.google.errorprone.matchers.Description;
-import com.google.errorprone.matchers.Matcher;
-import com.sun.source.tree.ExpressionTree;
 import com.sun.source.tree.MethodInvocationTree;
 
 /**
@@ -38,35 +36,18 @@ import com.sun.source.tree.MethodInvocationTree;
     severity = WARNING)
 public class FloggerPerWithoutRateLimit extends BugChecker implements MethodInvocationTreeMatcher {
 
-  private static final Matcher<ExpressionTree> LOG_METHOD =
-      instanceMethod().onDescendantOf("com.google.common.flogger.LoggingApi").named("log");
-
-  private static final Matcher<ExpressionTree> PER_METHOD =
-      instanceMethod().onDescendantOf("com.google.common.flogger.LoggingApi").named("per");
-
-  private static final Matcher<ExpressionTree> RATE_LIMITING_METHOD =
-      instanceMethod()
-          .onDescendantOf("com.google.common.flogger.LoggingApi")
-          .namedAnyOf("atMostEvery", "every", "onAverageEvery");
-
   @Override
   public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
-    if (!LOG_METHOD.matches(tree, state)) {
+    LogCall logCall = logCall(tree, state);
+    if (logCall == null) {
       return Description.NO_MATCH;
     }
 
-    ExpressionTree perNode = null;
-    for (ExpressionTree receiver = tree;
-        receiver instanceof MethodInvocationTree;
-        receiver = getReceiver(receiver)) {
-      if (RATE_LIMITING_METHOD.matches(receiver, state)) {
-        return Description.NO_MATCH;
-      }
-      if (PER_METHOD.matches(receiver, state)) {
-        perNode = receiver;
-      }
+    if (logCall.apiCall("atMostEvery", "every", "onAverageEvery") != null) {
+      return Description.NO_MATCH;
     }
 
+    MethodInvocationTree perNode = logCall.apiCall("per");
     if (perNode != null) {
       return describeMatch(perNode);
     }
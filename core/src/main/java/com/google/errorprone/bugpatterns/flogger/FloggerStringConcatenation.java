@@ -18,6 +18,7 @@ package com.google.errorprone.bugpatterns.flogger;
 
 import static com.google.errorprone.BugPattern.SeverityLevel.WARNING;
 import static com.google.errorprone.bugpatterns.flogger.FloggerHelpers.inferFormatSpecifier;
+import static com.google.errorprone.bugpatterns.flogger.FloggerHelpers.logCall;
 import static com.google.errorprone.matchers.Description.NO_MATCH;
 import static com.google.errorprone.util.ASTHelpers.constValue;
 import static com.google.errorprone.util.ASTHelpers.getType;
@@ -28,10 +29,9 @@ import com.google.errorprone.BugPattern;
 import com.google.errorprone.VisitorState;
 import com.google.errorprone.bugpatterns.BugChecker;
 import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.bugpatterns.flogger.FloggerHelpers.LogCall;
 import com.google.errorprone.fixes.SuggestedFix;
 import com.google.errorprone.matchers.Description;
-import com.google.errorprone.matchers.Matcher;
-import com.google.errorprone.matchers.method.MethodMatchers;
 import com.sun.source.tree.BinaryTree;
 import com.sun.source.tree.ExpressionTree;
 import com.sun.source.tree.LiteralTree;
@@ -51,20 +51,13 @@ import java.util.List;
     severity = WARNING)
 public class FloggerStringConcatenation extends BugChecker implements MethodInvocationTreeMatcher {
 
-  private static final Matcher<ExpressionTree> MATCHER =
-      MethodMatchers.instanceMethod()
-          .onDescendantOf("com.google.common.flogger.LoggingApi")
-          .named("log");
-
   @Override
   public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
-    if (!MATCHER.matches(tree, state)) {
-      return NO_MATCH;
-    }
-    if (tree.getArguments().isEmpty()) {
+    LogCall logCall = logCall(tree, state);
+    if (logCall == null) {
       return NO_MATCH;
     }
-    ExpressionTree argument = tree.getArguments().getFirst();
+    ExpressionTree argument = logCall.formatString();
     if (!(argument instanceof BinaryTree)) {
       return NO_MATCH;
     }
@@ -16,18 +16,16 @@
 
 package com.google.errorprone.bugpatterns.flogger;
 
-import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
-import static com.google.errorprone.util.ASTHelpers.streamReceivers;
+import static com.google.errorprone.bugpatterns.flogger.FloggerHelpers.logCall;
 
 import com.google.common.collect.Lists;
 import com.google.errorprone.BugPattern;
 import com.google.errorprone.VisitorState;
 import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.flogger.FloggerHelpers.LogCall;
 import com.google.errorprone.fixes.SuggestedFix;
 import com.google.errorprone.matchers.Description;
-import com.google.errorprone.matchers.Matcher;
 import com.google.errorprone.util.ASTHelpers;
-import com.sun.source.tree.ExpressionTree;
 import com.sun.source.tree.MethodInvocationTree;
 import com.sun.source.tree.Tree;
 import com.sun.tools.javac.code.Type;
@@ -43,15 +41,10 @@ import org.jspecify.annotations.Nullable;
 public class FloggerWithoutCause extends BugChecker
     implements BugChecker.MethodInvocationTreeMatcher {
 
-  private static final Matcher<ExpressionTree> LOG_METHOD =
-      instanceMethod().onDescendantOf("com.google.common.flogger.LoggingApi").named("log");
-
-  private static final Matcher<ExpressionTree> WITH_CAUSE =
-      instanceMethod().onDescendantOf("com.google.common.flogger.LoggingApi").named("withCause");
-
   @Override
   public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
-    if (!LOG_METHOD.matches(tree, state)) {
+    LogCall logCall = logCall(tree, state);
+    if (logCall == null) {
       return Description.NO_MATCH;
     }
 
@@ -60,7 +53,7 @@ public class FloggerWithoutCause extends BugChecker
       return Description.NO_MATCH;
     }
 
-    if (streamReceivers(tree).anyMatch(receiver -> WITH_CAUSE.matches(receiver, state))) {
+    if (logCall.withCause() != null) {
       return Description.NO_MATCH;
     }
 
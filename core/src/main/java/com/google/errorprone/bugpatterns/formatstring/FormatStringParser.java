@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone.bugpatterns.formatstring;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Parses the format specifiers of a {@link java.util.Formatter} format string. Unlike {@link
+ * String#format}, malformed format strings are reported by returning {@code null} rather than by
+ * throwing.
+ */
+final class FormatStringParser {
+
+  /** The grammar of a format specifier, as documented by {@link java.util.Formatter}. */
+  private static final Pattern SPECIFIER =
+      Pattern.compile("%(\\d+\\$)?([-#+ 0,(<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])");
+
+  /**
+   * A single format specifier.
+   *
+   * @param index the explicit 1-based argument index, or 0 if there is none
+   * @param flags the flags, possibly empty
+   * @param hasWidth whether a width was given
+   * @param hasPrecision whether a precision was given
+   * @param dateTime whether this is a {@code %t} or {@code %T} date/time conversion
+   * @param conversion the conversion character
+   */
+  record Specifier(
+      int index,
+      String flags,
+      boolean hasWidth,
+      boolean hasPrecision,
+      boolean dateTime,
+      char conversion) {
+
+    /** Returns true if this specifier formats an argument, i.e. isn't {@code %%} or {@code %n}. */
+    boolean consumesArgument() {
+      return dateTime || (conversion != '%' && conversion != 'n');
+    }
+
+    /**
+     * Returns true if this specifier is valid for an argument of any type, and doesn't need to be
+     * checked by actually formatting it.
+     */
+    boolean acceptsAnyArgument() {
+      if (dateTime || !flags.isEmpty()) {
+        return false;
+      }
+      return switch (conversion) {
+        case 's', 'S', 'b', 'B', 'h', 'H' -> true;
+        case '%', 'n' -> !hasWidth && !hasPrecision;
+        default -> false;
+      };
+    }
+  }
+
+  /**
+   * Returns the format specifiers of the given format string, or {@code null} if it contains a
+   * {@code %} that doesn't start a well-formed specifier.
+   */
+  static @Nullable ImmutableList<Specifier> parse(String formatString) {
+    ImmutableList.Builder<Specifier> specifiers = ImmutableList.builder();
+    Matcher matcher = SPECIFIER.matcher(formatString);
+    int start = formatString.indexOf('%');
+    while (start != -1) {
+      matcher.region(start, formatString.length());
+      if (!matcher.lookingAt()) {
+        return null;
+      }
+      int index = 0;
+      if (matcher.group(1) != null) {
+        String digits = matcher.group(1);
+        try {
+          index = Integer.parseInt(digits.substring(0, digits.length() - 1));
+        } catch (NumberFormatException e) {
+          return null;
+        }
+        if (index == 0) {
+          return null;
+        }
+      }
+      specifiers.add(
+          new Specifier(
+              index,
+              matcher.group(2) == null ? "" : matcher.group(2),
+              matcher.group(3) != null,
+              matcher.group(4) != null,
+              matcher.group(5) != null,
+              matcher.group(6).charAt(0)));
+      start = formatString.indexOf('%', matcher.end());
+    }
+    return specifiers.build();
+  }
+
+  /**
+   * Returns the number of leading arguments that the given specifiers refer to, assuming they are
+   * valid.
+   */
+  static int argumentsUsed(List<Specifier> specifiers) {
+    int ordinary = 0;
+    int explicit = 0;
+    for (Specifier specifier : specifiers) {
+      if (!specifier.consumesArgument() || specifier.flags().indexOf('<') != -1) {
+        continue;
+      }
+      if (specifier.index() > 0) {
+        explicit = Math.max(explicit, specifier.index());
+      } else {
+        ordinary++;
+      }
+    }
+    return Math.max(ordinary, explicit);
+  }
+
+  private FormatStringParser() {}
+}
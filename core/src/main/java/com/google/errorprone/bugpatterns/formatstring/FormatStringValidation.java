@@ -22,8 +22,10 @@ import static com.google.errorprone.util.ASTHelpers.isSameType;
 import static java.util.Arrays.asList;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.formatstring.FormatStringParser.Specifier;
 import com.google.errorprone.suppliers.Supplier;
 import com.google.errorprone.util.ASTHelpers;
 import com.sun.source.tree.ConditionalExpressionTree;
@@ -49,6 +51,7 @@ import java.util.FormatFlagsConversionMismatchException;
 import java.util.Formattable;
 import java.util.Formatter;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
 import java.util.IllegalFormatCodePointException;
 import java.util.IllegalFormatConversionException;
 import java.util.IllegalFormatException;
@@ -56,8 +59,10 @@ import java.util.IllegalFormatFlagsException;
 import java.util.IllegalFormatPrecisionException;
 import java.util.IllegalFormatWidthException;
 import java.util.List;
+import java.util.Map;
 import java.util.MissingFormatArgumentException;
 import java.util.MissingFormatWidthException;
+import java.util.Optional;
 import java.util.UnknownFormatConversionException;
 import java.util.UnknownFormatFlagsException;
 import java.util.stream.IntStream;
@@ -137,13 +142,29 @@ public final class FormatStringValidation {
                 })
             .toArray();
 
+    Map<ValidationKey, Optional<ValidationResult>> validations = VALIDATIONS.get(state);
+    List<@Nullable Object> signature = asList(instances);
     return formatStrings
-        .map(formatString -> validate(formatString, instances))
-        .filter(x -> x != null)
+        .map(
+            formatString ->
+                validations.computeIfAbsent(
+                    new ValidationKey(formatString, signature),
+                    unused -> Optional.ofNullable(validate(formatString, instances))))
+        .flatMap(Optional::stream)
         .findFirst()
         .orElse(null);
   }
 
+  /**
+   * A format string, and the placeholder instances for its arguments. The placeholders are
+   * canonical, so calls whose arguments have the same kinds of types share a key.
+   */
+  private record ValidationKey(String formatString, List<@Nullable Object> arguments) {}
+
+  /** The validation results of each compilation, which often repeats the same format strings. */
+  private static final Supplier<Map<ValidationKey, Optional<ValidationResult>>> VALIDATIONS =
+      VisitorState.memoize(unused -> new HashMap<>());
+
   /**
    * Return an instance of the given type if it receives special handling by {@code String.format}.
    * For example, an instance of {@link Integer} will be returned for an input of type {@code int}
@@ -197,16 +218,16 @@ public final class FormatStringValidation {
       return 0;
     }
     if (isSubtype(types, type, state.getTypeFromString(Date.class.getName()))) {
-      return new Date();
+      return DATE;
     }
     if (isSubtype(types, type, state.getTypeFromString(Calendar.class.getName()))) {
-      return new GregorianCalendar();
+      return CALENDAR;
     }
     if (isSubtype(types, type, state.getTypeFromString(Instant.class.getName()))) {
-      return Instant.now();
+      return Instant.EPOCH;
     }
     if (isSubtype(types, type, state.getTypeFromString(TemporalAccessor.class.getName()))) {
-      return Instant.now().atZone(ZoneId.systemDefault());
+      return ZONED_DATE_TIME;
     }
     Type lazyArg = COM_GOOGLE_COMMON_FLOGGER_LAZYARG.get(state);
     if (lazyArg != null) {
@@ -215,19 +236,35 @@ public final class FormatStringValidation {
         return getInstance(getOnlyElement(asLazyArg.getTypeArguments()), state);
       }
     }
-    return new Formattable() {
-      @Override
-      public void formatTo(Formatter formatter, int flags, int width, int precision) {
-        formatter.format("hello");
-      }
-    };
+    return FORMATTABLE;
   }
 
+  // Placeholder instances are shared, so that they can be part of a ValidationKey.
+  private static final Date DATE = new Date(0);
+  private static final Calendar CALENDAR = new GregorianCalendar(1970, Calendar.JANUARY, 1);
+  private static final TemporalAccessor ZONED_DATE_TIME = Instant.EPOCH.atZone(ZoneId.of("UTC"));
+  private static final Formattable FORMATTABLE =
+      new Formattable() {
+        @Override
+        public void formatTo(Formatter formatter, int flags, int width, int precision) {
+          formatter.format("hello");
+        }
+      };
+
   private static boolean isSubtype(Types types, Type t, Type s) {
     return s != null && types.isSubtype(t, s);
   }
 
-  private static ValidationResult validate(String formatString, Object[] arguments) {
+  private static @Nullable ValidationResult validate(String formatString, Object[] arguments) {
+    ImmutableList<Specifier> specifiers = FormatStringParser.parse(formatString);
+    if (specifiers != null && specifiers.stream().allMatch(Specifier::acceptsAnyArgument)) {
+      // Skip formatting, and the exception it throws for invalid format strings, if the result
+      // only depends on the number of arguments.
+      int used = FormatStringParser.argumentsUsed(specifiers);
+      if (used <= arguments.length) {
+        return extraFormatArguments(used, arguments.length);
+      }
+    }
     try {
       String unused = String.format(formatString, arguments);
     } catch (DuplicateFormatFlagsException e) {
@@ -268,6 +305,12 @@ public final class FormatStringValidation {
       // was added in JDK 16
       return ValidationResult.create(e.getMessage());
     }
+    if (specifiers != null) {
+      int used = FormatStringParser.argumentsUsed(specifiers);
+      if (used <= arguments.length) {
+        return extraFormatArguments(used, arguments.length);
+      }
+    }
     return extraFormatArguments(formatString, asList(arguments));
   }
 
@@ -278,11 +321,15 @@ public final class FormatStringValidation {
             .filter(i -> doesItFormat(formatString, arguments.subList(0, i)))
             .findFirst()
             .orElse(0);
-    if (used == arguments.size()) {
+    return extraFormatArguments(used, arguments.size());
+  }
+
+  private static @Nullable ValidationResult extraFormatArguments(int used, int provided) {
+    if (used == provided) {
       return null;
     }
     return ValidationResult.create(
-        String.format("extra format arguments: used %d, provided %d", used, arguments.size()));
+        String.format("extra format arguments: used %d, provided %d", used, provided));
   }
 
   private static boolean doesItFormat(String formatString, List<Object> arguments) {
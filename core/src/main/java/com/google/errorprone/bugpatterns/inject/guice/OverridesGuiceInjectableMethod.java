@@ -51,7 +51,7 @@ public class OverridesGuiceInjectableMethod extends BugChecker implements Method
     // if method is itself annotated with @Inject or it has no ancestor methods, return NO_MATCH;
     if (!hasInjectAnnotation().matches(methodTree, state)) {
       MethodSymbol method = ASTHelpers.getSymbol(methodTree);
-      for (MethodSymbol superMethod : ASTHelpers.findSuperMethods(method, state.getTypes())) {
+      for (MethodSymbol superMethod : ASTHelpers.findSuperMethods(method, state)) {
         if (ASTHelpers.hasAnnotation(superMethod, GUICE_INJECT_ANNOTATION, state)) {
           return buildDescription(methodTree)
               .addFix(
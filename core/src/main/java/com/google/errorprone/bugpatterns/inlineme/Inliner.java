@@ -35,6 +35,7 @@ import static java.util.stream.Collectors.joining;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.errorprone.BugPattern;
@@ -49,6 +50,7 @@ import com.google.errorprone.fixes.ErrorProneEndPosTable;
 import com.google.errorprone.fixes.SuggestedFix;
 import com.google.errorprone.fixes.SuggestedFixes;
 import com.google.errorprone.matchers.Description;
+import com.google.errorprone.suppliers.Supplier;
 import com.google.errorprone.util.ErrorProneParser;
 import com.google.errorprone.util.MoreAnnotations;
 import com.google.errorprone.util.OperatorPrecedence;
@@ -70,12 +72,15 @@ import com.sun.tools.javac.code.Symbol.MethodSymbol;
 import com.sun.tools.javac.parser.JavacParser;
 import com.sun.tools.javac.tree.JCTree;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 import javax.inject.Inject;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Checker that performs the inlining at call-sites (where the invoked APIs are annotated as
@@ -163,16 +168,17 @@ public final class Inliner extends BugChecker
     if (!hasDirectAnnotationWithSimpleName(symbol, INLINE_ME)) {
       return Description.NO_MATCH;
     }
-    Optional<InlineMeData> inlineMeMaybe = InlineMeData.createFromSymbol(symbol);
-    if (inlineMeMaybe.isEmpty()) {
+    Optional<Template> templateMaybe = template(symbol, state);
+    if (templateMaybe.isEmpty()) {
       return Description.NO_MATCH;
     }
-    InlineMeData inlineMe = inlineMeMaybe.get();
+    Template template = templateMaybe.get();
+    InlineMeData inlineMe = template.inlineMe();
     if (!inlineMe.imports().isEmpty() || !inlineMe.staticImports().isEmpty()) {
       // TODO: b/165938605 - handle imports
       return Description.NO_MATCH;
     }
-    Api api = Api.create(symbol, state);
+    Api api = template.api();
     if (!matchesApiPrefixes(api)) {
       return Description.NO_MATCH;
     }
@@ -180,8 +186,7 @@ public final class Inliner extends BugChecker
         && stringContainsComments(state.getSourceForNode(tree), state.context)) {
       return Description.NO_MATCH;
     }
-    JavacParser parser = newParser(inlineMe.replacement(), state);
-    if (!(parser.parseExpression() instanceof MethodInvocationTree mit
+    if (!(template.replacementExpression() instanceof MethodInvocationTree mit
         && mit.getArguments().isEmpty()
         && getReceiver(mit) instanceof IdentifierTree it
         && it.getName().contentEquals("this"))) {
@@ -203,12 +208,13 @@ public final class Inliner extends BugChecker
       String receiverString,
       ExpressionTree receiver,
       VisitorState state) {
-    Optional<InlineMeData> inlineMe = InlineMeData.createFromSymbol(symbol);
-    if (inlineMe.isEmpty()) {
+    Optional<Template> templateMaybe = template(symbol, state);
+    if (templateMaybe.isEmpty()) {
       return Description.NO_MATCH;
     }
+    Template template = templateMaybe.get();
 
-    Api api = Api.create(symbol, state);
+    Api api = template.api();
     if (!matchesApiPrefixes(api)) {
       return Description.NO_MATCH;
     }
@@ -217,10 +223,7 @@ public final class Inliner extends BugChecker
         && stringContainsComments(state.getSourceForNode(tree), state.context)) {
       return Description.NO_MATCH;
     }
-    ImmutableList<String> varNames =
-        symbol.getParameters().stream()
-            .map(varSymbol -> varSymbol.getSimpleName().toString())
-            .collect(toImmutableList());
+    ImmutableList<String> varNames = template.parameterNames();
 
     ImmutableList<String> callingVarStrings;
 
@@ -249,27 +252,22 @@ public final class Inliner extends BugChecker
           callingVars.stream().map(state::getSourceForNode).collect(toImmutableList());
     }
 
-    String replacement = inlineMe.get().replacement();
-
-    JavacParser parser = newParser(replacement, state);
-    ExpressionTree replacementExpression = parser.parseExpression();
+    String replacement = template.inlineMe().replacement();
+    JavacParser parser = template.parser();
+    ExpressionTree replacementExpression = template.replacementExpression();
     SuggestedFix.Builder replacementFixes = SuggestedFix.builder();
 
     SuggestedFix.Builder fixBuilder = SuggestedFix.builder();
 
-    for (String newImport : inlineMe.get().imports()) {
+    for (String newImport : template.inlineMe().imports()) {
       String typeName = Iterables.getLast(PACKAGE_SPLITTER.split(newImport));
       String qualifiedTypeName = SuggestedFixes.qualifyType(state, fixBuilder, newImport);
 
-      visitIdentifiers(
-          replacementExpression,
-          (node, unused) -> {
-            if (node.getName().contentEquals(typeName)) {
-              replacementFixes.replace(node, qualifiedTypeName);
-            }
-          });
+      for (IdentifierUsage usage : template.identifiers().get(typeName)) {
+        replacementFixes.replace(usage.node(), qualifiedTypeName);
+      }
     }
-    for (String newStaticImport : inlineMe.get().staticImports()) {
+    for (String newStaticImport : template.inlineMe().staticImports()) {
       fixBuilder.addStaticImport(newStaticImport);
     }
 
@@ -285,14 +283,10 @@ public final class Inliner extends BugChecker
     }
 
     if (Strings.isNullOrEmpty(receiverString)) {
-      visitIdentifiers(
-          replacementExpression,
-          (node, unused) -> {
-            if (node.getName().contentEquals("this")) {
-              replacementFixes.replace(
-                  getStartPosition(node), parser.getEndPos((JCTree) node) + 1, "");
-            }
-          });
+      for (IdentifierUsage usage : template.identifiers().get("this")) {
+        IdentifierTree node = usage.node();
+        replacementFixes.replace(getStartPosition(node), parser.getEndPos((JCTree) node) + 1, "");
+      }
     } else {
       if (replacement.equals("this")) { // e.g.: foo.b() -> foo
         Tree parent = state.getPath().getParentPath().getLeaf();
@@ -303,25 +297,23 @@ public final class Inliner extends BugChecker
           return describe(parent, SuggestedFix.delete(parent), api);
         }
       }
-      visitIdentifiers(
-          replacementExpression,
-          (node, unused) -> {
-            if ((!removedThisPrefix || getStartPosition(node) != 0)
-                && node.getName().contentEquals("this")) {
-              replacementFixes.replace(
-                  getStartPosition(node), parser.getEndPos((JCTree) node), receiverString);
-            }
-          });
+      for (IdentifierUsage usage : template.identifiers().get("this")) {
+        IdentifierTree node = usage.node();
+        if (!removedThisPrefix || getStartPosition(node) != 0) {
+          replacementFixes.replace(
+              getStartPosition(node), parser.getEndPos((JCTree) node), receiverString);
+        }
+      }
+    }
+
+    // If the parameter names are missing (b/365094947), don't perform the inlining.
+    if (template.missingParameterNames()) {
+      return Description.NO_MATCH;
     }
 
     for (int i = 0; i < varNames.size(); i++) {
       String varName = varNames.get(i);
 
-      // If the parameter names are missing (b/365094947), don't perform the inlining.
-      if (InlinabilityResult.matchesArgN(varName)) {
-        return Description.NO_MATCH;
-      }
-
       // Ex: foo(int a, int... others) -> this.bar(a, others)
       // If caller passes 0 args in the varargs position, we want to remove the preceding comma to
       // make this.bar(a) (as opposed to "this.bar(a, )"
@@ -330,33 +322,28 @@ public final class Inliner extends BugChecker
       boolean mayRequireParens =
           i < callingVars.size() && requiresParentheses(callingVars.get(i), state);
 
-      visitIdentifiers(
-          replacementExpression,
-          (node, path) -> {
-            if (!node.getName().contentEquals(varName)) {
-              return;
-            }
-            // Substituting into a method invocation never requires parens.
-            boolean outerNeverRequiresParens =
-                path.size() < 2 || getArguments(path.get(path.size() - 2)).contains(node);
-            if (terminalVarargsReplacement) {
-              var calledMethodArguments = getArguments(path.get(path.size() - 2));
-              replacementFixes.replace(
-                  calledMethodArguments.indexOf(node) == 0
-                      ? getStartPosition(node)
-                      : parser.getEndPos(
-                          (JCTree)
-                              calledMethodArguments.get(calledMethodArguments.indexOf(node) - 1)),
-                  parser.getEndPos((JCTree) node),
-                  replacementResult);
-            } else {
-              replacementFixes.replace(
-                  node,
-                  !outerNeverRequiresParens && mayRequireParens
-                      ? "(" + replacementResult + ")"
-                      : replacementResult);
-            }
-          });
+      for (IdentifierUsage usage : template.identifiers().get(varName)) {
+        IdentifierTree node = usage.node();
+        // Substituting into a method invocation never requires parens.
+        boolean outerNeverRequiresParens =
+            usage.parent() == null || getArguments(usage.parent()).contains(node);
+        if (terminalVarargsReplacement) {
+          var calledMethodArguments = getArguments(usage.parent());
+          replacementFixes.replace(
+              calledMethodArguments.indexOf(node) == 0
+                  ? getStartPosition(node)
+                  : parser.getEndPos(
+                      (JCTree) calledMethodArguments.get(calledMethodArguments.indexOf(node) - 1)),
+              parser.getEndPos((JCTree) node),
+              replacementResult);
+        } else {
+          replacementFixes.replace(
+              node,
+              !outerNeverRequiresParens && mayRequireParens
+                  ? "(" + replacementResult + ")"
+                  : replacementResult);
+        }
+      }
     }
 
     String fixedReplacement =
@@ -372,6 +359,68 @@ public final class Inliner extends BugChecker
     return maybeCheckFixCompiles(tree, state, fixBuilder.build(), api);
   }
 
+  /**
+   * The parsed {@code @InlineMe} replacements of the APIs seen in this compilation, so that each
+   * call site only has to substitute its arguments.
+   */
+  private static final Supplier<Map<MethodSymbol, Optional<Template>>> TEMPLATES =
+      VisitorState.memoize(unused -> new HashMap<>());
+
+  private static Optional<Template> template(MethodSymbol symbol, VisitorState state) {
+    Map<MethodSymbol, Optional<Template>> templates = TEMPLATES.get(state);
+    Optional<Template> template = templates.get(symbol);
+    if (template == null) {
+      template = Template.create(symbol, state);
+      templates.put(symbol, template);
+    }
+    return template;
+  }
+
+  /**
+   * The call-site independent parts of inlining an API: its parsed replacement, and the occurrences
+   * of each identifier in the replacement that may need to be substituted.
+   */
+  private record Template(
+      InlineMeData inlineMe,
+      Api api,
+      JavacParser parser,
+      ExpressionTree replacementExpression,
+      ImmutableList<String> parameterNames,
+      boolean missingParameterNames,
+      ImmutableListMultimap<String, IdentifierUsage> identifiers) {
+    static Optional<Template> create(MethodSymbol symbol, VisitorState state) {
+      return InlineMeData.createFromSymbol(symbol).map(inlineMe -> create(symbol, inlineMe, state));
+    }
+
+    private static Template create(MethodSymbol symbol, InlineMeData inlineMe, VisitorState state) {
+      JavacParser parser = newParser(inlineMe.replacement(), state);
+      ExpressionTree replacementExpression = parser.parseExpression();
+      ImmutableListMultimap.Builder<String, IdentifierUsage> identifiers =
+          ImmutableListMultimap.builder();
+      visitIdentifiers(
+          replacementExpression,
+          (node, path) ->
+              identifiers.put(
+                  node.getName().toString(),
+                  new IdentifierUsage(node, path.size() < 2 ? null : path.get(path.size() - 2))));
+      ImmutableList<String> parameterNames =
+          symbol.getParameters().stream()
+              .map(varSymbol -> varSymbol.getSimpleName().toString())
+              .collect(toImmutableList());
+      return new Template(
+          inlineMe,
+          Api.create(symbol, state),
+          parser,
+          replacementExpression,
+          parameterNames,
+          parameterNames.stream().anyMatch(InlinabilityResult::matchesArgN),
+          identifiers.build());
+    }
+  }
+
+  /** An identifier in a replacement, and its parent tree (if any). */
+  private record IdentifierUsage(IdentifierTree node, @Nullable Tree parent) {}
+
   private static JavacParser newParser(String replacement, VisitorState state) {
     return ErrorProneParser.newParser(
         state.context,
@@ -92,7 +92,7 @@ public final class Validator extends BugChecker implements MethodTreeMatcher {
     return hasDirectAnnotationWithSimpleName(tree, "InlineMe")
         && !wellKnownKeep.shouldKeep(tree)
         && !hasAnnotation(tree, "java.lang.Override", state)
-        && findSuperMethods(getSymbol(tree), state.getTypes()).isEmpty();
+        && findSuperMethods(getSymbol(tree), state).isEmpty();
   }
 
   private Description match(InlineMeData existingAnnotation, MethodTree tree, VisitorState state) {
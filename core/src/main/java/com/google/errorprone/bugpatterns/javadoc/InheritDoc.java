@@ -98,7 +98,7 @@ public final class InheritDoc extends BugChecker
         @Override
         public Void visitMethod(MethodTree methodTree, Void unused) {
           MethodSymbol methodSymbol = getSymbol(methodTree);
-          if (findSuperMethods(methodSymbol, state.getTypes()).isEmpty()) {
+          if (findSuperMethods(methodSymbol, state).isEmpty()) {
             state.reportMatch(
                 buildDescription(diagnosticPosition(getCurrentPath(), state))
                     .setMessage(
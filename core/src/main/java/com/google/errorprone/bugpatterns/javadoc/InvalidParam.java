@@ -200,8 +200,10 @@ public final class InvalidParam extends BugChecker implements ClassTreeMatcher,
       }
       String bestMatch = null;
       int minDistance = Integer.MAX_VALUE;
+      // Distances beyond the threshold are never reported, so there's no need to compute them.
+      int maxDistance = (int) Math.ceil(LIKELY_PARAMETER_THRESHOLD * body.length());
       for (String parameter : parameters) {
-        int distance = getEditDistance(body, parameter);
+        int distance = getEditDistance(body, parameter, /* caseSensitive= */ true, maxDistance);
         if (distance < minDistance) {
           bestMatch = parameter;
           minDistance = distance;
@@ -193,7 +193,7 @@ public final class MissingSummary extends BugChecker
     }
     Symbol symbol = getSymbol(tree);
     if (symbol instanceof MethodSymbol methodSymbol
-        && !findSuperMethods(methodSymbol, state.getTypes()).isEmpty()) {
+        && !findSuperMethods(methodSymbol, state).isEmpty()) {
       return false;
     }
     return symbol != null && !isEffectivelyPrivate(symbol);
@@ -59,10 +59,16 @@ import org.jspecify.annotations.Nullable;
 final class Utils {
   static Optional<String> getBestMatch(String to, int maxEditDistance, Iterable<String> choices) {
     String bestMatch = null;
-    int minDistance = Integer.MAX_VALUE;
+    int minDistance = maxEditDistance;
     for (String choice : choices) {
-      int distance = getEditDistance(to, choice);
-      if (distance < minDistance && distance < maxEditDistance) {
+      if (minDistance <= 0) {
+        break;
+      }
+      // Only distances that beat the best match so far matter.
+      int distance =
+          getEditDistance(
+              to, choice, /* caseSensitive= */ true, /* maxDistance= */ minDistance - 1);
+      if (distance < minDistance) {
         bestMatch = choice;
         minDistance = distance;
       }
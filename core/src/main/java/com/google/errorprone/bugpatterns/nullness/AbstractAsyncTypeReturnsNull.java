@@ -96,7 +96,7 @@ abstract class AbstractAsyncTypeReturnsNull extends BugChecker
                 t ->
                     switch (t) {
                       case MethodTree methodTree ->
-                          findSuperMethods(getSymbol(methodTree), state.getTypes()).stream()
+                          findSuperMethods(getSymbol(methodTree), state).stream()
                               .anyMatch(
                                   superMethod ->
                                       superMethod.owner != null
@@ -121,9 +121,7 @@ abstract class AbstractAsyncTypeReturnsNull extends BugChecker
 
     Type asyncType = state.getTypeFromString(asyncClass.getName());
     return (descriptorSymbol instanceof MethodSymbol ms)
-        && concat(
-                Stream.of(ms),
-                streamSuperMethods((MethodSymbol) descriptorSymbol, state.getTypes()))
+        && concat(Stream.of(ms), streamSuperMethods((MethodSymbol) descriptorSymbol, state))
             .anyMatch(
                 superMethod ->
                     superMethod.owner != null
@@ -21,14 +21,17 @@ import static com.google.errorprone.matchers.Matchers.staticMethod;
 import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.errorprone.VisitorState;
 import com.google.errorprone.bugpatterns.threadsafety.GuardedByExpression.Kind;
 import com.google.errorprone.bugpatterns.threadsafety.GuardedByExpression.Select;
 import com.google.errorprone.matchers.Matcher;
 import com.google.errorprone.matchers.Matchers;
+import com.google.errorprone.suppliers.Supplier;
 import com.google.errorprone.util.ASTHelpers;
 import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.tree.ExpressionTree;
 import com.sun.source.tree.IdentifierTree;
 import com.sun.source.tree.LambdaExpressionTree;
@@ -39,19 +42,20 @@ import com.sun.source.tree.MethodTree;
 import com.sun.source.tree.NewClassTree;
 import com.sun.source.tree.SynchronizedTree;
 import com.sun.source.tree.Tree;
-import com.sun.source.tree.TryTree;
 import com.sun.source.tree.VariableTree;
 import com.sun.source.util.TreePathScanner;
 import com.sun.source.util.TreeScanner;
 import com.sun.tools.javac.code.Symbol;
 import com.sun.tools.javac.code.Symbol.ClassSymbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
 import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.JCTree.JCExpression;
 import com.sun.tools.javac.tree.JCTree.JCNewClass;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -133,11 +137,17 @@ public final class HeldLockAnalyzer {
         .orElse(locks);
   }
 
+  private record BoundGuardKey(Symbol field, String guard, CompilationUnitTree compilationUnit) {}
+
+  private static final Supplier<Map<BoundGuardKey, Optional<GuardedByExpression>>>
+      BOUND_FIELD_GUARDS = VisitorState.memoize(unused -> new HashMap<>());
+
   private static final class LockScanner extends TreePathScanner<Void, HeldLockSet> {
 
     private final VisitorState visitorState;
     private final LockEventListener listener;
     private final Predicate<Tree> isSuppressed;
+    private final HeldLockDataflow dataflow;
 
     private static final GuardedByExpression.Factory F = new GuardedByExpression.Factory();
 
@@ -146,6 +156,7 @@ public final class HeldLockAnalyzer {
       this.visitorState = visitorState;
       this.listener = listener;
       this.isSuppressed = isSuppressed;
+      this.dataflow = new HeldLockDataflow(visitorState);
     }
 
     @Override
@@ -176,31 +187,11 @@ public final class HeldLockAnalyzer {
       return super.visitMethod(tree, locks);
     }
 
-    @Override
-    public Void visitTry(TryTree tree, HeldLockSet locks) {
-      scan(tree.getResources(), locks);
-
-      List<? extends Tree> resources = tree.getResources();
-      scan(resources, locks);
-
-      // Cheesy try/finally heuristic: assume that all locks released in the finally
-      // are held for the entirety of the try and catch statements.
-      Collection<GuardedByExpression> releasedLocks =
-          ReleasedLockFinder.find(tree.getFinallyBlock(), visitorState);
-      // TODO(cushon) - recognize common try-with-resources patterns. Currently there is no
-      // standard implementation of an AutoCloseable lock resource to detect.
-      scan(tree.getBlock(), locks.plusAll(releasedLocks));
-      scan(tree.getCatches(), locks.plusAll(releasedLocks));
-      scan(tree.getFinallyBlock(), locks);
-      return null;
-    }
-
     @Override
     public Void visitSynchronized(SynchronizedTree tree, HeldLockSet locks) {
-      // The synchronized expression is held in the body of the synchronized statement:
-      Optional<GuardedByExpression> lockExpression =
-          GuardedByBinder.bindExpression((JCExpression) tree.getExpression(), visitorState);
-      scan(tree.getBlock(), lockExpression.isPresent() ? locks.plus(lockExpression.get()) : locks);
+      // The synchronized expression is held in the body of the synchronized statement, which is
+      // tracked by the dataflow analysis.
+      scan(tree.getBlock(), locks);
       return null;
     }
 
@@ -232,7 +223,9 @@ public final class HeldLockAnalyzer {
       var parent = getCurrentPath().getParentPath().getLeaf();
       if (parent instanceof MethodInvocationTree methodInvocationTree
           && INVOKES_LAMBDAS_IMMEDIATELY.matches(methodInvocationTree, visitorState)) {
-        return super.visitLambdaExpression(node, heldLockSet);
+        // The lambda is invoked with the locks held where it's created.
+        return super.visitLambdaExpression(
+            node, heldLockSet.plusAll(dataflow.heldLocks(getCurrentPath())));
       }
       // Don't descend into lambdas; they will be analyzed separately.
       return null;
@@ -256,11 +249,17 @@ public final class HeldLockAnalyzer {
     }
 
     private void checkMatch(ExpressionTree tree, HeldLockSet locks) {
-      for (String guardString : GuardedByUtils.getGuardValues(tree)) {
-        Optional<GuardedByExpression> guard =
-            GuardedByBinder.bindString(
-                guardString,
-                GuardedBySymbolResolver.from(tree, visitorState.withPath(getCurrentPath())));
+      Symbol sym = ASTHelpers.getSymbol(tree);
+      if (sym == null) {
+        return;
+      }
+      ImmutableSet<String> guardStrings = GuardedByUtils.getGuardValues(sym);
+      if (guardStrings.isEmpty()) {
+        return;
+      }
+      locks = locks.plusAll(dataflow.heldLocks(getCurrentPath()));
+      for (String guardString : guardStrings) {
+        Optional<GuardedByExpression> guard = bindGuard(tree, sym, guardString);
         if (guard.isEmpty()) {
           invalidLock(tree, locks, guardString);
           continue;
@@ -277,6 +276,33 @@ public final class HeldLockAnalyzer {
       }
     }
 
+    /**
+     * Binds the guard of the given member. The guards of fields only depend on the field and the
+     * compilation unit they're resolved in, so they're only bound once for all accesses in a
+     * compilation unit. The guards of methods may refer to the arguments of an invocation.
+     */
+    private Optional<GuardedByExpression> bindGuard(
+        ExpressionTree tree, Symbol sym, String guardString) {
+      if (!(sym instanceof VarSymbol)) {
+        return bind(tree, guardString);
+      }
+      Map<BoundGuardKey, Optional<GuardedByExpression>> boundGuards =
+          BOUND_FIELD_GUARDS.get(visitorState);
+      BoundGuardKey key =
+          new BoundGuardKey(sym, guardString, getCurrentPath().getCompilationUnit());
+      Optional<GuardedByExpression> guard = boundGuards.get(key);
+      if (guard == null) {
+        guard = bind(tree, guardString);
+        boundGuards.put(key, guard);
+      }
+      return guard;
+    }
+
+    private Optional<GuardedByExpression> bind(ExpressionTree tree, String guardString) {
+      return GuardedByBinder.bindString(
+          guardString, GuardedBySymbolResolver.from(tree, visitorState.withPath(getCurrentPath())));
+    }
+
     private void invalidLock(ExpressionTree tree, HeldLockSet locks, String guardString) {
       listener.handleGuardedAccess(
           tree, new GuardedByExpression.Factory().error(guardString), locks);
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone.bugpatterns.threadsafety;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.threadsafety.HeldLockAnalyzer.ReleasedLockFinder;
+import com.google.errorprone.dataflow.DataFlow;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.SynchronizedTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.TryTree;
+import com.sun.source.util.TreePath;
+import com.sun.tools.javac.tree.JCTree.JCExpression;
+import java.util.Collection;
+import java.util.List;
+import org.checkerframework.errorprone.dataflow.analysis.AbstractValue;
+import org.checkerframework.errorprone.dataflow.analysis.ForwardTransferFunction;
+import org.checkerframework.errorprone.dataflow.analysis.RegularTransferResult;
+import org.checkerframework.errorprone.dataflow.analysis.Store;
+import org.checkerframework.errorprone.dataflow.analysis.TransferInput;
+import org.checkerframework.errorprone.dataflow.analysis.TransferResult;
+import org.checkerframework.errorprone.dataflow.cfg.UnderlyingAST;
+import org.checkerframework.errorprone.dataflow.cfg.node.AbstractNodeVisitor;
+import org.checkerframework.errorprone.dataflow.cfg.node.LocalVariableNode;
+import org.checkerframework.errorprone.dataflow.cfg.node.MarkerNode;
+import org.checkerframework.errorprone.dataflow.cfg.node.Node;
+import org.checkerframework.errorprone.dataflow.cfg.node.SynchronizedNode;
+import org.checkerframework.errorprone.dataflow.cfg.visualize.CFGVisualizer;
+import org.checkerframework.errorprone.dataflow.expression.JavaExpression;
+
+/**
+ * A forward dataflow analysis of the locks held within a method body.
+ *
+ * <p>The analysis runs on the control flow graph from {@link DataFlow}, so the graph and the
+ * analysis result are computed once per method and shared by all the guarded accesses in it. A lock
+ * is held inside the body of a {@code synchronized} statement on it, and inside the block and the
+ * catch clauses of a {@code try} statement whose {@code finally} block releases it.
+ *
+ * <p>Locks that are held when the method is entered (e.g. for {@code synchronized} methods) are
+ * tracked by {@link HeldLockAnalyzer}.
+ */
+final class HeldLockDataflow {
+
+  private static final String START_OF_TRY_BLOCK = "start of try block #";
+  private static final String END_OF_TRY_BLOCK = "end of try block #";
+
+  private final VisitorState state;
+  private final Transfer transfer;
+
+  HeldLockDataflow(VisitorState state) {
+    this.state = state;
+    this.transfer = new Transfer();
+  }
+
+  /** Returns the locks that are held at the expression which is the leaf of {@code path}. */
+  ImmutableSet<GuardedByExpression> heldLocks(TreePath path) {
+    // Lvalues and some other expressions have no value of their own, so use the value of the
+    // closest enclosing expression of the same method or lambda.
+    for (TreePath current = path;
+        current != null && current.getLeaf() instanceof ExpressionTree;
+        current = current.getParentPath()) {
+      if (current != path && current.getLeaf() instanceof LambdaExpressionTree) {
+        break;
+      }
+      LockScopes scopes = DataFlow.expressionDataflow(current, state.context, transfer);
+      if (scopes != null) {
+        return scopes.heldAt(path);
+      }
+    }
+    // The expression is unreachable, or isn't part of the control flow graph (e.g. it's in an
+    // annotation), so use the statements that enclose it.
+    ImmutableSet.Builder<GuardedByExpression> locks = ImmutableSet.builder();
+    for (TreePath current = path;
+        current.getParentPath() != null && !isMethodLambdaOrClass(current.getLeaf());
+        current = current.getParentPath()) {
+      Tree parent = current.getParentPath().getLeaf();
+      if (holdsLocksIn(parent, current.getLeaf())) {
+        locks.addAll(locksHeldBy(parent));
+      }
+    }
+    return locks.build();
+  }
+
+  private static boolean isMethodLambdaOrClass(Tree tree) {
+    return tree instanceof MethodTree
+        || tree instanceof LambdaExpressionTree
+        || tree instanceof ClassTree;
+  }
+
+  /** Returns true if the statement {@code scope} holds its locks in its child {@code child}. */
+  private static boolean holdsLocksIn(Tree scope, Tree child) {
+    return switch (scope) {
+      case SynchronizedTree tree -> child == tree.getBlock();
+      case TryTree tree -> child == tree.getBlock() || tree.getCatches().contains(child);
+      default -> false;
+    };
+  }
+
+  /** Returns the locks held in the {@code synchronized} or {@code try} statement {@code scope}. */
+  private ImmutableSet<GuardedByExpression> locksHeldBy(Tree scope) {
+    return switch (scope) {
+      case SynchronizedTree tree ->
+          GuardedByBinder.bindExpression((JCExpression) tree.getExpression(), state).stream()
+              .collect(toImmutableSet());
+      // Assume that all locks released in the finally are held for the entirety of the try and
+      // catch blocks.
+      // TODO(cushon) - recognize common try-with-resources patterns. Currently there is no
+      // standard implementation of an AutoCloseable lock resource to detect.
+      case TryTree tree ->
+          ImmutableSet.copyOf(ReleasedLockFinder.find(tree.getFinallyBlock(), state));
+      default -> ImmutableSet.of();
+    };
+  }
+
+  /**
+   * A lock, and the {@code synchronized} or {@code try} statement it is held in.
+   *
+   * @param scope The statement that holds the lock.
+   * @param lock The held lock.
+   */
+  private record ScopedLock(Tree scope, GuardedByExpression lock) {
+
+    /** Returns true if {@code path} is in the part of {@link #scope} that holds the lock. */
+    boolean encloses(TreePath path) {
+      for (TreePath current = path;
+          current.getParentPath() != null;
+          current = current.getParentPath()) {
+        if (current.getParentPath().getLeaf() == scope) {
+          return holdsLocksIn(scope, current.getLeaf());
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * The locks held at a point in the method.
+   *
+   * <p>A lock is only held after a merge point if it's held on every incoming path. Locks that are
+   * carried past the end of their statement (e.g. by an exception or a {@code break}) are ignored
+   * for accesses outside of it.
+   */
+  static final class LockScopes implements AbstractValue<LockScopes>, Store<LockScopes> {
+
+    private static final LockScopes EMPTY = new LockScopes(ImmutableSet.of());
+
+    private final ImmutableSet<ScopedLock> locks;
+
+    private LockScopes(ImmutableSet<ScopedLock> locks) {
+      this.locks = locks;
+    }
+
+    ImmutableSet<GuardedByExpression> heldAt(TreePath path) {
+      return locks.stream()
+          .filter(l -> l.encloses(path))
+          .map(ScopedLock::lock)
+          .collect(toImmutableSet());
+    }
+
+    private LockScopes plusAll(Tree scope, Collection<GuardedByExpression> held) {
+      if (held.isEmpty()) {
+        return this;
+      }
+      return new LockScopes(
+          ImmutableSet.<ScopedLock>builder()
+              .addAll(locks)
+              .addAll(held.stream().map(lock -> new ScopedLock(scope, lock)).iterator())
+              .build());
+    }
+
+    private LockScopes minus(Tree scope) {
+      return new LockScopes(
+          locks.stream().filter(l -> l.scope() != scope).collect(toImmutableSet()));
+    }
+
+    @Override
+    public LockScopes leastUpperBound(LockScopes other) {
+      return new LockScopes(Sets.intersection(locks, other.locks).immutableCopy());
+    }
+
+    @Override
+    public LockScopes copy() {
+      // No need to copy because it's immutable.
+      return this;
+    }
+
+    @Override
+    public LockScopes widenedUpperBound(LockScopes other) {
+      // The lattice has no infinite ascending chains.
+      return leastUpperBound(other);
+    }
+
+    @Override
+    public boolean canAlias(JavaExpression a, JavaExpression b) {
+      return true;
+    }
+
+    @Override
+    public String visualize(CFGVisualizer<?, LockScopes, ?> cfgVisualizer) {
+      throw new UnsupportedOperationException("DOT output not supported");
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof LockScopes lockScopes && locks.equals(lockScopes.locks);
+    }
+
+    @Override
+    public int hashCode() {
+      return locks.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return locks.toString();
+    }
+  }
+
+  /**
+   * The transfer function of the analysis. The value of each node is the set of locks held before
+   * it's evaluated.
+   *
+   * <p>Instances aren't equal to each other, so each {@link HeldLockDataflow} runs its own analysis
+   * with the state it binds lock expressions in.
+   */
+  private final class Transfer
+      extends AbstractNodeVisitor<
+          TransferResult<LockScopes, LockScopes>, TransferInput<LockScopes, LockScopes>>
+      implements ForwardTransferFunction<LockScopes, LockScopes> {
+
+    @Override
+    public LockScopes initialStore(UnderlyingAST ast, List<LocalVariableNode> parameters) {
+      return LockScopes.EMPTY;
+    }
+
+    @Override
+    public TransferResult<LockScopes, LockScopes> visitNode(
+        Node node, TransferInput<LockScopes, LockScopes> input) {
+      LockScopes store = input.getRegularStore();
+      return new RegularTransferResult<>(store, store);
+    }
+
+    @Override
+    public TransferResult<LockScopes, LockScopes> visitSynchronized(
+        SynchronizedNode node, TransferInput<LockScopes, LockScopes> input) {
+      LockScopes store = input.getRegularStore();
+      SynchronizedTree tree = node.getTree();
+      LockScopes after =
+          node.getIsStartOfBlock() ? store.plusAll(tree, locksHeldBy(tree)) : store.minus(tree);
+      return new RegularTransferResult<>(store, after);
+    }
+
+    @Override
+    public TransferResult<LockScopes, LockScopes> visitMarker(
+        MarkerNode node, TransferInput<LockScopes, LockScopes> input) {
+      LockScopes store = input.getRegularStore();
+      LockScopes after = store;
+      if (node.getTree() instanceof TryTree tree) {
+        if (node.getMessage().startsWith(START_OF_TRY_BLOCK)) {
+          after = store.plusAll(tree, locksHeldBy(tree));
+        } else if (node.getMessage().startsWith(END_OF_TRY_BLOCK)) {
+          after = store.minus(tree);
+        }
+      }
+      return new RegularTransferResult<>(store, after);
+    }
+  }
+}
@@ -75,7 +75,6 @@ public final class ImmutableAnalysis {
 
   private final BiPredicate<Symbol, VisitorState> suppressionChecker;
   private final VisitorState state;
-  private final WellKnownMutability wellKnownMutability;
   private final ThreadSafety threadSafety;
 
   private ImmutableAnalysis(
@@ -85,7 +84,6 @@ public final class ImmutableAnalysis {
       ImmutableSet<String> immutableAnnotations) {
     this.suppressionChecker = suppressionChecker;
     this.state = state;
-    this.wellKnownMutability = wellKnownMutability;
     this.threadSafety =
         ThreadSafety.builder()
             .purpose(Purpose.FOR_IMMUTABLE_CHECKER)
@@ -319,8 +317,7 @@ public final class ImmutableAnalysis {
    * symbol or from the list of well-known immutable types.
    */
   AnnotationInfo getImmutableAnnotation(Symbol sym, VisitorState state) {
-    String nameStr = sym.flatName().toString();
-    AnnotationInfo known = wellKnownMutability.getKnownImmutableClasses().get(nameStr);
+    AnnotationInfo known = threadSafety.getKnownSafeAnnotation(sym);
     if (known != null) {
       return known;
     }
@@ -64,14 +64,12 @@ public final class ThreadSafeAnalysis {
 
   private final BugChecker bugChecker;
   private final VisitorState state;
-  private final WellKnownThreadSafety wellKnownThreadSafety;
   private final ThreadSafety threadSafety;
 
   private ThreadSafeAnalysis(
       BugChecker bugChecker, VisitorState state, WellKnownThreadSafety wellKnownThreadSafety) {
     this.bugChecker = bugChecker;
     this.state = state;
-    this.wellKnownThreadSafety = wellKnownThreadSafety;
 
     this.threadSafety = ThreadSafety.threadSafeBuilder(wellKnownThreadSafety).build(state);
   }
@@ -297,8 +295,7 @@ public final class ThreadSafeAnalysis {
   }
 
   AnnotationInfo getThreadSafeAnnotation(Symbol sym, VisitorState state) {
-    String nameStr = sym.flatName().toString();
-    AnnotationInfo known = wellKnownThreadSafety.getKnownThreadSafeClasses().get(nameStr);
+    AnnotationInfo known = threadSafety.getKnownSafeAnnotation(sym);
     if (known != null) {
       return known;
     }
@@ -24,6 +24,7 @@ import com.google.auto.value.AutoBuilder;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
@@ -40,6 +41,7 @@ import com.google.errorprone.util.MoreAnnotations;
 import com.sun.source.tree.ClassTree;
 import com.sun.tools.javac.code.Attribute;
 import com.sun.tools.javac.code.Attribute.Compound;
+import com.sun.tools.javac.code.BoundKind;
 import com.sun.tools.javac.code.Symbol;
 import com.sun.tools.javac.code.Symbol.ClassSymbol;
 import com.sun.tools.javac.code.Symbol.TypeSymbol;
@@ -53,8 +55,10 @@ import com.sun.tools.javac.code.TypeTag;
 import com.sun.tools.javac.code.Types;
 import com.sun.tools.javac.util.Name;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -71,13 +75,70 @@ public final class ThreadSafety {
   private final VisitorState state;
   private final Purpose purpose;
   private final boolean markerAnnotationInherited;
-  private final ThreadSafetyKnownTypes knownTypes;
+  private final KnownTypeNames knownTypeNames;
   private final ImmutableSet<String> markerAnnotations;
   private final ImmutableSet<String> acceptedAnnotations;
   private final ImmutableSet<String> containerOfAnnotation;
   private final ImmutableSet<String> suppressAnnotation;
   private final ImmutableSet<String> typeParameterAnnotation;
   private final ImmutableSet<String> acceptedTypeParameterAnnotation;
+  private final ImmutableSet<String> markerOrAcceptedAnnotations;
+  private final Map<Object, Violation> verdicts;
+
+  /**
+   * The verdicts of {@link #isThreadSafeType} for types that don't mention type variables, which
+   * don't depend on the context they're checked in. The verdicts are shared by all analyses with
+   * the same configuration during a compilation, e.g. between the different immutability checks.
+   */
+  private static final Supplier<Map<Configuration, Map<Object, Violation>>> VERDICTS =
+      VisitorState.memoize(unused -> new HashMap<>());
+
+  /** The settings that {@link #isThreadSafeType} verdicts depend on. */
+  private record Configuration(
+      Purpose purpose,
+      boolean markerAnnotationInherited,
+      KnownTypeTables knownTypes,
+      ImmutableSet<String> markerAnnotations,
+      ImmutableSet<String> acceptedAnnotations,
+      ImmutableSet<String> containerOfAnnotation,
+      ImmutableSet<String> suppressAnnotation,
+      ImmutableSet<String> typeParameterAnnotation,
+      ImmutableSet<String> acceptedTypeParameterAnnotation) {}
+
+  /**
+   * The tables of a {@link ThreadSafetyKnownTypes}, compared by identity: the well-known tables are
+   * shared by all checkers with the same flags, and comparing their contents would be expensive.
+   */
+  private record KnownTypeTables(
+      ImmutableMap<String, AnnotationInfo> safe, ImmutableSet<String> unsafe) {
+    @Override
+    public boolean equals(@Nullable Object other) {
+      return other instanceof KnownTypeTables that && safe == that.safe && unsafe == that.unsafe;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(safe) + System.identityHashCode(unsafe);
+    }
+  }
+
+  /**
+   * The known types, keyed by the {@link Name}s of the current compilation, so lookups don't need
+   * to convert every queried type's name to a string.
+   */
+  private record KnownTypeNames(
+      ImmutableMap<Name, AnnotationInfo> safe, ImmutableSet<Name> unsafe) {
+    static KnownTypeNames create(KnownTypeTables tables, VisitorState state) {
+      ImmutableMap.Builder<Name, AnnotationInfo> safe = ImmutableMap.builder();
+      tables.safe().forEach((name, info) -> safe.put(state.getName(name), info));
+      ImmutableSet<Name> unsafe =
+          tables.unsafe().stream().map(state::getName).collect(toImmutableSet());
+      return new KnownTypeNames(safe.buildKeepingLast(), unsafe);
+    }
+  }
+
+  private static final Supplier<Map<KnownTypeTables, KnownTypeNames>> KNOWN_TYPE_NAMES =
+      VisitorState.memoize(unused -> new HashMap<>());
 
   public static Builder builder() {
     return new AutoBuilder_ThreadSafety_Builder()
@@ -217,13 +278,35 @@ public final class ThreadSafety {
     this.state = visitorState;
     this.purpose = purpose;
     this.markerAnnotationInherited = markerAnnotationInherited;
-    this.knownTypes = knownTypes;
+    KnownTypeTables knownTypeTables =
+        new KnownTypeTables(knownTypes.getKnownSafeClasses(), knownTypes.getKnownUnsafeClasses());
+    this.knownTypeNames =
+        KNOWN_TYPE_NAMES
+            .get(visitorState)
+            .computeIfAbsent(knownTypeTables, t -> KnownTypeNames.create(t, visitorState));
     this.markerAnnotations = markerAnnotations;
     this.acceptedAnnotations = acceptedAnnotations;
     this.containerOfAnnotation = containerOfAnnotation;
     this.suppressAnnotation = suppressAnnotation;
     this.typeParameterAnnotation = typeParameterAnnotation;
     this.acceptedTypeParameterAnnotation = acceptedTypeParameterAnnotation;
+    this.markerOrAcceptedAnnotations =
+        ImmutableSet.copyOf(Sets.union(markerAnnotations, acceptedAnnotations));
+    this.verdicts =
+        VERDICTS
+            .get(visitorState)
+            .computeIfAbsent(
+                new Configuration(
+                    purpose,
+                    markerAnnotationInherited,
+                    knownTypeTables,
+                    markerAnnotations,
+                    acceptedAnnotations,
+                    containerOfAnnotation,
+                    suppressAnnotation,
+                    typeParameterAnnotation,
+                    acceptedTypeParameterAnnotation),
+                k -> new HashMap<>());
   }
 
   /**
@@ -413,12 +496,82 @@ public final class ThreadSafety {
       Set<String> containerTypeParameters,
       Type type,
       Set<TypeVariableSymbol> recursiveThreadSafeTypeParameter) {
-    return type.accept(
-        new ThreadSafeTypeVisitor(
-            allowContainerTypeParameters,
-            containerTypeParameters,
-            recursiveThreadSafeTypeParameter),
-        null);
+    Object key = verdictKey(type);
+    Violation violation = key != null ? verdicts.get(key) : null;
+    if (violation == null) {
+      violation =
+          type.accept(
+              new ThreadSafeTypeVisitor(
+                  allowContainerTypeParameters,
+                  containerTypeParameters,
+                  recursiveThreadSafeTypeParameter),
+              null);
+      if (key != null) {
+        verdicts.put(key, violation);
+      }
+    }
+    return violation;
+  }
+
+  private record ClassTypeKey(
+      TypeSymbol symbol,
+      @Nullable Object enclosingType,
+      ImmutableList<Object> typeArguments,
+      ImmutableList<TypeSymbol> annotations) {}
+
+  private record WildcardTypeKey(
+      BoundKind kind, @Nullable Object bound, ImmutableList<TypeSymbol> annotations) {}
+
+  private record ArrayTypeKey(Object elementType, ImmutableList<TypeSymbol> annotations) {}
+
+  /**
+   * Returns a key that identifies everything about the given type that {@link #isThreadSafeType}
+   * depends on, or {@code null} if the type mentions type variables, whose thread-safety depends on
+   * the context the type is checked in.
+   */
+  private static @Nullable Object verdictKey(Type type) {
+    ImmutableList<TypeSymbol> annotations =
+        type.getAnnotationMirrors().isEmpty()
+            ? ImmutableList.of()
+            : type.getAnnotationMirrors().stream().map(a -> a.type.tsym).collect(toImmutableList());
+    switch (type.getTag()) {
+      case CLASS -> {
+        Object enclosingType = null;
+        if (type.getEnclosingType().hasTag(TypeTag.CLASS)) {
+          enclosingType = verdictKey(type.getEnclosingType());
+          if (enclosingType == null) {
+            return null;
+          }
+        }
+        ImmutableList.Builder<Object> typeArguments = ImmutableList.builder();
+        for (Type typeArgument : type.getTypeArguments()) {
+          Object key = verdictKey(typeArgument);
+          if (key == null) {
+            return null;
+          }
+          typeArguments.add(key);
+        }
+        return new ClassTypeKey(type.tsym, enclosingType, typeArguments.build(), annotations);
+      }
+      case WILDCARD -> {
+        WildcardType wildcard = (WildcardType) type;
+        Object bound = null;
+        if (wildcard.type != null) {
+          bound = verdictKey(wildcard.type);
+          if (bound == null) {
+            return null;
+          }
+        }
+        return new WildcardTypeKey(wildcard.kind, bound, annotations);
+      }
+      case ARRAY -> {
+        Object elementType = verdictKey(((ArrayType) type).elemtype);
+        return elementType == null ? null : new ArrayTypeKey(elementType, annotations);
+      }
+      default -> {
+        return null;
+      }
+    }
   }
 
   private final class ThreadSafeTypeVisitor extends Types.SimpleVisitor<Violation, Void> {
@@ -505,8 +658,7 @@ public final class ThreadSafety {
         return threadSafeInstantiation(
             containerTypeParameters, annotation, type, recursiveThreadSafeTypeParameter);
       }
-      String nameStr = type.tsym.flatName().toString();
-      if (knownTypes.getKnownUnsafeClasses().contains(nameStr)) {
+      if (knownTypeNames.unsafe().contains(type.tsym.flatName())) {
         return Violation.of(
             String.format(
                 "'%s' is %s", type.tsym.getSimpleName(), purpose.mutableOrNotThreadSafe()));
@@ -611,13 +763,16 @@ public final class ThreadSafety {
    * an accepted annotation on the symbol, or from the list of well-known types.
    */
   public AnnotationInfo getMarkerOrAcceptedAnnotation(Symbol sym, VisitorState state) {
-    String nameStr = sym.flatName().toString();
-    AnnotationInfo known = knownTypes.getKnownSafeClasses().get(nameStr);
+    AnnotationInfo known = getKnownSafeAnnotation(sym);
     if (known != null) {
       return known;
     }
-    return getAnnotation(
-        sym, ImmutableSet.copyOf(Sets.union(markerAnnotations, acceptedAnnotations)), state);
+    return getAnnotation(sym, markerOrAcceptedAnnotations, state);
+  }
+
+  /** Returns the {@link Symbol}'s annotation info from the list of well-known types, if any. */
+  @Nullable AnnotationInfo getKnownSafeAnnotation(Symbol sym) {
+    return knownTypeNames.safe().get(sym.flatName());
   }
 
   /** Returns an enclosing instance for the specified type if it is thread-safe. */
@@ -31,6 +31,8 @@ import com.google.errorprone.suppliers.Supplier;
 import com.google.errorprone.suppliers.Suppliers;
 import com.sun.tools.javac.code.Type;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Stream;
 import javax.inject.Inject;
 
@@ -44,6 +46,13 @@ public final class WellKnownMutability implements ThreadSafetyKnownTypes {
   /** Types that are known to be mutable. */
   private final ImmutableSet<String> knownMutableClasses;
 
+  /**
+   * The tables for each distinct set of flags, which are built once per JVM and then shared by all
+   * checkers and compilations that use the same flags.
+   */
+  private static final ConcurrentMap<ImmutableList<ImmutableList<String>>, WellKnownMutability>
+      CACHE = new ConcurrentHashMap<>();
+
   @Inject
   WellKnownMutability(ErrorProneFlags flags) {
     ImmutableList<String> immutable = flags.getListOrEmpty("Immutable:KnownImmutable");
@@ -53,8 +62,21 @@ public final class WellKnownMutability implements ThreadSafetyKnownTypes {
         Stream.of("Immutable:KnownMutable", "Immutable:KnownUnsafe")
             .flatMap(f -> flags.getListOrEmpty(f).stream())
             .collect(toImmutableList());
-    this.knownImmutableClasses = buildImmutableClasses(immutable);
-    this.knownMutableClasses = buildMutableClasses(mutable);
+    WellKnownMutability tables =
+        CACHE.computeIfAbsent(
+            ImmutableList.of(immutable, mutable),
+            unused ->
+                new WellKnownMutability(
+                    buildImmutableClasses(immutable), buildMutableClasses(mutable)));
+    this.knownImmutableClasses = tables.knownImmutableClasses;
+    this.knownMutableClasses = tables.knownMutableClasses;
+  }
+
+  private WellKnownMutability(
+      ImmutableMap<String, AnnotationInfo> knownImmutableClasses,
+      ImmutableSet<String> knownMutableClasses) {
+    this.knownImmutableClasses = knownImmutableClasses;
+    this.knownMutableClasses = knownMutableClasses;
   }
 
   public static WellKnownMutability fromFlags(ErrorProneFlags flags) {
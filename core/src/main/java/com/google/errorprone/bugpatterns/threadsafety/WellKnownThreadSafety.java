@@ -21,6 +21,8 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.ErrorProneFlags;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.inject.Inject;
 
 /** A collection of types with known thread safety. */
@@ -28,10 +30,23 @@ public final class WellKnownThreadSafety implements ThreadSafetyKnownTypes {
   @Inject
   WellKnownThreadSafety(ErrorProneFlags flags, WellKnownMutability wellKnownMutability) {
     ImmutableList<String> knownThreadSafe = flags.getListOrEmpty("ThreadSafe:KnownThreadSafe");
-    this.knownThreadSafeClasses = buildThreadSafeClasses(knownThreadSafe, wellKnownMutability);
+    // The well-known immutable classes are shared by all instances with the same flags, so keys
+    // are usually compared by identity.
+    this.knownThreadSafeClasses =
+        CACHE.computeIfAbsent(
+            new CacheKey(knownThreadSafe, wellKnownMutability.getKnownImmutableClasses()),
+            unused -> buildThreadSafeClasses(knownThreadSafe, wellKnownMutability));
     this.knownUnsafeClasses = wellKnownMutability.getKnownMutableClasses();
   }
 
+  private record CacheKey(
+      ImmutableList<String> knownThreadSafe,
+      ImmutableMap<String, AnnotationInfo> knownImmutableClasses) {}
+
+  /** The tables for each distinct set of flags, which are built once per JVM. */
+  private static final ConcurrentMap<CacheKey, ImmutableMap<String, AnnotationInfo>> CACHE =
+      new ConcurrentHashMap<>();
+
   public static WellKnownThreadSafety fromFlags(ErrorProneFlags flags) {
     return new WellKnownThreadSafety(flags, WellKnownMutability.fromFlags(flags));
   }
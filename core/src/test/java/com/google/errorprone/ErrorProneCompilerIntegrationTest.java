@@ -134,6 +134,59 @@ public class ErrorProneCompilerIntegrationTest {
         .contains("[NonAtomicVolatileUpdate]");
   }
 
+  @Test
+  public void reuseVisitorStateReportsSameDiagnostics() {
+    ImmutableList<JavaFileObject> sources =
+        ImmutableList.<JavaFileObject>builder()
+            .addAll(
+                forResources(
+                    BadShiftAmount.class,
+                    "testdata/ArrayEqualsPositiveCases.java",
+                    "testdata/BadShiftAmountPositiveCases.java",
+                    "testdata/EmptyIfStatementPositiveCases.java",
+                    "testdata/NonAtomicVolatileUpdatePositiveCases.java",
+                    "testdata/SelfAssignmentPositiveCases1.java",
+                    "testdata/WaitNotInLoopPositiveCases.java"))
+            .add(
+                forSourceLines(
+                    "Test.java",
+                    """
+                    class Test {
+                      @SuppressWarnings("SelfAssignment")
+                      void f(int x) {
+                        x = x;
+                      }
+
+                      void g(int x) {
+                        x = x;
+                      }
+
+                      @SuppressWarnings("SelfAssignment")
+                      class Inner {
+                        void h(int x) {
+                          x = x;
+                        }
+                      }
+                    }
+                    """))
+            .build();
+    compilerBuilder.report(BuiltInCheckerSuppliers.allChecks());
+
+    ImmutableList<String> diagnostics =
+        compileAndDescribe(sources, "-XepAllDisabledChecksAsWarnings");
+    ImmutableList<String> reusingState =
+        compileAndDescribe(sources, "-XepAllDisabledChecksAsWarnings", "-XepReuseVisitorState");
+
+    assertThat(diagnostics).isNotEmpty();
+    assertThat(reusingState).containsExactlyElementsIn(diagnostics).inOrder();
+  }
+
+  private ImmutableList<String> compileAndDescribe(List<JavaFileObject> sources, String... args) {
+    DiagnosticTestHelper helper = new DiagnosticTestHelper();
+    compilerBuilder.listenToDiagnostics(helper.collector).build().compile(args, sources);
+    return helper.getDiagnostics().stream().map(Object::toString).collect(toImmutableList());
+  }
+
   @Test
   public void fileWithMultipleTopLevelClasses() {
     Result exitCode =
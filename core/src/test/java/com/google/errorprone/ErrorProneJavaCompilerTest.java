@@ -59,6 +59,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Inject;
 import javax.lang.model.SourceVersion;
 import javax.tools.DiagnosticListener;
@@ -572,6 +573,105 @@ public class ErrorProneJavaCompilerTest {
             """);
   }
 
+  /** Increments int constants below 3, so that each round of fixes enables the next one. */
+  @BugPattern(summary = "Test bug pattern to test chained fixes", severity = ERROR)
+  public static final class Incrementer extends BugChecker implements VariableTreeMatcher {
+    static final AtomicInteger analyzed = new AtomicInteger();
+
+    @Override
+    public Description matchVariable(VariableTree tree, VisitorState state) {
+      analyzed.incrementAndGet();
+      Integer value = ASTHelpers.constValue(tree.getInitializer(), Integer.class);
+      if (value == null || value >= 3) {
+        return Description.NO_MATCH;
+      }
+      return describeMatch(
+          tree, SuggestedFix.replace(tree.getInitializer(), Integer.toString(value + 1)));
+    }
+  }
+
+  @Test
+  public void patchRounds_iteratesToFixpoint() throws IOException {
+    JavaFileObject fileObject =
+        createOnDiskFileObject(
+            "Counter.java",
+            """
+            class Counter {
+              int x = 0;
+            }
+            """);
+    Incrementer.analyzed.set(0);
+
+    CompilationResult result =
+        doCompile(
+            Collections.singleton(fileObject),
+            Arrays.asList("-XepPatchChecks:", "-XepPatchLocation:IN_PLACE", "-XepPatchRounds:10"),
+            ImmutableList.of(Incrementer.class));
+    assertSucceeded(result);
+    assertThat(Files.readString(Path.of(fileObject.toUri())))
+        .isEqualTo(
+            """
+            class Counter {
+              int x = 3;
+            }
+            """);
+    // the fourth round makes no changes, so there is no fifth one
+    assertThat(Incrementer.analyzed.get()).isEqualTo(4);
+  }
+
+  @Test
+  public void patchRounds_limit() throws IOException {
+    JavaFileObject fileObject =
+        createOnDiskFileObject(
+            "Counter.java",
+            """
+            class Counter {
+              int x = 0;
+            }
+            """);
+    Incrementer.analyzed.set(0);
+
+    CompilationResult result =
+        doCompile(
+            Collections.singleton(fileObject),
+            Arrays.asList("-XepPatchChecks:", "-XepPatchLocation:IN_PLACE", "-XepPatchRounds:2"),
+            ImmutableList.of(Incrementer.class));
+    assertSucceeded(result);
+    assertThat(Files.readString(Path.of(fileObject.toUri())))
+        .isEqualTo(
+            """
+            class Counter {
+              int x = 2;
+            }
+            """);
+    assertThat(Incrementer.analyzed.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void patchRounds_patchFile() throws IOException {
+    String source =
+        """
+        class Counter {
+          int x = 0;
+        }
+        """;
+    JavaFileObject fileObject = createOnDiskFileObject("Counter.java", source);
+    Path patchDir = tempDir.newFolder().toPath();
+
+    CompilationResult result =
+        doCompile(
+            Collections.singleton(fileObject),
+            Arrays.asList(
+                "-XepPatchChecks:", "-XepPatchLocation:" + patchDir, "-XepPatchRounds:10"),
+            ImmutableList.of(Incrementer.class));
+    assertSucceeded(result);
+    assertThat(Files.readString(Path.of(fileObject.toUri()))).isEqualTo(source);
+    List<String> patch = Files.readAllLines(patchDir.resolve("error-prone.patch"), UTF_8);
+    assertThat(patch.stream().filter(line -> line.startsWith("--- "))).hasSize(1);
+    assertThat(patch).containsAtLeast("-  int x = 0;", "+  int x = 3;").inOrder();
+    assertThat(patch.stream().filter(line -> line.startsWith("+  int x"))).hasSize(1);
+  }
+
   /**
    * Creates a {@link JavaFileObject} with matching on-disk contents.
    *
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.BugPattern.SeverityLevel;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.ReturnTreeMatcher;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.scanner.ScannerSupplier;
+import com.sun.source.tree.ReturnTree;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** {@link ErrorProneWorker}Test */
+@RunWith(JUnit4.class)
+public class ErrorProneWorkerTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /** Counts how many times it has been instantiated. */
+  @BugPattern(summary = "", severity = SeverityLevel.ERROR)
+  public static class CountingChecker extends BugChecker implements ReturnTreeMatcher {
+    static final AtomicInteger instances = new AtomicInteger();
+
+    public CountingChecker() {
+      instances.incrementAndGet();
+    }
+
+    @Override
+    public Description matchReturn(ReturnTree tree, VisitorState state) {
+      return describeMatch(tree);
+    }
+  }
+
+  /** Fails to be instantiated for the first compilation. */
+  @BugPattern(summary = "", severity = SeverityLevel.ERROR)
+  public static class ThrowingChecker extends BugChecker implements ReturnTreeMatcher {
+    static final AtomicBoolean thrown = new AtomicBoolean();
+
+    public ThrowingChecker() {
+      if (!thrown.getAndSet(true)) {
+        throw new IllegalStateException("first compilation");
+      }
+    }
+
+    @Override
+    public Description matchReturn(ReturnTree tree, VisitorState state) {
+      return describeMatch(tree);
+    }
+  }
+
+  /** Remembers the trees it has seen, so mustn't be reused by later compilations. */
+  @BugPattern(summary = "", severity = SeverityLevel.ERROR)
+  public static class StatefulChecker extends BugChecker implements ReturnTreeMatcher {
+    static final AtomicInteger instances = new AtomicInteger();
+
+    private final List<ReturnTree> seen = new ArrayList<>();
+
+    public StatefulChecker() {
+      instances.incrementAndGet();
+    }
+
+    @Override
+    public Description matchReturn(ReturnTree tree, VisitorState state) {
+      seen.add(tree);
+      return seen.size() > 1 ? describeMatch(tree) : Description.NO_MATCH;
+    }
+  }
+
+  @Test
+  public void reusesCheckersAcrossCompilations() throws IOException {
+    ErrorProneWorker worker =
+        new ErrorProneWorker(
+            ScannerSupplier.fromBugCheckerClasses(CountingChecker.class),
+            ImmutableSet.of(CountingChecker.class));
+    Path source = temporaryFolder.newFile("Test.java").toPath();
+    Files.write(
+        source,
+        ImmutableList.of(
+            "class Test {", //
+            "  void f() {",
+            "    return;",
+            "  }",
+            "}"),
+        UTF_8);
+    ImmutableList<String> args =
+        ImmutableList.of("-d", temporaryFolder.newFolder().toString(), source.toString());
+    CountingChecker.instances.set(0);
+
+    for (int i = 0; i < 2; i++) {
+      StringWriter output = new StringWriter();
+      assertThat(worker.compile(args, new PrintWriter(output, true))).isEqualTo(1);
+      assertThat(output.toString()).contains("[CountingChecker]");
+    }
+    assertThat(CountingChecker.instances.get()).isEqualTo(1);
+
+    StringWriter output = new StringWriter();
+    ImmutableList<String> disabled =
+        ImmutableList.<String>builder().add("-Xep:CountingChecker:OFF").addAll(args).build();
+    assertThat(worker.compile(disabled, new PrintWriter(output, true))).isEqualTo(0);
+    assertThat(output.toString()).doesNotContain("[CountingChecker]");
+  }
+
+  @Test
+  public void onlyReusesListedCheckers() throws IOException {
+    ErrorProneWorker worker =
+        new ErrorProneWorker(
+            ScannerSupplier.fromBugCheckerClasses(CountingChecker.class, StatefulChecker.class),
+            ImmutableSet.of(CountingChecker.class));
+    Path source = temporaryFolder.newFile("Test.java").toPath();
+    Files.write(
+        source,
+        ImmutableList.of(
+            "class Test {", //
+            "  void f() {",
+            "    return;",
+            "  }",
+            "}"),
+        UTF_8);
+    ImmutableList<String> args =
+        ImmutableList.of("-d", temporaryFolder.newFolder().toString(), source.toString());
+    CountingChecker.instances.set(0);
+    StatefulChecker.instances.set(0);
+
+    for (int i = 0; i < 2; i++) {
+      StringWriter output = new StringWriter();
+      assertThat(worker.compile(args, new PrintWriter(output, true))).isEqualTo(1);
+      assertThat(output.toString()).contains("[CountingChecker]");
+      assertThat(output.toString()).doesNotContain("[StatefulChecker]");
+    }
+    assertThat(CountingChecker.instances.get()).isEqualTo(1);
+    assertThat(StatefulChecker.instances.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void reusesCheckersAfterCompilationCrashes() throws IOException {
+    ErrorProneWorker worker =
+        new ErrorProneWorker(
+            ScannerSupplier.fromBugCheckerClasses(CountingChecker.class, ThrowingChecker.class),
+            ImmutableSet.of(CountingChecker.class));
+    Path source = temporaryFolder.newFile("Test.java").toPath();
+    Files.write(
+        source,
+        ImmutableList.of(
+            "class Test {", //
+            "  void f() {",
+            "    return;",
+            "  }",
+            "}"),
+        UTF_8);
+    ImmutableList<String> args =
+        ImmutableList.of("-d", temporaryFolder.newFolder().toString(), source.toString());
+    CountingChecker.instances.set(0);
+    ThrowingChecker.thrown.set(false);
+
+    StringWriter crash = new StringWriter();
+    assertThat(worker.compile(args, new PrintWriter(crash, true))).isEqualTo(1);
+    assertThat(crash.toString()).contains("first compilation");
+    StringWriter output = new StringWriter();
+    assertThat(worker.compile(args, new PrintWriter(output, true))).isEqualTo(1);
+    assertThat(output.toString()).contains("[ThrowingChecker]");
+    assertThat(CountingChecker.instances.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void serve() throws IOException {
+    ErrorProneWorker worker =
+        new ErrorProneWorker(ScannerSupplier.fromBugCheckerClasses(CountingChecker.class));
+    Path source = temporaryFolder.newFolder("with space").toPath().resolve("Test.java");
+    Files.write(source, ImmutableList.of("class Test {}"), UTF_8);
+    String classes = temporaryFolder.newFolder("classes and more").toString();
+    BufferedReader in =
+        new BufferedReader(
+            new StringReader(
+                String.join(
+                    "\n",
+                    "-d",
+                    classes,
+                    "-proc:none",
+                    source.toString(),
+                    "",
+                    "",
+                    "-XepNoSuchFlag",
+                    source.toString())));
+    StringWriter out = new StringWriter();
+    StringWriter err = new StringWriter();
+
+    worker.serve(in, new PrintWriter(out, true), new PrintWriter(err, true));
+
+    assertThat(out.toString().lines()).containsExactly("0", "2").inOrder();
+    assertThat(err.toString()).contains("invalid flag: -XepNoSuchFlag");
+    assertThat(Files.exists(Path.of(classes, "Test.class"))).isTrue();
+  }
+
+  @Test
+  public void fileManagerOptions() throws IOException {
+    ErrorProneWorker worker =
+        new ErrorProneWorker(ScannerSupplier.fromBugCheckerClasses(CountingChecker.class));
+    Path lib = temporaryFolder.newFile("Lib.java").toPath();
+    Files.write(lib, ImmutableList.of("class Lib {}"), UTF_8);
+    Path source = temporaryFolder.newFile("Test.java").toPath();
+    Files.write(source, ImmutableList.of("class Test extends Lib {}"), UTF_8);
+    String classes = temporaryFolder.newFolder().toString();
+    StringWriter output = new StringWriter();
+
+    assertThat(
+            worker.compile(
+                ImmutableList.of("-d", classes, "-proc:none", lib.toString()),
+                new PrintWriter(output, true)))
+        .isEqualTo(0);
+    assertThat(
+            worker.compile(
+                ImmutableList.of(
+                    "-classpath",
+                    classes,
+                    "-d",
+                    temporaryFolder.newFolder().toString(),
+                    "-proc:none",
+                    source.toString()),
+                new PrintWriter(output, true)))
+        .isEqualTo(0);
+    assertThat(output.toString()).isEmpty();
+  }
+
+  @Test
+  public void invalidOptions() throws IOException {
+    ErrorProneWorker worker =
+        new ErrorProneWorker(ScannerSupplier.fromBugCheckerClasses(CountingChecker.class));
+    Path source = temporaryFolder.newFile("Test.java").toPath();
+    Files.write(source, ImmutableList.of("class Test {}"), UTF_8);
+    StringWriter output = new StringWriter();
+    assertThat(
+            worker.compile(
+                ImmutableList.of("-XepNoSuchFlag", source.toString()),
+                new PrintWriter(output, true)))
+        .isEqualTo(2);
+    assertThat(output.toString()).contains("invalid flag: -XepNoSuchFlag");
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.BugPattern.SeverityLevel;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.ReturnTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.scanner.ScannerSupplier;
+import com.sun.source.tree.ReturnTree;
+import com.sun.tools.javac.file.JavacFileManager;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** {@link StructuredDiagnosticsWriter}Test */
+@RunWith(JUnit4.class)
+public class StructuredDiagnosticsWriterTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /** Flags return statements, and suggests a "comment" with quotes in it. */
+  @BugPattern(summary = "Says \"return\"", severity = SeverityLevel.ERROR)
+  public static class ReturnChecker extends BugChecker implements ReturnTreeMatcher {
+    @Override
+    public Description matchReturn(ReturnTree tree, VisitorState state) {
+      return describeMatch(tree, SuggestedFix.prefixWith(tree, "/* \"here\" */ "));
+    }
+  }
+
+  @Test
+  public void jsonLines() throws IOException {
+    Path output = temporaryFolder.getRoot().toPath().resolve("findings.jsonl");
+    StringWriter log = new StringWriter();
+
+    assertThat(compile(output, log)).isFalse();
+
+    List<String> lines = Files.readAllLines(output, UTF_8);
+    assertThat(lines).hasSize(1);
+    assertThat(lines.get(0)).contains("\"check\":\"ReturnChecker\"");
+    assertThat(lines.get(0)).contains("\"severity\":\"ERROR\"");
+    assertThat(lines.get(0)).contains("\"start\":{\"offset\":30,\"line\":3,\"column\":5}");
+    assertThat(lines.get(0)).contains("\"message\":\"Says \\\"return\\\"\"");
+    assertThat(lines.get(0))
+        .contains("\"replacements\":[{\"start\":30,\"end\":30,\"text\":\"/* \\\"here\\\" */ \"}]");
+    // findings are only summarized in the compiler output
+    assertThat(log.toString()).doesNotContain("[ReturnChecker]");
+    assertThat(log.toString()).contains("error: Error Prone reported errors, see " + output);
+    assertThat(log.toString()).contains("Note: 1 error reported, see " + output);
+  }
+
+  @Test
+  public void errors_failBeforeGeneratingClasses() throws IOException {
+    Path output = temporaryFolder.getRoot().toPath().resolve("findings.jsonl");
+    Path classes = temporaryFolder.newFolder().toPath();
+
+    assertThat(
+            compile(
+                output,
+                new StringWriter(),
+                ImmutableList.of(
+                    "class Test {", //
+                    "  void f() {",
+                    "    return;",
+                    "  }",
+                    "}"),
+                classes))
+        .isFalse();
+
+    assertThat(Files.exists(classes.resolve("Test.class"))).isFalse();
+  }
+
+  @Test
+  public void errors_dontHideJavacErrors() throws IOException {
+    Path output = temporaryFolder.getRoot().toPath().resolve("findings.jsonl");
+    Path a = temporaryFolder.newFile("A.java").toPath();
+    Files.write(
+        a,
+        ImmutableList.of(
+            "class A {", //
+            "  void f() {",
+            "    return;",
+            "  }",
+            "}"),
+        UTF_8);
+    Path b = temporaryFolder.newFile("B.java").toPath();
+    Files.write(
+        b,
+        ImmutableList.of(
+            "class B {", //
+            "  void f() {",
+            "    return;",
+            "  }",
+            "  int g() {}",
+            "}"),
+        UTF_8);
+    StringWriter log = new StringWriter();
+
+    // B is not analyzed once javac has found an error in it, despite the error found in A.
+    assertThat(compile(output, log, temporaryFolder.newFolder().toPath(), a, b)).isFalse();
+
+    assertThat(log.toString()).contains("missing return statement");
+    List<String> lines = Files.readAllLines(output, UTF_8);
+    assertThat(lines).hasSize(1);
+    assertThat(lines.get(0)).contains("A.java");
+  }
+
+  @Test
+  public void sarif() throws IOException {
+    Path output = temporaryFolder.getRoot().toPath().resolve("findings.sarif");
+
+    assertThat(compile(output, new StringWriter())).isFalse();
+
+    String sarif = Files.readString(output, UTF_8);
+    assertThat(sarif).startsWith("{\"version\":\"2.1.0\"");
+    assertThat(sarif).contains("\"ruleId\":\"ReturnChecker\",\"level\":\"error\"");
+    assertThat(sarif).contains("\"region\":{\"startLine\":3,\"startColumn\":5,");
+    assertThat(sarif).contains("\"deletedRegion\":{\"charOffset\":30,\"charLength\":0}");
+    assertThat(sarif).endsWith("]}]}\n");
+  }
+
+  @Test
+  public void noFindings_replacesEarlierOutput() throws IOException {
+    Path output = temporaryFolder.getRoot().toPath().resolve("findings.sarif");
+    Files.writeString(output, "stale", UTF_8);
+
+    assertThat(compile(output, new StringWriter(), ImmutableList.of("class Test {}"))).isTrue();
+
+    assertThat(Files.readString(output, UTF_8))
+        .isEqualTo(
+            "{\"version\":\"2.1.0\","
+                + "\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\","
+                + "\"runs\":[{\"tool\":{\"driver\":{\"name\":\"Error Prone\","
+                + "\"informationUri\":\"https://errorprone.info\"}},\"results\":[\n"
+                + "\n]}]}\n");
+  }
+
+  private boolean compile(Path output, StringWriter log) throws IOException {
+    return compile(
+        output,
+        log,
+        ImmutableList.of(
+            "class Test {", //
+            "  void f() {",
+            "    return;",
+            "  }",
+            "}"));
+  }
+
+  private boolean compile(Path output, StringWriter log, ImmutableList<String> lines)
+      throws IOException {
+    return compile(output, log, lines, temporaryFolder.newFolder().toPath());
+  }
+
+  private boolean compile(Path output, StringWriter log, ImmutableList<String> lines, Path classes)
+      throws IOException {
+    Path source = temporaryFolder.newFile("Test.java").toPath();
+    Files.write(source, lines, UTF_8);
+    return compile(output, log, classes, source);
+  }
+
+  private boolean compile(Path output, StringWriter log, Path classes, Path... sources) {
+    JavaCompiler compiler =
+        new ErrorProneJavaCompiler(ScannerSupplier.fromBugCheckerClasses(ReturnChecker.class));
+    JavacFileManager fileManager = FileManagers.testFileManager();
+    return compiler
+        .getTask(
+            new PrintWriter(log, true),
+            fileManager,
+            /* diagnosticListener= */ null,
+            ImmutableList.of(
+                "-d", classes.toString(), "-proc:none", "-XepDiagnosticsOutput:" + output),
+            /* classes= */ null,
+            fileManager.getJavaFileObjects(sources))
+        .call();
+  }
+}
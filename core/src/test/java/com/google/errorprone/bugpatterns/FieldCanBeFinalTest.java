@@ -216,7 +216,7 @@ public class FieldCanBeFinalTest {
         .doTest();
   }
 
-  // we currently handle this by ignoring control flow and looking for at least one initialization
+  // the field is definitely assigned exactly once along each path
   @Test
   public void controlFlow() {
     compilationHelper
@@ -239,6 +239,144 @@ public class FieldCanBeFinalTest {
         .doTest();
   }
 
+  @Test
+  public void notDefinitelyAssigned() {
+    compilationHelper
+        .addSourceLines(
+            "Test.java",
+            """
+            class Test {
+              private int x;
+              private int y;
+
+              Test(boolean flag) {
+                if (flag) {
+                  x = 42;
+                }
+                y = 42;
+              }
+
+              Test() {}
+            }
+            """)
+        .doTest();
+  }
+
+  @Test
+  public void readBeforeAssignment() {
+    compilationHelper
+        .addSourceLines(
+            "Test.java",
+            """
+            class Test {
+              private int x;
+              // BUG: Diagnostic contains: private final int y
+              private int y = x;
+              private int z;
+
+              Test() {
+                System.err.println(z);
+                x = 42;
+                z = 42;
+              }
+            }
+            """)
+        .doTest();
+  }
+
+  @Test
+  public void earlyReturn() {
+    compilationHelper
+        .addSourceLines(
+            "Test.java",
+            """
+            class Test {
+              private int x;
+              // BUG: Diagnostic contains: private final int y
+              private int y;
+
+              Test(boolean flag) {
+                y = 42;
+                if (flag) {
+                  return;
+                }
+                x = 42;
+              }
+            }
+            """)
+        .doTest();
+  }
+
+  @Test
+  public void assignedInLoop() {
+    compilationHelper
+        .addSourceLines(
+            "Test.java",
+            """
+            class Test {
+              private int x;
+
+              Test() {
+                for (int i = 0; i < 1; i++) {
+                  x = i;
+                }
+              }
+            }
+            """)
+        .doTest();
+  }
+
+  @Test
+  public void tryCatch() {
+    compilationHelper
+        .addSourceLines(
+            "Test.java",
+            """
+            class Test {
+              // BUG: Diagnostic contains: private final int x
+              private int x;
+              private int y;
+
+              Test(String s) {
+                try {
+                  x = Integer.parseInt(s);
+                } catch (NumberFormatException e) {
+                  throw new IllegalArgumentException(e);
+                }
+                try {
+                  y = Integer.parseInt(s);
+                } catch (NumberFormatException e) {
+                  y = 0;
+                }
+              }
+            }
+            """)
+        .doTest();
+  }
+
+  @Test
+  public void assignedInNestedClassInitializer() {
+    compilationHelper
+        .addSourceLines(
+            "Test.java",
+            """
+            class Test {
+              private static int x;
+
+              static {
+                x = 42;
+              }
+
+              static class Nested {
+                static {
+                  x = 42;
+                }
+              }
+            }
+            """)
+        .doTest();
+  }
+
   @Test
   public void doubleInitialization() {
     compilationHelper
@@ -406,6 +406,40 @@ public class RestrictedApiCheckerTest {
         .doTest();
   }
 
+  @Test
+  public void allowlistingDependsOnEnclosingMethod() {
+    helper
+        .addSourceLines(
+            "Testcase.java",
+            """
+            package com.google.errorprone.bugpatterns.testdata;
+
+            class Testcase {
+              @Allowlist
+              void allowed(RestrictedApiMethods m) {
+                m.restrictedMethod();
+                m.restrictedMethod();
+              }
+
+              @AllowlistWithWarning
+              void warned(RestrictedApiMethods m) {
+                // BUG: Diagnostic contains: lorem
+                m.restrictedMethod();
+              }
+
+              void prohibited(RestrictedApiMethods m) {
+                // BUG: Diagnostic contains: lorem
+                m.restrictedMethod();
+                // BUG: Diagnostic contains: lorem
+                m.restrictedMethod();
+                m.normalMethod();
+              }
+            }
+            """)
+        .expectResult(Result.ERROR)
+        .doTest();
+  }
+
   // Regression test for b/36160747
   @Test
   public void allowAllDefinitionsInFile() {
@@ -226,6 +226,29 @@ public class ArgumentSelectionDefectCheckerTest {
         .doTest();
   }
 
+  @Test
+  public void argumentSelectionDefectChecker_onlySwappedCallsReported() {
+    CompilationTestHelper.newInstance(ArgumentSelectionDefectChecker.class, getClass())
+        .addSourceLines(
+            "Test.java",
+            """
+            abstract class Test {
+              abstract void target(Object first, Object second);
+
+              abstract void other(Object first, Object second);
+
+              void test(Object first, Object second) {
+                other(first, second);
+                other(null, null);
+                other(1, 2);
+                // BUG: Diagnostic contains: target(first, second)
+                target(second, first);
+              }
+            }
+            """)
+        .doTest();
+  }
+
   /**
    * A {@link BugChecker} which runs the ArgumentSelectionDefectChecker checker using string
    * equality for edit distance and a penaltyThreshold of 0.9
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone.bugpatterns.checkreturnvalue;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.errorprone.bugpatterns.checkreturnvalue.ExternalCanIgnoreReturnValue.ConfigParser;
+import com.google.errorprone.bugpatterns.checkreturnvalue.ExternalCanIgnoreReturnValue.MethodPredicate;
+import com.google.errorprone.bugpatterns.checkreturnvalue.ExternalCanIgnoreReturnValue.SignatureTable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** {@link ExternalCanIgnoreReturnValue}Test */
+@RunWith(JUnit4.class)
+public class ExternalCanIgnoreReturnValueTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static final SignatureTable TABLE =
+      new SignatureTable(
+          Stream.of(
+              "com.foo.Bar#qux()",
+              "com.foo.Bar#baz(int,java.lang.String)",
+              "com.foo.Baz#a()",
+              "com.foo.Bar#qux()"));
+
+  @Test
+  public void signatureTable_contains() {
+    assertThat(TABLE.contains("com.foo.Bar#qux()")).isTrue();
+    assertThat(TABLE.contains("com.foo.Bar#baz(int,java.lang.String)")).isTrue();
+    assertThat(TABLE.contains("com.foo.Baz#a()")).isTrue();
+    assertThat(TABLE.contains("com.foo.Bar#baz(int)")).isFalse();
+    assertThat(TABLE.contains("com.foo.Bar#")).isFalse();
+    assertThat(TABLE.contains("a.A#a()")).isFalse();
+    assertThat(TABLE.contains("z.Z#z()")).isFalse();
+  }
+
+  @Test
+  public void signatureTable_containsPrefix() {
+    assertThat(TABLE.containsPrefix("com.foo.Bar#")).isTrue();
+    assertThat(TABLE.containsPrefix("com.foo.Baz#")).isTrue();
+    assertThat(TABLE.containsPrefix("com.foo.")).isTrue();
+    assertThat(TABLE.containsPrefix("com.foo.Baz#a()")).isTrue();
+    assertThat(TABLE.containsPrefix("com.foo.Ba#")).isFalse();
+    assertThat(TABLE.containsPrefix("com.foo.Bazz#")).isFalse();
+    assertThat(TABLE.containsPrefix("a.")).isFalse();
+    assertThat(TABLE.containsPrefix("z.")).isFalse();
+    assertThat(new SignatureTable(Stream.of()).containsPrefix("")).isFalse();
+  }
+
+  @Test
+  public void loadConfigListFromFile_sharesLoadedLists() throws IOException {
+    Path file = writeList("com.foo.Bar#qux()");
+
+    MethodPredicate first =
+        ExternalCanIgnoreReturnValue.loadConfigListFromFile(
+            file.toString(), ConfigParser.AS_STRINGS);
+    MethodPredicate second =
+        ExternalCanIgnoreReturnValue.loadConfigListFromFile(
+            file.toString(), ConfigParser.AS_STRINGS);
+    MethodPredicate otherParser =
+        ExternalCanIgnoreReturnValue.loadConfigListFromFile(
+            file.toString(), ConfigParser.PARSE_TOKENS);
+
+    assertThat(second).isSameInstanceAs(first);
+    assertThat(otherParser).isNotSameInstanceAs(first);
+  }
+
+  @Test
+  public void loadConfigListFromFile_reloadsModifiedLists() throws IOException {
+    Path file = writeList("com.foo.Bar#qux()");
+    MethodPredicate before =
+        ExternalCanIgnoreReturnValue.loadConfigListFromFile(
+            file.toString(), ConfigParser.AS_STRINGS);
+
+    Files.writeString(file, "com.foo.Baz#a()", UTF_8);
+    FileTime modified = Files.getLastModifiedTime(file);
+    Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() + 10_000));
+    MethodPredicate after =
+        ExternalCanIgnoreReturnValue.loadConfigListFromFile(
+            file.toString(), ConfigParser.AS_STRINGS);
+
+    assertThat(after).isNotSameInstanceAs(before);
+    assertThat(
+            ExternalCanIgnoreReturnValue.loadConfigListFromFile(
+                file.toString(), ConfigParser.AS_STRINGS))
+        .isSameInstanceAs(after);
+  }
+
+  private Path writeList(String... apis) throws IOException {
+    Path file = temporaryFolder.newFile().toPath();
+    Files.writeString(file, String.join("\n", apis), UTF_8);
+    return file;
+  }
+}
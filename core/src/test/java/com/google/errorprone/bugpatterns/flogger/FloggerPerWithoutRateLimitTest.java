@@ -16,6 +16,7 @@
 package com.google.errorprone.bugpatterns.flogger;
 
 import com.google.errorprone.CompilationTestHelper;
+import com.google.errorprone.scanner.ScannerSupplier;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -77,4 +78,35 @@ public class FloggerPerWithoutRateLimitTest {
             """)
         .doTest();
   }
+
+  @Test
+  public void sharedWithOtherFloggerChecks() {
+    CompilationTestHelper.newInstance(
+            ScannerSupplier.fromBugCheckerClasses(
+                FloggerPerWithoutRateLimit.class, FloggerWithoutCause.class),
+            getClass())
+        .addSourceLines(
+            "Test.java",
+            """
+            import com.google.common.flogger.FluentLogger;
+            import java.util.concurrent.TimeUnit;
+
+            class Test {
+              private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+              enum E {
+                ONE,
+                TWO;
+              }
+
+              public void test(Exception e) {
+                // BUG: Diagnostic contains: per() methods are no-ops
+                logger.atInfo().withCause(e).per(E.ONE).log("foo %s", e);
+                // BUG: Diagnostic contains: withCause
+                logger.atInfo().per(E.ONE).every(10).log("foo %s", e);
+              }
+            }
+            """)
+        .doTest();
+  }
 }
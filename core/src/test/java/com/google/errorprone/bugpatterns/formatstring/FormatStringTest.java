@@ -204,6 +204,31 @@ public class FormatStringTest {
         .doTest();
   }
 
+  @Test
+  public void extraArguments_indexedSpecifiers() {
+    compilationHelper
+        .addSourceLines(
+            "Test.java",
+            """
+            import java.util.Date;
+
+            class Test {
+              void f(Date d) {
+                String.format("%2$s %1$s", 1, 2);
+                String.format("%s %<s %s%n%%", 1, 2);
+                String.format("%tY-%<tm %s", d, 1);
+                // BUG: Diagnostic contains: extra format arguments: used 1, provided 2
+                String.format("%1$s %1$s", 1, 2);
+                // BUG: Diagnostic contains: extra format arguments: used 1, provided 2
+                String.format("%d %<x", 1, 2);
+                // BUG: Diagnostic contains: missing argument for format specifier '%s'
+                String.format("%s %<s %s", 1);
+              }
+            }
+            """)
+        .doTest();
+  }
+
   @Test
   public void negative() {
     compilationHelper
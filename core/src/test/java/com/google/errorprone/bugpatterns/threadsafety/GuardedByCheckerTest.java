@@ -67,6 +67,41 @@ public class GuardedByCheckerTest {
         .doTest();
   }
 
+  @Test
+  public void sameFieldThroughDifferentReceivers() {
+    compilationHelper
+        .addSourceLines(
+            "threadsafety/Test.java",
+            """
+            package threadsafety;
+
+            import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+            class Test {
+              final Object lock = new Object();
+
+              @GuardedBy("lock")
+              int x;
+
+              void m(Test other) {
+                synchronized (lock) {
+                  x++;
+                  // BUG: Diagnostic contains:
+                  // should be guarded by 'other.lock'; instead found: 'this.lock'
+                  other.x++;
+                }
+                synchronized (other.lock) {
+                  other.x++;
+                  // BUG: Diagnostic contains:
+                  // should be guarded by 'this.lock'; instead found: 'other.lock'
+                  x++;
+                }
+              }
+            }
+            """)
+        .doTest();
+  }
+
   /** "static synchronized method() { ... }" == "synchronized (MyClass.class) { ... }" */
   @Test
   public void staticLocked() {
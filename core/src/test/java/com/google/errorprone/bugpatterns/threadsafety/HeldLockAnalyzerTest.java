@@ -251,6 +251,106 @@ public class HeldLockAnalyzerTest {
         .doTest();
   }
 
+  @Test
+  public void breakOutOfSynchronized() {
+    compilationHelper
+        .addSourceLines(
+            "threadsafety/Test.java",
+            """
+            package threadsafety;
+
+            import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+            class Test {
+              @GuardedBy("this")
+              int x;
+
+              void m(boolean b) {
+                while (true) {
+                  synchronized (this) {
+                    // BUG: Diagnostic contains:  [(THIS)]
+                    x++;
+                    if (b) {
+                      break;
+                    }
+                  }
+                }
+                // BUG: Diagnostic contains:  []
+                x++;
+              }
+            }
+            """)
+        .doTest();
+  }
+
+  @Test
+  public void exceptionInTryFinally() {
+    compilationHelper
+        .addSourceLines(
+            "threadsafety/Test.java",
+            """
+            package threadsafety;
+
+            import com.google.errorprone.annotations.concurrent.GuardedBy;
+            import java.util.concurrent.locks.Lock;
+
+            class Test {
+              final Lock lock = null;
+
+              @GuardedBy("this")
+              int x;
+
+              void m(Runnable r) {
+                try {
+                  lock.lock();
+                  try {
+                    r.run();
+                  } catch (RuntimeException e) {
+                    // BUG: Diagnostic contains:  [(SELECT (THIS) lock)]
+                    x++;
+                  } finally {
+                    // BUG: Diagnostic contains:  []
+                    x++;
+                    lock.unlock();
+                  }
+                } catch (RuntimeException e) {
+                  // BUG: Diagnostic contains:  []
+                  x++;
+                }
+              }
+            }
+            """)
+        .doTest();
+  }
+
+  @Test
+  public void lambdaInvokedImmediately() {
+    compilationHelper
+        .addSourceLines(
+            "threadsafety/Test.java",
+            """
+            package threadsafety;
+
+            import com.google.errorprone.annotations.concurrent.GuardedBy;
+            import java.util.Optional;
+
+            class Test {
+              @GuardedBy("this")
+              int x;
+
+              void m(Optional<Integer> o) {
+                synchronized (this) {
+                  // BUG: Diagnostic contains:  [(THIS)]
+                  o.ifPresent(i -> x++);
+                }
+                // BUG: Diagnostic contains:  []
+                o.ifPresent(i -> x++);
+              }
+            }
+            """)
+        .doTest();
+  }
+
   /** A customized {@link GuardedByChecker} that prints more test-friendly diagnostics. */
   @BugPattern(name = "GuardedByLockSet", summary = "", explanation = "", severity = ERROR)
   public static class GuardedByLockSetAnalyzer extends GuardedByChecker {
@@ -57,6 +57,36 @@ public class ImmutableCheckerTest {
         .doTest();
   }
 
+  @Test
+  public void sameTypeInDifferentContexts() {
+    compilationHelper
+        .addSourceLines(
+            "Test.java",
+            """
+            import com.google.common.collect.ImmutableList;
+            import com.google.errorprone.annotations.Immutable;
+            import com.google.errorprone.annotations.ImmutableTypeParameter;
+
+            @Immutable
+            class Test<@ImmutableTypeParameter T> {
+              final ImmutableList<String> a = null;
+              // BUG: Diagnostic contains: instantiated with mutable type
+              final ImmutableList<int[]> b = null;
+              final ImmutableList<T> c = null;
+
+              @Immutable
+              static class Inner<T> {
+                final ImmutableList<String> a = null;
+                // BUG: Diagnostic contains: instantiated with mutable type
+                final ImmutableList<int[]> b = null;
+                // BUG: Diagnostic contains: instantiated with mutable type
+                final ImmutableList<T> c = null;
+              }
+            }
+            """)
+        .doTest();
+  }
+
   @Test
   public void interfacesMutableByDefault() {
     compilationHelper
@@ -43,6 +43,7 @@ import com.sun.source.tree.ClassTree;
 import com.sun.source.tree.MethodInvocationTree;
 import com.sun.source.tree.MethodTree;
 import com.sun.source.tree.Tree;
+import javax.lang.model.element.Modifier;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -249,6 +250,53 @@ public class MatchersTest {
         .doTest();
   }
 
+  @Test
+  public void nestedCombinators() {
+    Matcher<MethodTree> matcher =
+        Matchers.allOf(
+            Matchers.not(Matchers.isStatic()),
+            // a guard for the matcher after it, which mustn't be tested first
+            (tree, state) -> tree.getBody() != null,
+            (tree, state) -> tree.getBody().getStatements().size() <= 1,
+            Matchers.anyOf(
+                methodReturns(isVoidType()), Matchers.hasAnnotation("java.lang.Deprecated")),
+            Matchers.allOf(
+                Matchers.hasModifier(Modifier.PUBLIC), Matchers.kindIs(Tree.Kind.METHOD)));
+    CompilationTestHelper.newInstance(methodTreeCheckerSupplier(matcher), getClass())
+        .addSourceLines(
+            "test/NestedCombinatorsTest.java",
+            """
+            package test;
+
+            public abstract class NestedCombinatorsTest {
+              // BUG: Diagnostic contains:
+              public void matches() {}
+
+              @Deprecated
+              // BUG: Diagnostic contains:
+              public int alsoMatches() {
+                return 0;
+              }
+
+              public abstract void noBody();
+
+              public static void isStatic() {}
+
+              void notPublic() {}
+
+              public int returnsInt() {
+                return 0;
+              }
+
+              public void twoStatements() {
+                int x = 0;
+                x++;
+              }
+            }
+            """)
+        .doTest();
+  }
+
   @Test
   public void methodReturnsType() {
     Matcher<MethodTree> matcher = methodReturns(typeFromString("java.lang.Number"));
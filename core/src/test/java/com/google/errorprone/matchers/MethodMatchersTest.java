@@ -31,6 +31,7 @@ import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
 import com.google.errorprone.fixes.SuggestedFix;
 import com.google.errorprone.matchers.method.MethodMatchers;
 import com.google.errorprone.matchers.method.MethodMatchers.MethodNameMatcher;
+import com.google.errorprone.suppliers.Suppliers;
 import com.sun.source.tree.ExpressionTree;
 import com.sun.source.tree.MemberReferenceTree;
 import com.sun.source.tree.MethodInvocationTree;
@@ -274,4 +275,83 @@ public class MethodMatchersTest {
             """)
         .doTest();
   }
+
+  /** Flags calls to {@code foo} on subtypes of {@code test.Sub}. */
+  @BugPattern(summary = "", severity = ERROR)
+  public static class FooOnSubChecker extends BugChecker implements MethodInvocationTreeMatcher {
+    private static final Matcher<ExpressionTree> MATCHER =
+        instanceMethod().onDescendantOf("test.Sub").named("foo");
+
+    @Override
+    public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+      return MATCHER.matches(tree, state) ? describeMatch(tree) : NO_MATCH;
+    }
+  }
+
+  @Test
+  public void sameMethodOnDifferentReceivers() {
+    CompilationTestHelper.newInstance(FooOnSubChecker.class, getClass())
+        .addSourceLines(
+            "test/Test.java",
+            """
+            package test;
+
+            class Base {
+              void foo() {}
+            }
+
+            class Sub extends Base {}
+
+            class Test {
+              void f(Base base, Sub sub) {
+                base.foo();
+                // BUG: Diagnostic contains:
+                sub.foo();
+                base.foo();
+                // BUG: Diagnostic contains:
+                sub.foo();
+              }
+            }
+            """)
+        .doTest();
+  }
+
+  /** Flags calls to {@code foo} on the enclosing class. */
+  @BugPattern(summary = "", severity = ERROR)
+  public static class FooOnEnclosingClassChecker extends BugChecker
+      implements MethodInvocationTreeMatcher {
+    private static final Matcher<ExpressionTree> MATCHER =
+        instanceMethod().onExactClass(Suppliers.ENCLOSING_CLASS).named("foo");
+
+    @Override
+    public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+      return MATCHER.matches(tree, state) ? describeMatch(tree) : NO_MATCH;
+    }
+  }
+
+  @Test
+  public void supplierDependsOnPath() {
+    CompilationTestHelper.newInstance(FooOnEnclosingClassChecker.class, getClass())
+        .addSourceLines(
+            "test/Test.java",
+            """
+            package test;
+
+            class A {
+              void foo() {}
+
+              void f(A a) {
+                // BUG: Diagnostic contains:
+                a.foo();
+              }
+            }
+
+            class B {
+              void f(A a) {
+                a.foo();
+              }
+            }
+            """)
+        .doTest();
+  }
 }
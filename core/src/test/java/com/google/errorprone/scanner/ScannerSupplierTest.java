@@ -20,6 +20,7 @@ import static com.google.common.truth.Truth.assertAbout;
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;
 import static com.google.errorprone.scanner.BuiltInCheckerSuppliers.getSuppliers;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertThrows;
 
 import com.google.common.base.Joiner;
@@ -290,6 +291,39 @@ public class ScannerSupplierTest {
     assertScanner(overridden).flagsMap().containsExactly("A:B", "false", "Foo", "2", "Bar", "1");
   }
 
+  @Test
+  public void applyOverridesSplitsChecksBetweenShards() {
+    ScannerSupplier ss =
+        ScannerSupplier.fromBugCheckerClasses(
+            ArrayEquals.class, BadShiftAmount.class, StaticQualifiedUsingExpression.class);
+
+    assertScanner(
+            ss.applyOverrides(ErrorProneOptions.processArgs(ImmutableList.of("-XepShard:0/2"))))
+        .hasEnabledChecks(ArrayEquals.class, StaticQualifiedUsingExpression.class);
+    assertScanner(
+            ss.applyOverrides(ErrorProneOptions.processArgs(ImmutableList.of("-XepShard:1/2"))))
+        .hasEnabledChecks(BadShiftAmount.class);
+  }
+
+  @Test
+  public void applyOverridesBalancesShardsByCost() throws IOException {
+    Path costs = Files.createTempFile("ep_shard_costs_", ".txt");
+    costs.toFile().deleteOnExit();
+    Files.write(costs, ImmutableList.of("BadShiftAmount 10", "ArrayEquals 1"), UTF_8);
+    ScannerSupplier ss =
+        ScannerSupplier.fromBugCheckerClasses(
+            ArrayEquals.class, BadShiftAmount.class, StaticQualifiedUsingExpression.class);
+
+    // StaticQualifiedUsingExpression has no entry, so it's assumed to have the average cost
+    ErrorProneOptions shard0 =
+        ErrorProneOptions.processArgs(ImmutableList.of("-XepShard:0/2", "-XepShardCosts:" + costs));
+    assertScanner(ss.applyOverrides(shard0)).hasEnabledChecks(BadShiftAmount.class);
+    ErrorProneOptions shard1 =
+        ErrorProneOptions.processArgs(ImmutableList.of("-XepShardCosts:" + costs, "-XepShard:1/2"));
+    assertScanner(ss.applyOverrides(shard1))
+        .hasEnabledChecks(ArrayEquals.class, StaticQualifiedUsingExpression.class);
+  }
+
   @Test
   public void applyOverridesEnablesCheck() {
     ScannerSupplier ss =
@@ -16,19 +16,37 @@
 
 package com.google.errorprone.scanner;
 
+import static com.google.common.truth.Truth.assertThat;
 import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;
+import static com.google.errorprone.FileObjects.forSourceLines;
 import static com.google.errorprone.matchers.Description.NO_MATCH;
 import static com.google.errorprone.util.ASTHelpers.getSymbol;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assume.assumeTrue;
 
 import com.google.common.collect.ImmutableList;
 import com.google.errorprone.BugPattern;
 import com.google.errorprone.CompilationTestHelper;
+import com.google.errorprone.ErrorProneTestCompiler;
 import com.google.errorprone.VisitorState;
 import com.google.errorprone.bugpatterns.BugChecker;
 import com.google.errorprone.bugpatterns.BugChecker.IdentifierTreeMatcher;
+import com.google.errorprone.bugpatterns.BugChecker.VariableTreeMatcher;
 import com.google.errorprone.matchers.Description;
 import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.tools.javac.main.Main.Result;
+import com.sun.tools.javac.util.Name;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
@@ -36,6 +54,8 @@ import org.junit.runners.JUnit4;
 @RunWith(JUnit4.class)
 public class ScannerTest {
 
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   private final CompilationTestHelper compilationHelper =
       CompilationTestHelper.newInstance(ShouldNotUseFoo.class, getClass());
 
@@ -106,11 +126,196 @@ public class ScannerTest {
         .doTest();
   }
 
+  @Test
+  public void onlyChangedLinesAnalyzed() throws IOException {
+    Path changedLines = temporaryFolder.newFile().toPath();
+    Files.writeString(changedLines, "Test.java:6\n", UTF_8);
+    compilationHelper
+        .addSourceLines(
+            "Test.java",
+            """
+            import com.google.errorprone.scanner.ScannerTest.Foo;
+
+            class Test {
+              Foo foo;
+              // BUG: Diagnostic contains: ShouldNotUseFoo
+              Foo bar;
+            }
+            """)
+        .setArgs(ImmutableList.of("-XepChangedLines:" + changedLines))
+        .doTest();
+  }
+
+  @Test
+  public void onlyChangedLinesAnalyzed_skipsUnchangedMembersAndStatements() throws IOException {
+    Path changedLines = temporaryFolder.newFile().toPath();
+    Files.writeString(changedLines, "Test.java:3,11\n", UTF_8);
+    RecordsVariables.visited.clear();
+    RecordsVariablesInUnchangedLines.visited.clear();
+    CompilationTestHelper.newInstance(
+            ScannerSupplier.fromBugCheckerClasses(
+                RecordsVariables.class, RecordsVariablesInUnchangedLines.class),
+            getClass())
+        .addSourceLines(
+            "Test.java",
+            """
+            class Test {
+              int unchangedField;
+              int changedField;
+
+              void unchangedMethod() {
+                int a = 0;
+              }
+
+              void changedMethod() {
+                int b = 0;
+                int c = 0;
+              }
+            }
+            """)
+        .setArgs(ImmutableList.of("-XepChangedLines:" + changedLines))
+        .expectNoDiagnostics()
+        .doTest();
+
+    assertThat(RecordsVariables.visited).containsExactly("changedField", "c").inOrder();
+    assertThat(RecordsVariablesInUnchangedLines.visited)
+        .containsExactly("unchangedField", "changedField", "a", "b", "c")
+        .inOrder();
+  }
+
+  @Test
+  public void reusedVisitorState() {
+    compilationHelper
+        .addSourceLines(
+            "Test.java",
+            """
+            import com.google.errorprone.scanner.ScannerTest.Foo;
+            import com.google.errorprone.scanner.ScannerTest.OkToUseFoo;
+
+            class Test {
+              @OkToUseFoo Foo foo;
+              // BUG: Diagnostic contains: ShouldNotUseFoo
+              Foo bar;
+            }
+            """)
+        .setArgs(ImmutableList.of("-XepReuseVisitorState"))
+        .doTest();
+  }
+
+  @Test
+  public void reusedVisitorStateUpdatesSuppressionsWithParentPath() {
+    List<String> mismatches = new ArrayList<>();
+    ErrorProneScanner scanner =
+        new ErrorProneScanner(new RecordsVariables()) {
+          @Override
+          protected Set<? extends Name> getCustomSuppressionAnnotations(VisitorState state) {
+            // Suppressions for a tree are looked up before the tree is visited, so the state is
+            // still at its parent.
+            if (state.getPath().getLeaf() != getCurrentPath().getLeaf()) {
+              mismatches.add(
+                  state.getPath().getLeaf().getKind()
+                      + " != "
+                      + getCurrentPath().getLeaf().getKind());
+            }
+            return super.getCustomSuppressionAnnotations(state);
+          }
+        };
+    Result result =
+        new ErrorProneTestCompiler.Builder()
+            .report(ScannerSupplier.fromScanner(scanner))
+            .build()
+            .compile(
+                new String[] {"-XepReuseVisitorState"},
+                ImmutableList.of(
+                    forSourceLines(
+                        "Test.java",
+                        """
+                        class Test {
+                          int a;
+
+                          void f(int x) {
+                            int y = x;
+                          }
+
+                          class Inner {
+                            int b;
+                          }
+                        }
+                        """)));
+    RecordsVariables.visited.clear();
+
+    assertThat(result).isEqualTo(Result.OK);
+    assertThat(mismatches).isEmpty();
+  }
+
+  @Test
+  public void retainedReusedVisitorStateFails() {
+    assumeTrue(ErrorProneScanner.class.desiredAssertionStatus());
+    CompilationTestHelper helper =
+        CompilationTestHelper.newInstance(RetainsState.class, getClass())
+            .addSourceLines(
+                "Test.java",
+                """
+                class Test {
+                  int a;
+                  int b;
+                }
+                """)
+            .setArgs(ImmutableList.of("-XepReuseVisitorState"));
+    AssertionError thrown = assertThrows(AssertionError.class, helper::doTest);
+    assertThat(thrown).hasMessageThat().contains("retained");
+  }
+
+  /** Records the names of the variables it is asked to match. */
+  @BugPattern(summary = "Records variables.", severity = ERROR)
+  public static class RecordsVariables extends BugChecker implements VariableTreeMatcher {
+    static final List<String> visited = new ArrayList<>();
+
+    @Override
+    public Description matchVariable(VariableTree tree, VisitorState state) {
+      visited.add(tree.getName().toString());
+      return NO_MATCH;
+    }
+  }
+
+  /** Records the names of the variables it is asked to match, including unchanged ones. */
+  @BugPattern(summary = "Records variables in unchanged lines.", severity = ERROR)
+  public static class RecordsVariablesInUnchangedLines extends BugChecker
+      implements VariableTreeMatcher {
+    static final List<String> visited = new ArrayList<>();
+
+    @Override
+    public boolean analyzesUnchangedLines() {
+      return true;
+    }
+
+    @Override
+    public Description matchVariable(VariableTree tree, VisitorState state) {
+      visited.add(tree.getName().toString());
+      return NO_MATCH;
+    }
+  }
+
   @OkToUseFoo // Foo can use itself. But this shouldn't suppress errors on *usages* of Foo.
   public static final class Foo<T> {}
 
   public @interface OkToUseFoo {}
 
+  /** Holds on to the state it was passed, which isn't allowed. */
+  @BugPattern(summary = "Retains its VisitorState.", severity = ERROR)
+  public static class RetainsState extends BugChecker implements VariableTreeMatcher {
+    private VisitorState previous;
+
+    @Override
+    public Description matchVariable(VariableTree tree, VisitorState state) {
+      if (previous != null) {
+        var unused = previous.getPath();
+      }
+      previous = state;
+      return NO_MATCH;
+    }
+  }
+
   @BugPattern(
       summary = "Code should not use Foo.",
       severity = ERROR,
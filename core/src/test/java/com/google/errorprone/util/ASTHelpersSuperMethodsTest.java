@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 The Error Prone Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.errorprone.util;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;
+import static com.google.errorprone.util.ASTHelpers.getSymbol;
+
+import com.google.common.testing.GcFinalization;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.CompilationTestHelper;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodTreeMatcher;
+import com.google.errorprone.matchers.Description;
+import com.sun.source.tree.MethodTree;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import com.sun.tools.javac.code.Types;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link ASTHelpers#findSuperMethods(MethodSymbol, VisitorState)}. */
+@RunWith(JUnit4.class)
+public class ASTHelpersSuperMethodsTest {
+
+  /** Reports the super methods of each method, and records the compilations it runs in. */
+  @BugPattern(summary = "", severity = ERROR)
+  public static class SuperMethodsChecker extends BugChecker implements MethodTreeMatcher {
+    private static final List<WeakReference<Types>> compilations = new ArrayList<>();
+
+    @Override
+    public Description matchMethod(MethodTree tree, VisitorState state) {
+      Types types = state.getTypes();
+      if (compilations.isEmpty() || compilations.getLast().get() != types) {
+        compilations.add(new WeakReference<>(types));
+      }
+      // Looking up the same method twice returns the same super methods.
+      MethodSymbol sym = getSymbol(tree);
+      assertThat(ASTHelpers.findSuperMethods(sym, state))
+          .containsExactlyElementsIn(ASTHelpers.findSuperMethods(sym, state))
+          .inOrder();
+      if (ASTHelpers.findSuperMethods(sym, state).isEmpty()) {
+        return Description.NO_MATCH;
+      }
+      return buildDescription(tree)
+          .setMessage("overrides " + ASTHelpers.findSuperMethods(sym, state))
+          .build();
+    }
+  }
+
+  @After
+  public void clearCompilations() {
+    SuperMethodsChecker.compilations.clear();
+  }
+
+  private void compile() {
+    CompilationTestHelper.newInstance(SuperMethodsChecker.class, getClass())
+        .addSourceLines(
+            "Test.java",
+            """
+            import java.util.function.Supplier;
+
+            class Test implements Supplier<String> {
+              // BUG: Diagnostic contains: overrides [get()]
+              public String get() {
+                return "";
+              }
+
+              // BUG: Diagnostic contains: overrides [toString()]
+              public String toString() {
+                return "";
+              }
+
+              void f() {}
+            }
+            """)
+        .doTest();
+  }
+
+  @Test
+  public void findSuperMethods() {
+    compile();
+  }
+
+  @Test
+  public void findSuperMethods_releasesEarlierCompilations() {
+    compile();
+    compile();
+
+    assertThat(SuperMethodsChecker.compilations).hasSize(2);
+    // The super methods found in the first compilation don't keep it reachable after the second
+    // one.
+    GcFinalization.awaitClear(SuperMethodsChecker.compilations.getFirst());
+  }
+}